@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Configuration properties texts used by benchmarks.
+ * <p>
+ * Besides the {@code load.properties} test resource, synthetic texts are generated with a fixed seed mixing comments, blank
+ * lines, dotted keys, array and map notation, escapes and continuation lines, as in real world files. Most keys are taken
+ * from a fixed catalogue of {@link #propertyNames() property names}, the others are unknown names.
+ *
+ * @author Alessandro Falappa
+ */
+public final class Corpora {
+
+    private static final String[] WORDS = {"server", "port", "spring", "datasource", "url", "username", "jpa",
+        "hibernate", "ddl-auto", "logging", "level", "management", "endpoints", "web", "exposure", "include", "cache",
+        "redis", "timeout", "max-size", "enabled", "name", "profiles", "active", "security", "user", "password"};
+    private static final List<String> PROPERTY_NAMES = catalogue(2000);
+
+    // prevent instantiation
+    private Corpora() {
+    }
+
+    /**
+     * Retrieves a benchmark text by name.
+     * <p>
+     * Names are {@code load} for the {@code load.properties} test resource, {@code 1k}, {@code 10k} and {@code 100k} for
+     * synthetic texts of as many lines, optionally followed by {@code -errors} for a syntax error every 20 lines.
+     *
+     * @param name the text name
+     * @return the text
+     */
+    public static String get(String name) {
+        if ("load".equals(name)) {
+            return resource("/load.properties");
+        }
+        final boolean errors = name.endsWith("-errors");
+        final String size = errors ? name.substring(0, name.length() - "-errors".length()) : name;
+        if (!size.endsWith("k")) {
+            throw new IllegalArgumentException("Unknown corpus " + name);
+        }
+        return synthetic(Integer.parseInt(size.substring(0, size.length() - 1)) * 1000, errors ? 20 : 0);
+    }
+
+    /**
+     * Generates a synthetic text.
+     *
+     * @param lines number of lines
+     * @param errorEvery put a syntax error every that many lines, no errors if zero
+     * @return the text
+     */
+    public static String synthetic(int lines, int errorEvery) {
+        final Random rnd = new Random(42);
+        StringBuilder sb = new StringBuilder(lines * 40);
+        for (int i = 1; i <= lines; i++) {
+            if (errorEvery > 0 && i % errorEvery == 0) {
+                // missing separator
+                sb.append(key(rnd)).append(' ').append(WORDS[rnd.nextInt(WORDS.length)]).append('\n');
+                continue;
+            }
+            final int kind = rnd.nextInt(20);
+            if (kind == 0) {
+                sb.append("# ").append(WORDS[rnd.nextInt(WORDS.length)]).append(" settings\n");
+            } else if (kind == 1) {
+                sb.append('\n');
+            } else if (kind == 2 && i < lines) {
+                sb.append(key(rnd)).append("=first part of a long value \\\n    continued on the next line\n");
+                i++;
+            } else if (kind == 3) {
+                sb.append(key(rnd)).append('[').append(rnd.nextInt(10)).append("]=").append(value(rnd)).append('\n');
+            } else if (kind == 4) {
+                sb.append(key(rnd)).append('.').append(WORDS[rnd.nextInt(WORDS.length)]).append("\\u00e9\\ key : ")
+                        .append(value(rnd)).append('\n');
+            } else {
+                sb.append(key(rnd)).append('=').append(value(rnd)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Names of the properties used as keys by synthetic texts.
+     *
+     * @return an unmodifiable list of distinct names
+     */
+    public static List<String> propertyNames() {
+        return PROPERTY_NAMES;
+    }
+
+    private static List<String> catalogue(int size) {
+        final Random rnd = new Random(7);
+        Set<String> names = new LinkedHashSet<>();
+        while (names.size() < size) {
+            names.add(randomKey(rnd));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(names));
+    }
+
+    private static String key(Random rnd) {
+        return rnd.nextInt(5) > 0 ? PROPERTY_NAMES.get(rnd.nextInt(PROPERTY_NAMES.size())) : randomKey(rnd);
+    }
+
+    private static String randomKey(Random rnd) {
+        StringBuilder sb = new StringBuilder(WORDS[rnd.nextInt(WORDS.length)]);
+        final int parts = 1 + rnd.nextInt(4);
+        for (int i = 0; i < parts; i++) {
+            sb.append('.').append(WORDS[rnd.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String value(Random rnd) {
+        switch (rnd.nextInt(4)) {
+            case 0:
+                return String.valueOf(rnd.nextInt(10_000));
+            case 1:
+                return rnd.nextBoolean() ? "true" : "false";
+            case 2:
+                return "jdbc:postgresql://localhost:5432/" + WORDS[rnd.nextInt(WORDS.length)];
+            default:
+                return "${" + WORDS[rnd.nextInt(WORDS.length)] + "." + WORDS[rnd.nextInt(WORDS.length)] + "}";
+        }
+    }
+
+    private static String resource(String path) {
+        try (InputStream is = Corpora.class.getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IllegalArgumentException("Missing resource " + path);
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            for (int n; (n = is.read(buf)) > 0;) {
+                bos.write(buf, 0, n);
+            }
+            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
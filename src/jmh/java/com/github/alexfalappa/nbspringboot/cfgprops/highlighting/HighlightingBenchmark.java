@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultStyledDocument;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.Corpora;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgPropsIncrementalParser;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.RecursiveDescentTextParser;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+import com.github.alexfalappa.nbspringboot.projects.service.impl.SnapshotSpringBootService;
+import com.github.alexfalappa.nbspringboot.projects.service.impl.SyntheticMetadata;
+
+/**
+ * Measures the highlighting checkers on a parsed text, against synthetic configuration metadata.
+ * <p>
+ * Each checker is measured alone and all together in the single pass of the highlighting task, checking all pairs. The
+ * incremental run after typing a char in the middle of the text is measured too, including its reparse. Checks run on a
+ * plain Swing document, outside the parsing infrastructure and without publishing errors.
+ *
+ * @author Alessandro Falappa
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HighlightingBenchmark {
+
+    @Param({"1k", "10k", "100k", "10k-errors"})
+    private String corpus;
+    private String text;
+    private String edited;
+    private int mid;
+    private boolean toggle;
+    private HighlightingContext ctx;
+    private final CfgPropsHighlightingTask task = new CfgPropsHighlightingTask();
+    private DefaultStyledDocument editedDocument;
+    private CfgPropsIncrementalParser editedParser;
+    private HighlightingContext editedCtx;
+    private final CfgPropsHighlightingTask editedTask = new CfgPropsHighlightingTask();
+
+    @Setup
+    public void setup() throws BadLocationException {
+        text = Corpora.get(corpus);
+        final DefaultStyledDocument document = new DefaultStyledDocument();
+        document.insertString(0, text, null);
+        final CfgPropsIncrementalParser parser = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+        parser.parse(text);
+        final SpringBootService sbs = new SnapshotSpringBootService(SyntheticMetadata.snapshot());
+        ctx = new HighlightingContext(document, parser.getCfgFile(), new ArrayList<>(parser.getSyntaxErrors()), sbs,
+                getClass().getClassLoader());
+        mid = text.indexOf('=', text.length() / 2) + 1;
+        edited = text.substring(0, mid) + 'x' + text.substring(mid);
+        editedDocument = new DefaultStyledDocument();
+        editedDocument.insertString(0, text, null);
+        editedParser = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+        editedParser.parse(text);
+        editedCtx = new HighlightingContext(editedDocument, editedParser.getCfgFile(), editedParser.getSyntaxErrors(), sbs,
+                getClass().getClassLoader());
+        editedTask.highlight(editedCtx, enable(editedTask, BaseChecker.class));
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> syntaxErrors() {
+        return highlightAll(SyntaxErrorChecker.class);
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> duplicates() {
+        return highlightAll(DuplicatesChecker.class);
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> dataTypeMismatches() {
+        return highlightAll(DataTypeMismatchChecker.class);
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> deprecatedProps() {
+        return highlightAll(DeprecatedPropsChecker.class);
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> unknownProps() {
+        return highlightAll(UnknownPropsChecker.class);
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> allCheckers() {
+        return highlightAll(BaseChecker.class);
+    }
+
+    @Benchmark
+    public Map<String, List<ErrorDescription>> allCheckersAfterEdit() throws BadLocationException {
+        // alternate typing and deleting the char
+        toggle = !toggle;
+        if (toggle) {
+            editedDocument.insertString(mid, "x", null);
+        } else {
+            editedDocument.remove(mid, 1);
+        }
+        editedParser.parse(toggle ? edited : text);
+        return editedTask.highlight(editedCtx, enable(editedTask, BaseChecker.class));
+    }
+
+    // checks all pairs with the checkers of the given type
+    private Map<String, List<ErrorDescription>> highlightAll(Class<? extends BaseChecker> type) {
+        task.reset();
+        return task.highlight(ctx, enable(task, type));
+    }
+
+    private static Map<BaseChecker, Severity> enable(CfgPropsHighlightingTask task, Class<? extends BaseChecker> type) {
+        Map<BaseChecker, Severity> ret = new LinkedHashMap<>();
+        for (BaseChecker checker : task.getCheckers()) {
+            if (type.isInstance(checker)) {
+                ret.put(checker, Severity.WARNING);
+            }
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.lexer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.netbeans.api.lexer.TokenHierarchy;
+import org.netbeans.api.lexer.TokenSequence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.Corpora;
+
+/**
+ * Measures tokenization of whole texts by the {@link CfgPropsScanner} through the NetBeans Lexer API.
+ *
+ * @author Alessandro Falappa
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScannerBenchmark {
+
+    @Param({"1k", "10k", "100k"})
+    private String corpus;
+    private String text;
+
+    @Setup
+    public void setup() {
+        text = Corpora.get(corpus);
+    }
+
+    @Benchmark
+    public int tokenize() {
+        final TokenHierarchy<String> hierarchy = TokenHierarchy.create(text, CfgPropsTokenId.language());
+        final TokenSequence<CfgPropsTokenId> sequence = hierarchy.tokenSequence(CfgPropsTokenId.language());
+        int count = 0;
+        while (sequence.moveNext()) {
+            count++;
+        }
+        return count;
+    }
+}
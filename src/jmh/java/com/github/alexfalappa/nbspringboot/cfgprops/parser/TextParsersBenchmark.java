@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.Corpora;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+
+/**
+ * Compares parsing a whole text with the Parboiled grammar and with the hand-written recursive descent parser, and measures
+ * the incremental reparse after typing a char in the middle of the text.
+ *
+ * @author Alessandro Falappa
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextParsersBenchmark {
+
+    @Param({"load", "1k", "10k", "100k", "10k-errors"})
+    private String corpus;
+    private String text;
+    private String edited;
+    private boolean toggle;
+    private CfgPropsIncrementalParser incremental;
+    private final ParboiledTextParser parboiled = new ParboiledTextParser();
+    private final RecursiveDescentTextParser recursiveDescent = new RecursiveDescentTextParser();
+
+    @Setup
+    public void setup() {
+        text = Corpora.get(corpus);
+        final int mid = text.indexOf('=', text.length() / 2) + 1;
+        edited = text.substring(0, mid) + 'x' + text.substring(mid);
+        incremental = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+        incremental.parse(text);
+    }
+
+    @Benchmark
+    public CfgFile parboiled() {
+        return parboiled.parse(text, new ArrayList<>());
+    }
+
+    @Benchmark
+    public CfgFile recursiveDescent() {
+        return recursiveDescent.parse(text, new ArrayList<>());
+    }
+
+    @Benchmark
+    public CfgFile incrementalEdit() {
+        // alternate typing and deleting the char
+        toggle = !toggle;
+        incremental.parse(toggle ? edited : text);
+        return incremental.getCfgFile();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Compares the heap retained by configuration metadata held as full {@link ConfigurationMetadataProperty} objects (as
+ * built by the Spring Boot JSON builder) and as {@link CompactPropertyMetadata} with descriptions loaded on demand.
+ * <p>
+ * Not a JMH benchmark: run its main method passing jar files or directories of jars, e.g. the {@code target/dependency} folder
+ * of a Spring Cloud project after {@code mvn dependency:copy-dependencies}. Run with a fixed heap ({@code -Xms -Xmx}) for
+ * stable figures.
+ *
+ * @author Alessandro Falappa
+ */
+public class MetadataHeapBenchmark {
+
+    private static final String METADATA_JSON = "META-INF/spring-configuration-metadata.json";
+
+    public static void main(String[] args) throws IOException {
+        List<File> jars = new ArrayList<>();
+        for (String arg : args) {
+            collectJars(new File(arg), jars);
+        }
+        System.out.format("Scanning %d jars%n", jars.size());
+        final long baseline = usedHeap();
+        List<Map<String, ConfigurationMetadataProperty>> full = new ArrayList<>();
+        List<File> jarsWithMetadata = new ArrayList<>();
+        int count = 0;
+        for (File jar : jars) {
+            try (ZipFile zip = new ZipFile(jar)) {
+                ZipEntry entry = zip.getEntry(METADATA_JSON);
+                if (entry != null) {
+                    try (InputStream is = zip.getInputStream(entry)) {
+                        final Map<String, ConfigurationMetadataProperty> props = ConfigurationMetadataRepositoryJsonBuilder
+                                .create().withJsonResource(is).build().getAllProperties();
+                        count += props.size();
+                        full.add(props);
+                        jarsWithMetadata.add(jar);
+                    }
+                }
+            }
+        }
+        final long fullHeap = usedHeap() - baseline;
+        List<Map<String, CompactPropertyMetadata>> compact = new ArrayList<>();
+        for (int i = 0; i < full.size(); i++) {
+            final Map<String, ConfigurationMetadataProperty> props = full.get(i);
+            final Function<String, String> descriptions = jarDescriptions(jarsWithMetadata.get(i));
+            Map<String, CompactPropertyMetadata> compacts = new HashMap<>(props.size() * 4 / 3 + 1);
+            for (Map.Entry<String, ConfigurationMetadataProperty> entry : props.entrySet()) {
+                compacts.put(entry.getKey(), CompactPropertyMetadata.of(entry.getValue(), descriptions));
+            }
+            compact.add(compacts);
+        }
+        full.clear();
+        final long compactHeap = usedHeap() - baseline;
+        System.out.format("%d properties in %d metadata files%n", count, compact.size());
+        System.out.format("Full model:    %,12d bytes (%,d bytes/property)%n", fullHeap, fullHeap / Math.max(count, 1));
+        System.out.format("Compact model: %,12d bytes (%,d bytes/property)%n", compactHeap, compactHeap / Math.max(count, 1));
+        // keep the compact model reachable until measured
+        System.out.format("(%d maps retained)%n", compact.size());
+    }
+
+    // descriptions read again from the jar when asked for, as the plugin does, none is asked for here
+    private static Function<String, String> jarDescriptions(File jar) {
+        return id -> {
+            try (ZipFile zip = new ZipFile(jar)) {
+                final ConfigurationMetadataProperty prop = MetadataJsonReader
+                        .read(zip.getInputStream(zip.getEntry(METADATA_JSON))).get(id);
+                return prop != null ? prop.getDescription() : null;
+            } catch (IOException ex) {
+                return null;
+            }
+        };
+    }
+
+    private static void collectJars(File file, List<File> jars) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    collectJars(child, jars);
+                }
+            }
+        } else if (file.getName().endsWith(".jar")) {
+            jars.add(file);
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
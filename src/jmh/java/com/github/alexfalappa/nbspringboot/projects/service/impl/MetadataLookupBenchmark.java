@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.Corpora;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgPropsIncrementalParser;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.RecursiveDescentTextParser;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+
+/**
+ * Measures Spring Boot service metadata lookups as done by highlighting (all the keys of a text) and by completion
+ * (filtered queries).
+ *
+ * @author Alessandro Falappa
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataLookupBenchmark {
+
+    @Benchmark
+    public void compactMetadataOfKeys(Service service, Keys keys, Blackhole bh) {
+        for (String key : keys.keys) {
+            bh.consume(service.sbs.getCompactPropertyMetadata(key));
+        }
+    }
+
+    @Benchmark
+    public void mapPrefixLengthOfKeys(Service service, Keys keys, Blackhole bh) {
+        for (String key : keys.keys) {
+            bh.consume(service.sbs.getMapPropertyPrefixLength(key));
+        }
+    }
+
+    @Benchmark
+    public List<CompactPropertyMetadata> query(Service service, Filter filter) {
+        return service.sbs.queryCompactPropertyMetadata(filter.filter);
+    }
+
+    @Benchmark
+    public List<CompactPropertyMetadata> queryRanked(Service service, Filter filter) {
+        return service.sbs.queryRankedCompactPropertyMetadata(filter.filter, 100);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Service {
+
+        private SpringBootService sbs;
+
+        @Setup
+        public void setup() {
+            sbs = new SnapshotSpringBootService(SyntheticMetadata.snapshot());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Keys {
+
+        @Param({"1k", "10k", "100k"})
+        private String corpus;
+        private final List<String> keys = new ArrayList<>();
+
+        @Setup
+        public void setup() {
+            final CfgPropsIncrementalParser parser = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+            parser.parse(Corpora.get(corpus));
+            for (PairElement pair : parser.getCfgFile().getElements()) {
+                keys.add(pair.getKey().getText());
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({"port", "spring.datasource", "s.d.url"})
+        private String filter;
+    }
+}
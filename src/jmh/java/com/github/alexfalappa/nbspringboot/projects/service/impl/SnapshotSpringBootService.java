@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.swing.event.ChangeListener;
+
+import org.netbeans.api.java.classpath.ClassPath;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+
+/**
+ * Spring Boot service answering metadata queries from a fixed snapshot, as {@link SpringBootServiceImpl} does once metadata
+ * is loaded, without a project behind.
+ *
+ * @author Alessandro Falappa
+ */
+public final class SnapshotSpringBootService implements SpringBootService {
+
+    private final MetadataSnapshot snapshot;
+
+    public SnapshotSpringBootService(MetadataSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void refresh() {
+    }
+
+    @Override
+    public boolean isMetadataReady() {
+        return true;
+    }
+
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+    }
+
+    @Override
+    public void removeChangeListener(ChangeListener listener) {
+    }
+
+    @Override
+    public ClassPath getManagedClassPath() {
+        return null;
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return snapshot.getProperties().keySet();
+    }
+
+    @Override
+    public Set<String> getCollectionPropertyNames() {
+        return snapshot.getCollectionPropertyNames();
+    }
+
+    @Override
+    public Set<String> getMapPropertyNames() {
+        return snapshot.getMapPropertyNames();
+    }
+
+    @Override
+    public int getMapPropertyPrefixLength(String name) {
+        return snapshot.getCanonicalIndex().mapPropertyPrefixLength(name);
+    }
+
+    @Override
+    public ConfigurationMetadataProperty getPropertyMetadata(String propertyName) {
+        final CompactPropertyMetadata compact = snapshot.getCanonicalIndex().lookup(propertyName);
+        return compact != null ? compact.toMetadataProperty() : null;
+    }
+
+    @Override
+    public CompactPropertyMetadata getCompactPropertyMetadata(String propertyName) {
+        return snapshot.getCanonicalIndex().lookup(propertyName);
+    }
+
+    @Override
+    public List<ConfigurationMetadataProperty> queryPropertyMetadata(String filter) {
+        return toMetadataProperties(snapshot.getNameIndex().query(filter));
+    }
+
+    @Override
+    public List<CompactPropertyMetadata> queryCompactPropertyMetadata(String filter) {
+        return snapshot.getNameIndex().query(filter);
+    }
+
+    @Override
+    public List<CompactPropertyMetadata> queryRankedCompactPropertyMetadata(String filter, int maxResults) {
+        return snapshot.getNameIndex().queryRanked(filter, maxResults);
+    }
+
+    @Override
+    public HintProvider getHintProvider(String name) {
+        return new NoopHintProvider();
+    }
+
+    @Override
+    public boolean hasPomDependency(String artifactId) {
+        return false;
+    }
+
+    @Override
+    public String getRestartEnvVarName() {
+        return ENV_RESTART_20;
+    }
+
+    @Override
+    public String getPluginPropsPrefix() {
+        return "spring-boot.run";
+    }
+
+    private static List<ConfigurationMetadataProperty> toMetadataProperties(List<CompactPropertyMetadata> compacts) {
+        List<ConfigurationMetadataProperty> ret = new ArrayList<>(compacts.size());
+        for (CompactPropertyMetadata compact : compacts) {
+            ret.add(compact.toMetadataProperty());
+        }
+        return ret;
+    }
+}
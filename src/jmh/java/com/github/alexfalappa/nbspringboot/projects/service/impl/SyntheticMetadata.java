@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.Corpora;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Configuration metadata of the properties used as keys by the synthetic benchmark texts.
+ * <p>
+ * Properties are given in turn scalar, collection, map and duration types, one in 25 is deprecated.
+ *
+ * @author Alessandro Falappa
+ */
+public final class SyntheticMetadata {
+
+    private static final String[] TYPES = {"java.lang.Integer", "java.lang.Boolean", "java.lang.String",
+        "java.util.List<java.lang.String>", "java.util.Map<java.lang.String,java.lang.String>", "java.time.Duration"};
+
+    // prevent instantiation
+    private SyntheticMetadata() {
+    }
+
+    /**
+     * Builds a metadata snapshot of the {@link Corpora#propertyNames() catalogue} of property names.
+     *
+     * @return the snapshot
+     */
+    public static MetadataSnapshot snapshot() {
+        Map<String, CompactPropertyMetadata> props = new HashMap<>();
+        Set<String> mapNames = new HashSet<>();
+        Set<String> collectionNames = new HashSet<>();
+        final List<String> names = Corpora.propertyNames();
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i);
+            ConfigurationMetadataProperty prop = new ConfigurationMetadataProperty();
+            prop.setId(name);
+            prop.setName(name.substring(name.lastIndexOf('.') + 1));
+            prop.setType(TYPES[i % TYPES.length]);
+            prop.setDescription("Description of " + name + ". Further details.");
+            if (i % 25 == 0) {
+                Deprecation deprecation = new Deprecation();
+                deprecation.setLevel(i % 50 == 0 ? Deprecation.Level.ERROR : Deprecation.Level.WARNING);
+                deprecation.setReplacement(names.get((i + 1) % names.size()));
+                prop.setDeprecation(deprecation);
+            }
+            props.put(name, CompactPropertyMetadata.of(prop));
+            if (prop.getType().startsWith("java.util.Map")) {
+                mapNames.add(name);
+            } else if (prop.getType().startsWith("java.util.List")) {
+                collectionNames.add(name);
+            }
+        }
+        return new MetadataSnapshot(props, mapNames, collectionNames);
+    }
+}
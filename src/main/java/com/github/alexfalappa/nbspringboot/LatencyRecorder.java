@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free recorder of operation latencies, keeping a count and a log-linear histogram per operation.
+ * <p>
+ * Latencies are recorded in microseconds: exactly below 16, in buckets 12.5% wide above. Recording is a few atomic
+ * increments, so recorders can be used on hot paths like completion queries and highlighting tasks. Recorders are
+ * registered by name on first use and live as long as the module.
+ *
+ * @author Alessandro Falappa
+ */
+public final class LatencyRecorder {
+
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKETS_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+    // exponents from 4 (16 microseconds) to 40 (about 12 days)
+    private static final int BUCKETS = LINEAR_BUCKETS + (41 - 4) * SUB_BUCKETS;
+    private static final ConcurrentMap<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retrieves the recorder of an operation, registering it if needed.
+     *
+     * @param name the operation name
+     * @return the recorder
+     */
+    public static LatencyRecorder get(String name) {
+        LatencyRecorder ret = recorders.get(name);
+        if (ret == null) {
+            final LatencyRecorder created = new LatencyRecorder(name);
+            ret = recorders.putIfAbsent(name, created);
+            if (ret == null) {
+                ret = created;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Takes statistics of all the registered recorders.
+     *
+     * @return the statistics sorted by operation name
+     */
+    public static List<Stats> snapshotAll() {
+        List<Stats> ret = new ArrayList<>();
+        for (LatencyRecorder rec : recorders.values()) {
+            ret.add(rec.snapshot());
+        }
+        ret.sort((s1, s2) -> s1.getName().compareTo(s2.getName()));
+        return ret;
+    }
+
+    /**
+     * Clears all the registered recorders.
+     * <p>
+     * Latencies recorded while clearing may be partially kept.
+     */
+    public static void resetAll() {
+        for (LatencyRecorder rec : recorders.values()) {
+            rec.reset();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records the latency of an operation started at the given time.
+     *
+     * @param startNanos the start time as given by {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record((System.nanoTime() - startNanos) / 1000);
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param micros the latency in microseconds
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        buckets.incrementAndGet(bucketOf(micros));
+        totalMicros.add(micros);
+        long prev = maxMicros.get();
+        while (micros > prev && !maxMicros.compareAndSet(prev, micros)) {
+            prev = maxMicros.get();
+        }
+    }
+
+    /**
+     * Takes statistics of the recorded latencies.
+     *
+     * @return the statistics
+     */
+    public Stats snapshot() {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        final long max = maxMicros.get();
+        final long mean = total > 0 ? totalMicros.sum() / total : 0;
+        return new Stats(name, total, mean, percentile(counts, total, 0.5, max), percentile(counts, total, 0.99, max), max);
+    }
+
+    private void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        totalMicros.reset();
+        maxMicros.set(0);
+    }
+
+    // upper bound of the bucket holding the given fraction of the values, capped at the maximum value
+    private static long percentile(long[] counts, long total, double fraction, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        final long target = (long) Math.ceil(total * fraction);
+        long cumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= target) {
+                return Math.min(lowerBound(i + 1) - 1, max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        final int exp = 63 - Long.numberOfLeadingZeros(micros);
+        final int sub = (int) (micros >>> (exp - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+        return Math.min(LINEAR_BUCKETS + (exp - 4) * SUB_BUCKETS + sub, BUCKETS - 1);
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        final int exp = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        final int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exp - SUB_BUCKETS_BITS);
+    }
+
+    /**
+     * Latency statistics of an operation, in microseconds.
+     */
+    public static final class Stats {
+
+        private final String name;
+        private final long count;
+        private final long mean;
+        private final long p50;
+        private final long p99;
+        private final long max;
+
+        Stats(String name, long count, long mean, long p50, long p99, long max) {
+            this.name = name;
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+}
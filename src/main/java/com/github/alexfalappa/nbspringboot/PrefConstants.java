@@ -36,6 +36,7 @@ public final class PrefConstants {
     public static final String PREF_HLIGHT_LEV_UNKNOWN = "nbspringboot.highlight-level.unknown-props";
     public static final String PREF_HLIGHT_LEV_DEPRECATED = "nbspringboot.highlight-level.deprecated-props";
     public static final String PREF_ARRAY_NOTATION = "nbspringboot.completion.arraynotation";
+    public static final String PREF_FAST_PARSER = "nbspringboot.cfgprops.fast-parser";
 
     public static final String DEFAULT_INITIALIZR_URL = "https://start.spring.io";
 
@@ -20,11 +20,14 @@ import static com.github.alexfalappa.nbspringboot.PrefConstants.PREF_VM_OPTS_LAU
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.FileObjectCompletionItem;
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.ValueCompletionItem;
 import com.github.alexfalappa.nbspringboot.projects.customizer.BootPanel;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintCollector;
+import com.github.alexfalappa.nbspringboot.projects.service.impl.DirectoryScanner;
+import com.github.alexfalappa.nbspringboot.projects.service.impl.EnumConstantsCache;
 import com.github.alexfalappa.nbspringboot.projects.service.impl.HintSupport;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.nio.file.DirectoryStream;
+import java.io.File;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -60,11 +63,9 @@ import org.netbeans.api.project.SourceGroup;
 import org.netbeans.api.project.Sources;
 import org.netbeans.modules.maven.NbMavenProjectImpl;
 import org.netbeans.modules.maven.api.NbMavenProject;
-import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 import org.openide.loaders.DataObject;
-import org.openide.util.Exceptions;
 import org.openide.util.Lookup;
 import org.openide.util.NbPreferences;
 import org.openide.util.Utilities;
@@ -180,6 +181,11 @@ public final class Utils {
         return depr != null && depr.getLevel() != null && depr.getLevel().equals(Deprecation.Level.ERROR);
     }
 
+    public static boolean isErrorDeprecated(CompactPropertyMetadata meta) {
+        Deprecation depr = meta.getDeprecation();
+        return depr != null && depr.getLevel() != null && depr.getLevel().equals(Deprecation.Level.ERROR);
+    }
+
     /**
      * Tries to retrieve the most appropriate {@link Project}.
      * <p>
@@ -304,23 +310,16 @@ public final class Utils {
     }
 
     public static void completeEnum(ClassPath cp, String dataType, String filter, Consumer<ValueHint> consumer) {
-        try {
-            Object[] enumvals = cp.getClassLoader(true).loadClass(dataType).getEnumConstants();
-            if (enumvals != null) {
-                for (Object val : enumvals) {
-                    final String valName = val.toString().toLowerCase();
-                    if (filter == null || valName.contains(filter)) {
-                        consumer.accept(createEnumHint(valName));
-                    }
-                }
+        // enum constants are resolved once per classpath, non enum types yield an empty list
+        for (String valName : EnumConstantsCache.forClassPath(cp).getConstants(dataType)) {
+            if (filter == null || valName.contains(filter)) {
+                consumer.accept(createEnumHint(valName));
             }
-        } catch (ClassNotFoundException ex) {
-            // enum not available in project classpath, no completion possible
         }
     }
 
-    public static void completeSpringResource(FileObject resourcesFolder, String filter, CompletionResultSet completionResultSet,
-            int dotOffset, int caretOffset) {
+    public static void completeSpringResource(FileObject resourcesFolder, String filter, HintCollector collector, int dotOffset,
+            int caretOffset) {
         if (filter.startsWith(PREFIX_CLASSPATH)) {
             // classpath resource
             String resFilter = filter.substring(PREFIX_CLASSPATH.length());
@@ -334,10 +333,25 @@ public final class Utils {
                 startOffset += slashIdx + 1;
                 foBase = resourcesFolder.getFileObject(basePart);
             }
-            for (FileObject fObj : foBase.getChildren()) {
-                String fname = fObj.getNameExt();
-                if (fname.contains(filePart)) {
-                    completionResultSet.addItem(new FileObjectCompletionItem(fObj, startOffset, caretOffset));
+            if (foBase == null || !foBase.isFolder()) {
+                return;
+            }
+            File dirBase = FileUtil.toFile(foBase);
+            if (dirBase != null) {
+                for (String name : DirectoryScanner.scan(dirBase.toPath(), filePart, collector::isCancelled)) {
+                    collector.addItem(new FileObjectCompletionItem(new File(dirBase, name), startOffset, caretOffset));
+                }
+            } else {
+                // resources folder not on disk, bound the children anyway
+                int count = 0;
+                for (FileObject fObj : foBase.getChildren()) {
+                    if (collector.isCancelled() || count >= DirectoryScanner.MAX_RESULTS) {
+                        return;
+                    }
+                    if (fObj.getNameExt().contains(filePart)) {
+                        collector.addItem(new FileObjectCompletionItem(fObj, startOffset, caretOffset));
+                        count++;
+                    }
                 }
             }
         } else if (filter.startsWith(PREFIX_FILE)) {
@@ -351,7 +365,7 @@ public final class Utils {
                     FileObject foRoot = FileUtil.toFileObject(rootDir.toFile());
                     // filter out CD/DVD drives letter on Windows
                     if (foRoot != null) {
-                        completionResultSet.addItem(new FileObjectCompletionItem(foRoot, startOffset, caretOffset));
+                        collector.addItem(new FileObjectCompletionItem(foRoot, startOffset, caretOffset));
                     }
                 }
             } else {
@@ -364,25 +378,19 @@ public final class Utils {
                     startOffset -= filePart.length();
                 }
                 if (pTest != null) {
-                    try ( DirectoryStream<Path> stream = Files.newDirectoryStream(pTest)) {
-                        for (Path p : stream) {
-                            if (Files.isReadable(p)) {
-                                String fname = p.toString().toLowerCase();
-                                if (fname.contains(filePart)) {
-                                    completionResultSet.addItem(new FileObjectCompletionItem(FileUtil.toFileObject(p.toFile()),
-                                            startOffset, caretOffset));
-                                }
-                            }
+                    // names only are listed, readability is checked on the capped matches
+                    for (String name : DirectoryScanner.scan(pTest, filePart, collector::isCancelled)) {
+                        File file = pTest.resolve(name).toFile();
+                        if (file.canRead()) {
+                            collector.addItem(new FileObjectCompletionItem(file, startOffset, caretOffset));
                         }
-                    } catch (IOException ex) {
-                        Exceptions.printStackTrace(ex);
                     }
                 }
             }
         } else {
             for (String rp : resourcePrefixes) {
                 if (rp.contains(filter)) {
-                    completionResultSet.addItem(new ValueCompletionItem(Utils.createHint(rp), dotOffset, caretOffset,
+                    collector.addItem(new ValueCompletionItem(Utils.createHint(rp), dotOffset, caretOffset,
                             rp.equals(PREFIX_CLASSPATH) || rp.equals(PREFIX_FILE)));
                 }
             }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.actions;
+
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JButton;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+import org.openide.DialogDescriptor;
+import org.openide.DialogDisplayer;
+import org.openide.awt.ActionID;
+import org.openide.awt.ActionReference;
+import org.openide.awt.ActionRegistration;
+import org.openide.util.NbBundle.Messages;
+
+import com.github.alexfalappa.nbspringboot.LatencyRecorder;
+
+/**
+ * Debug action showing latency statistics of completion, hint providers, metadata lookups and highlighting tasks.
+ *
+ * @author Alessandro Falappa
+ */
+@ActionID(
+        category = "Tools",
+        id = "com.github.alexfalappa.nbspringboot.actions.ShowLatencyStatsAction"
+)
+@ActionRegistration(
+        displayName = "#CTL_ShowLatencyStatsAction"
+)
+@ActionReference(path = "Menu/Tools", position = 1850)
+@Messages({
+    "CTL_ShowLatencyStatsAction=Spring Boot Latency Statistics",
+    "ShowLatencyStatsAction.reset=Reset",
+    "ShowLatencyStatsAction.refresh=Refresh",
+    "ShowLatencyStatsAction.close=Close"
+})
+public final class ShowLatencyStatsAction implements ActionListener {
+
+    private static final String[] COLUMNS = {"Operation", "Count", "Mean (ms)", "p50 (ms)", "p99 (ms)", "Max (ms)"};
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        final DefaultTableModel model = new DefaultTableModel(COLUMNS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        fill(model);
+        final JTable table = new JTable(model);
+        table.getColumnModel().getColumn(0).setPreferredWidth(300);
+        final JScrollPane scroller = new JScrollPane(table);
+        scroller.setPreferredSize(new Dimension(800, 300));
+        final JButton btReset = new JButton(Bundle.ShowLatencyStatsAction_reset());
+        final JButton btRefresh = new JButton(Bundle.ShowLatencyStatsAction_refresh());
+        final JButton btClose = new JButton(Bundle.ShowLatencyStatsAction_close());
+        final DialogDescriptor dd = new DialogDescriptor(scroller, Bundle.CTL_ShowLatencyStatsAction(), true,
+                new Object[]{btReset, btRefresh, btClose}, btClose, DialogDescriptor.DEFAULT_ALIGN, null, evt -> {
+                    if (evt.getSource() == btReset) {
+                        LatencyRecorder.resetAll();
+                        fill(model);
+                    } else if (evt.getSource() == btRefresh) {
+                        fill(model);
+                    }
+                });
+        dd.setClosingOptions(new Object[]{btClose});
+        DialogDisplayer.getDefault().notify(dd);
+    }
+
+    private static void fill(DefaultTableModel model) {
+        model.setRowCount(0);
+        for (LatencyRecorder.Stats stats : LatencyRecorder.snapshotAll()) {
+            model.addRow(new Object[]{stats.getName(), stats.getCount(), millis(stats.getMean()), millis(stats.getP50()),
+                millis(stats.getP99()), millis(stats.getMax())});
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.3f", micros / 1000.0);
+    }
+}
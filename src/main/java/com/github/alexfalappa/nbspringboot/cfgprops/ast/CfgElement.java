@@ -20,14 +20,15 @@ import static java.lang.Integer.compare;
 /**
  * The basic configuration element.
  * <p>
- * It is an immutable object and groups a text and the char index range of its position in the document.
+ * It groups a text and the char index range of its position in the document. The text is immutable, the range is moved
+ * by the incremental parser when text is inserted or removed before the element.
  *
  * @author Alessandro Falappa
  */
 public class CfgElement implements Comparable<CfgElement> {
 
-    private final int idxStart;
-    private final int idxEnd;
+    private int idxStart;
+    private int idxEnd;
     private final String text;
 
     public CfgElement(int idxStart, int idxEnd, String text) {
@@ -48,6 +49,16 @@ public class CfgElement implements Comparable<CfgElement> {
         return text;
     }
 
+    /**
+     * Moves the char index range.
+     *
+     * @param delta the amount of chars to add to the range boundaries, negative to move backwards
+     */
+    public void shift(int delta) {
+        idxStart += delta;
+        idxEnd += delta;
+    }
+
     @Override
     public int compareTo(CfgElement o) {
         int compareStarts = compare(idxStart, o.idxStart);
@@ -15,7 +15,7 @@
  */
 package com.github.alexfalappa.nbspringboot.cfgprops.ast;
 
-import java.util.Set;
+import java.util.NavigableSet;
 import java.util.TreeSet;
 
 /**
@@ -27,9 +27,9 @@ import java.util.TreeSet;
  */
 public class CfgFile {
 
-    private Set<PairElement> elements = new TreeSet<>();
+    private NavigableSet<PairElement> elements = new TreeSet<>();
 
-    public Set<PairElement> getElements() {
+    public NavigableSet<PairElement> getElements() {
         return elements;
     }
 
@@ -48,6 +48,18 @@ public class PairElement implements Comparable<PairElement> {
         this.value = value;
     }
 
+    /**
+     * Moves the char index ranges of key and value.
+     *
+     * @param delta the amount of chars to add to the ranges, negative to move backwards
+     */
+    public void shift(int delta) {
+        key.shift(delta);
+        if (value != null) {
+            value.shift(delta);
+        }
+    }
+
     @Override
     public int compareTo(PairElement o) {
         return key.compareTo(o.key);
@@ -47,9 +47,6 @@ public class CfgPropsCompletionProvider implements CompletionProvider {
 
     @Override
     public CompletionTask createTask(int queryType, JTextComponent jtc) {
-        if (queryType == CompletionProvider.COMPLETION_ALL_QUERY_TYPE) {
-            return null;
-        }
         Project prj = Utils.getActiveProject();
         if (prj == null) {
             return null;
@@ -62,6 +59,9 @@ public class CfgPropsCompletionProvider implements CompletionProvider {
         switch (queryType) {
             case CompletionProvider.COMPLETION_QUERY_TYPE:
                 return new AsyncCompletionTask(new CfgPropsCompletionQuery(sbs, prj), jtc);
+            case CompletionProvider.COMPLETION_ALL_QUERY_TYPE:
+                // invoked again after slow hint providers were cut short: no time budget
+                return new AsyncCompletionTask(new CfgPropsCompletionQuery(sbs, prj, 0), jtc);
             case CompletionProvider.DOCUMENTATION_QUERY_TYPE:
                 return new AsyncCompletionTask(new CfgPropsDocAndTooltipQuery(sbs, false), jtc);
             case CompletionProvider.TOOLTIP_QUERY_TYPE:
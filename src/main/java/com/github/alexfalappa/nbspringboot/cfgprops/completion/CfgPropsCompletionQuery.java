@@ -15,7 +15,10 @@
  */
 package com.github.alexfalappa.nbspringboot.cfgprops.completion;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Logger;
@@ -26,10 +29,12 @@ import java.util.regex.Pattern;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
 import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
 import javax.swing.text.StyledDocument;
 
 import org.netbeans.api.java.classpath.ClassPath;
 import org.netbeans.api.project.Project;
+import org.netbeans.spi.editor.completion.CompletionItem;
 import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.netbeans.spi.editor.completion.support.AsyncCompletionQuery;
 import org.openide.filesystems.FileObject;
@@ -40,12 +45,17 @@ import org.springframework.boot.configurationmetadata.Hints;
 import org.springframework.boot.configurationmetadata.ValueHint;
 import org.springframework.boot.configurationmetadata.ValueProvider;
 
+import com.github.alexfalappa.nbspringboot.LatencyRecorder;
 import com.github.alexfalappa.nbspringboot.PrefConstants;
 import com.github.alexfalappa.nbspringboot.Utils;
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.CfgPropCompletionItem;
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.KeyCompletionItem;
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.ValueCompletionItem;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.PropertyType;
 import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+import com.github.alexfalappa.nbspringboot.projects.service.impl.CanonicalNameIndex;
+import com.github.alexfalappa.nbspringboot.projects.service.impl.FuzzyNameMatcher;
 import com.github.alexfalappa.nbspringboot.projects.service.impl.HintSupport;
 
 import static com.github.alexfalappa.nbspringboot.PrefConstants.PREF_DEPR_ERROR_SHOW;
@@ -55,6 +65,10 @@ import static java.util.logging.Level.FINER;
 
 /**
  * Completion query for normal (i.e. Ctrl+Space) completion used in {@link CfgPropsCompletionProvider}.
+ * <p>
+ * When the user keeps typing identifier characters the items of the last query are narrowed in memory (see
+ * {@link #canFilter(JTextComponent)}) instead of querying again the Spring Boot service. Results coming from hint providers
+ * and from resource completion cannot be narrowed and always cause a new query.
  *
  * @author Alessandro Falappa
  */
@@ -62,14 +76,29 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
 
     private static final Logger logger = Logger.getLogger(CfgPropsCompletionQuery.class.getName());
     private static final Pattern PATTERN_PROP_NAME = Pattern.compile("[^=\\s]+");
-    private static final Pattern PATTERN_MAPKEY_DATATYPE = Pattern.compile("java.util.Map<([^,]+),.*>");
-    private static final Pattern PATTERN_MAPVALUE_DATATYPE = Pattern.compile("java.util.Map<.*,(.*)>");
+    private static final int MAX_NAME_RESULTS = 100;
+    private static final LatencyRecorder NAME_LATENCY = LatencyRecorder.get("completion.name");
+    private static final LatencyRecorder VALUE_LATENCY = LatencyRecorder.get("completion.value");
+    private static final LatencyRecorder FILTER_LATENCY = LatencyRecorder.get("completion.filter");
     private static final Pattern PATTERN_NUMBER_UNIT = Pattern.compile("\\d+(\\w*)");
     private static final Map<String, String> DURATION_SUFFIXES = new HashMap<>();
     private static final Map<String, String> DATASIZE_SUFFIXES = new HashMap<>();
     private final SpringBootService sbs;
     private final Project proj;
     private final FileObject resourcesFolder;
+    private final long providerBudgetMillis;
+    private HintProviderRunner providers;
+    // items of the running query and the filter they matched
+    private List<FilterableItem> collected = new ArrayList<>();
+    private boolean valueCompletion;
+    private boolean collectable;
+    // state of the last completed query, read by the filtering methods in the event dispatch thread
+    private volatile List<FilterableItem> lastItems = Collections.emptyList();
+    private volatile boolean filterable;
+    private volatile boolean lastValueCompletion;
+    private volatile int lastCaretOffset;
+    private Document lastDocument;
+    private int filterCaretOffset;
 
     static {
         DURATION_SUFFIXES.put("ns", "nanoseconds");
@@ -87,14 +116,31 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
     }
 
     public CfgPropsCompletionQuery(SpringBootService sbs, Project proj) {
+        this(sbs, proj, HintProviderRunner.DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Creates a query running hint providers with the given time budget.
+     *
+     * @param sbs the Spring Boot service of the project
+     * @param proj the project
+     * @param providerBudgetMillis the time budget of each hint provider invocation, zero or negative for no limit
+     */
+    public CfgPropsCompletionQuery(SpringBootService sbs, Project proj, long providerBudgetMillis) {
         this.sbs = Objects.requireNonNull(sbs);
         this.proj = proj;
         this.resourcesFolder = Utils.resourcesFolderForProj(proj);
+        this.providerBudgetMillis = providerBudgetMillis;
     }
 
     @Override
     protected void query(CompletionResultSet completionResultSet, Document document, int caretOffset) {
         logger.finer("Starting completion");
+        filterable = false;
+        collected = new ArrayList<>();
+        collectable = true;
+        valueCompletion = false;
+        providers = new HintProviderRunner(completionResultSet, this::isTaskCancelled, providerBudgetMillis);
         final StyledDocument styDoc = (StyledDocument) document;
         Element lineElement = styDoc.getParagraphElement(caretOffset);
         int lineStartOffset = lineElement.getStartOffset();
@@ -127,95 +173,172 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
             }
         } catch (BadLocationException ex) {
             Exceptions.printStackTrace(ex);
+            collectable = false;
         }
+        // publish the results for in memory filtering
+        lastItems = collected;
+        lastValueCompletion = valueCompletion;
+        lastCaretOffset = caretOffset;
+        lastDocument = document;
+        filterable = collectable;
         completionResultSet.finish();
     }
 
+    @Override
+    protected boolean canFilter(JTextComponent component) {
+        if (!filterable || component.getDocument() != lastDocument) {
+            return false;
+        }
+        filterCaretOffset = component.getCaretPosition();
+        if (filterCaretOffset < lastCaretOffset) {
+            return false;
+        }
+        try {
+            String typed = lastDocument.getText(lastCaretOffset, filterCaretOffset - lastCaretOffset);
+            // dots, equal signs, commas and the like change the kind of completion or its start offset,
+            // digits in values change the offset of unit suffixes
+            for (int i = 0; i < typed.length(); i++) {
+                final char c = typed.charAt(i);
+                if ((!Character.isLetterOrDigit(c) && c != '-' && c != '_') || (lastValueCompletion && Character.isDigit(c))) {
+                    return false;
+                }
+            }
+        } catch (BadLocationException ex) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void filter(CompletionResultSet resultSet) {
+        final long mark = System.nanoTime();
+        int count = 0;
+        try {
+            // items mostly share the same filter start offset
+            int filterStart = -1;
+            String filter = null;
+            FuzzyNameMatcher matcher = null;
+            for (FilterableItem fi : lastItems) {
+                if (fi.filterStart != filterStart) {
+                    filterStart = fi.filterStart;
+                    filter = lastDocument.getText(filterStart, filterCaretOffset - filterStart);
+                    matcher = new FuzzyNameMatcher(filter);
+                }
+                if (fi.matches(filter, matcher)) {
+                    resultSet.addItem(fi.item);
+                    count++;
+                }
+            }
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+        FILTER_LATENCY.recordSince(mark);
+        final long elapsed = (System.nanoTime() - mark) / 1_000_000;
+        logger.log(FINE, "Filtering {0} items down to {1} took: {2} msecs", new Object[]{lastItems.size(), count, elapsed});
+        resultSet.finish();
+    }
+
     // Create a completion result list of config properties based on a filter string and document offsets.
     private void completePropName(CompletionResultSet completionResultSet, String filter, int startOffset, int caretOffset) {
         final Preferences prefs = NbPreferences.forModule(PrefConstants.class);
         final boolean bDeprLast = prefs.getBoolean(PREF_DEPR_SORT_LAST, true);
         final boolean bErrorShow = prefs.getBoolean(PREF_DEPR_ERROR_SHOW, true);
-        long mark = System.currentTimeMillis();
+        final long mark = System.nanoTime();
         // check if completing a property map key
         if (filter != null) {
-            ClassPath cpExec = Utils.execClasspathForProj(proj);
-            for (String mapProp : sbs.getMapPropertyNames()) {
-                if (filter.length() > mapProp.length() && filter.contains(mapProp)) {
-                    String key = filter.substring(mapProp.length() + 1);
-                    logger.log(FINER, "Completing key for map property {0} from: ''{1}''", new Object[]{mapProp, key});
-                    final ConfigurationMetadataProperty propMetadata = sbs.getPropertyMetadata(mapProp);
-                    // if key data type is an enum complete with enum values
-                    final String keyDataType = extractMapKeyType(propMetadata);
-                    if (!keyDataType.contains("<")) {
-                        Utils.completeEnum(cpExec, keyDataType, key, hint -> {
-                            completionResultSet.addItem(new KeyCompletionItem(hint, startOffset + mapProp.length() + 1,
-                                    caretOffset));
-                        });
-                    }
-                    // check if key data type is boolean
-                    if (keyDataType.equals("java.lang.Boolean")) {
-                        Utils.completeBoolean(key, hint -> {
-                            completionResultSet.addItem(new KeyCompletionItem(hint, startOffset + mapProp.length() + 1,
-                                    caretOffset));
-                        });
-                    }
-                    // check if key data type is Charset
-                    if (keyDataType.equals("java.nio.charset.Charset")) {
-                        Utils.completeCharset(key, hint -> {
-                            completionResultSet.addItem(new KeyCompletionItem(hint, startOffset + mapProp.length() + 1,
-                                    caretOffset));
-                        });
-                    }
-                    // add metadata defined key hints to completion list
-                    final Hints hints = propMetadata.getHints();
-                    if (!hints.getKeyHints().isEmpty()) {
-                        String keyLowcase = key.toLowerCase();
-                        for (ValueHint keyHint : hints.getKeyHints()) {
-                            if (keyHint.getValue().toString().toLowerCase().contains(keyLowcase)) {
-                                completionResultSet.addItem(new KeyCompletionItem(keyHint, startOffset + mapProp.length() + 1,
-                                        caretOffset));
-                            }
+            final int mapPrefixLen = sbs.getMapPropertyPrefixLength(filter);
+            final String mapProp = mapPrefixLen > 0 ? filter.substring(0, mapPrefixLen) : null;
+            // metadata may have been reloaded between the two lookups, no map key completion then
+            final CompactPropertyMetadata compactMetadata = mapProp != null ? sbs.getCompactPropertyMetadata(mapProp) : null;
+            if (compactMetadata != null) {
+                ClassPath cpExec = Utils.execClasspathForProj(proj);
+                String key = filter.substring(mapPrefixLen + 1);
+                final int keyStartOffset = startOffset + mapPrefixLen + 1;
+                logger.log(FINER, "Completing key for map property {0} from: ''{1}''", new Object[]{mapProp, key});
+                final ConfigurationMetadataProperty propMetadata = compactMetadata.toMetadataProperty();
+                // if key data type is an enum complete with enum values
+                final String keyDataType = extractMapKeyType(compactMetadata);
+                if (!keyDataType.contains("<")) {
+                    Utils.completeEnum(cpExec, keyDataType, key, hint -> {
+                        addItem(completionResultSet, new KeyCompletionItem(hint, keyStartOffset, caretOffset),
+                                keyStartOffset, hint.getValue().toString(), Match.CONTAINS);
+                    });
+                }
+                // check if key data type is boolean
+                if (keyDataType.equals("java.lang.Boolean")) {
+                    Utils.completeBoolean(key, hint -> {
+                        addItem(completionResultSet, new KeyCompletionItem(hint, keyStartOffset, caretOffset),
+                                keyStartOffset, hint.getValue().toString(), Match.CONTAINS);
+                    });
+                }
+                // check if key data type is Charset
+                if (keyDataType.equals("java.nio.charset.Charset")) {
+                    Utils.completeCharset(key, hint -> {
+                        addItem(completionResultSet, new KeyCompletionItem(hint, keyStartOffset, caretOffset),
+                                keyStartOffset, hint.getValue().toString(), Match.CONTAINS);
+                    });
+                }
+                // add metadata defined key hints to completion list
+                final Hints hints = propMetadata.getHints();
+                if (!hints.getKeyHints().isEmpty()) {
+                    String keyLowcase = key.toLowerCase();
+                    for (ValueHint keyHint : hints.getKeyHints()) {
+                        if (keyHint.getValue().toString().toLowerCase().contains(keyLowcase)) {
+                            addItem(completionResultSet, new KeyCompletionItem(keyHint, keyStartOffset, caretOffset),
+                                    keyStartOffset, keyHint.getValue().toString(), Match.CONTAINS);
                         }
                     }
-                    // invoke key providers
-                    if (!hints.getKeyProviders().isEmpty()) {
-                        logger.log(FINER, "Key providers for {0}:", mapProp);
-                        for (ValueProvider vp : hints.getKeyProviders()) {
-                            logger.log(FINER, "  {0} - params: {1}", new Object[]{vp.getName(), vp.getParameters()});
-                            sbs.getHintProvider(vp.getName()).provide(vp.getParameters(), propMetadata, key, true,
-                                    completionResultSet, startOffset + mapProp.length() + 1, caretOffset);
-                        }
+                }
+                // invoke key providers
+                if (!hints.getKeyProviders().isEmpty()) {
+                    logger.log(FINER, "Key providers for {0}:", mapProp);
+                    collectable = false;
+                    for (ValueProvider vp : hints.getKeyProviders()) {
+                        logger.log(FINER, "  {0} - params: {1}", new Object[]{vp.getName(), vp.getParameters()});
+                        providers.run(vp.getName(), sbs.getHintProvider(vp.getName()), vp.getParameters(), propMetadata, key,
+                                true, keyStartOffset, caretOffset);
                     }
                 }
             }
         }
-        for (ConfigurationMetadataProperty propMeta : sbs.queryPropertyMetadata(filter)) {
-            if (Utils.isErrorDeprecated(propMeta)) {
-                // show error level deprecated props based on pref
-                if (bErrorShow) {
-                    completionResultSet.addItem(new CfgPropCompletionItem(propMeta, startOffset, caretOffset, bDeprLast));
-                }
-            } else {
-                completionResultSet.addItem(new CfgPropCompletionItem(propMeta, startOffset, caretOffset, bDeprLast));
+        // all properties in alphabetical order when no filter, the best fuzzy matches otherwise
+        final boolean ranked = filter != null && !filter.isEmpty();
+        // items hold the compact metadata, descriptions are loaded by the documentation of the selected item only
+        final List<CompactPropertyMetadata> props = ranked
+                ? sbs.queryRankedCompactPropertyMetadata(filter, MAX_NAME_RESULTS)
+                : sbs.queryCompactPropertyMetadata(filter);
+        if (!ranked || props.size() == MAX_NAME_RESULTS) {
+            // narrowing the alphabetical list in memory would neither rank nor cap it,
+            // further ranked matches may have been cut off and narrowing in memory could miss them
+            collectable = false;
+        }
+        int rank = 0;
+        for (CompactPropertyMetadata propMeta : props) {
+            // show error level deprecated props based on pref
+            if (bErrorShow || !Utils.isErrorDeprecated(propMeta)) {
+                addItem(completionResultSet, new CfgPropCompletionItem(propMeta, startOffset, caretOffset, bDeprLast,
+                        ranked ? rank++ : -1), startOffset, propMeta.getId(), Match.NAME);
             }
         }
-        final long elapsed = System.currentTimeMillis() - mark;
+        NAME_LATENCY.recordSince(mark);
+        final long elapsed = (System.nanoTime() - mark) / 1_000_000;
         logger.log(FINE, "Name completion of ''{0}'' took: {1} msecs", new Object[]{filter, elapsed});
     }
 
     // Create a completion result list of properties values based on a property name, filter string and document offsets.
     public void completePropValue(CompletionResultSet completionResultSet, String propName, String filter, int startOffset,
             int caretOffset) {
-        long mark = System.currentTimeMillis();
+        final long mark = System.nanoTime();
         String filterLowcase = filter.toLowerCase();
         logger.log(FINER, "Completing property value from: ''{0}''", filter);
-        ConfigurationMetadataProperty propMeta = sbs.getPropertyMetadata(propName);
-        if (propMeta != null) {
-            final String propType = propMeta.getType();
-            final String mapValueType = extractMapValueType(propMeta);
+        CompactPropertyMetadata compactMeta = sbs.getCompactPropertyMetadata(propName);
+        if (compactMeta != null && compactMeta.getParsedType() != null) {
+            final ConfigurationMetadataProperty propMeta = compactMeta.toMetadataProperty();
+            final PropertyType parsedType = compactMeta.getParsedType();
+            final String propType = parsedType.getType();
+            final String mapValueType = extractMapValueType(compactMeta);
             // if data type is collection or array adjust filter and startOffset to part after last comma
-            if (propType.contains("List<") || propType.contains("Set<") || propType.contains("[]")) {
+            if (parsedType.isCollection()) {
                 int idx = filter.lastIndexOf(',');
                 if (idx > 0) {
                     startOffset = startOffset + idx + 1;
@@ -223,20 +346,21 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
                     filterLowcase = filter.toLowerCase();
                 }
             }
+            valueCompletion = true;
             // check if data type or map value type is boolean
             if (propType.equals("java.lang.Boolean") || mapValueType.equals("java.lang.Boolean")) {
                 if ("true".contains(filterLowcase)) {
-                    completionResultSet.addItem(new ValueCompletionItem(Utils.createHint("true"), startOffset, caretOffset));
+                    addValueItem(completionResultSet, Utils.createHint("true"), startOffset, caretOffset);
                 }
                 if ("false".contains(filterLowcase)) {
-                    completionResultSet.addItem(new ValueCompletionItem(Utils.createHint("false"), startOffset, caretOffset));
+                    addValueItem(completionResultSet, Utils.createHint("false"), startOffset, caretOffset);
                 }
             }
             // check if data type or map value type is CharSet
             if (propType.equals("java.nio.charset.Charset") || mapValueType.equals("java.nio.charset.Charset")) {
                 for (String chrsName : HintSupport.getAllCharsets()) {
                     if (chrsName.toLowerCase().contains(filterLowcase)) {
-                        completionResultSet.addItem(new ValueCompletionItem(Utils.createHint(chrsName), startOffset, caretOffset));
+                        addValueItem(completionResultSet, Utils.createHint(chrsName), startOffset, caretOffset);
                     }
                 }
             }
@@ -244,7 +368,7 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
             if (propType.equals("java.util.Locale") || mapValueType.equals("java.util.Locale")) {
                 for (String lclName : HintSupport.getAllLocales()) {
                     if (lclName.toLowerCase().contains(filterLowcase)) {
-                        completionResultSet.addItem(new ValueCompletionItem(Utils.createHint(lclName), startOffset, caretOffset));
+                        addValueItem(completionResultSet, Utils.createHint(lclName), startOffset, caretOffset);
                     }
                 }
             }
@@ -252,14 +376,17 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
             if (propType.equals("org.springframework.util.MimeType") || mapValueType.equals("org.springframework.util.MimeType")) {
                 for (String mime : HintSupport.MIMETYPES) {
                     if (mime.toLowerCase().contains(filterLowcase)) {
-                        completionResultSet.addItem(new ValueCompletionItem(Utils.createHint(mime), startOffset, caretOffset));
+                        addValueItem(completionResultSet, Utils.createHint(mime), startOffset, caretOffset);
                     }
                 }
             }
             // check if data type or map value type is a Spring Resource
             if (propType.equals("org.springframework.core.io.Resource")
                     || mapValueType.equals("org.springframework.core.io.Resource")) {
-                Utils.completeSpringResource(resourcesFolder, filter, completionResultSet, startOffset, caretOffset);
+                collectable = false;
+                providers.run("spring-resource", (params, meta, resFilter, isKey, collector, dotOffset, caret) -> {
+                    Utils.completeSpringResource(resourcesFolder, resFilter, collector, dotOffset, caret);
+                }, Collections.emptyMap(), propMeta, filter, false, startOffset, caretOffset);
             }
             // check if data type is an enum
             completeValueEnum(propType, filterLowcase, completionResultSet, startOffset, caretOffset);
@@ -276,8 +403,9 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
                 if (propType.equals("java.time.Duration")) {
                     for (Map.Entry<String, String> entry : DURATION_SUFFIXES.entrySet()) {
                         if (entry.getKey().toLowerCase().startsWith(unitPart)) {
-                            completionResultSet.addItem(new ValueCompletionItem(
-                                    Utils.createHint(entry.getKey(), entry.getValue()), newStartOffset, caretOffset));
+                            addItem(completionResultSet, new ValueCompletionItem(
+                                    Utils.createHint(entry.getKey(), entry.getValue()), newStartOffset, caretOffset),
+                                    newStartOffset, entry.getKey(), Match.PREFIX);
                         }
                     }
                 }
@@ -285,8 +413,9 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
                 if (propType.equals("org.springframework.util.unit.DataSize")) {
                     for (Map.Entry<String, String> entry : DATASIZE_SUFFIXES.entrySet()) {
                         if (entry.getKey().toLowerCase().startsWith(unitPart)) {
-                            completionResultSet.addItem(new ValueCompletionItem(
-                                    Utils.createHint(entry.getKey(), entry.getValue()), newStartOffset, caretOffset));
+                            addItem(completionResultSet, new ValueCompletionItem(
+                                    Utils.createHint(entry.getKey(), entry.getValue()), newStartOffset, caretOffset),
+                                    newStartOffset, entry.getKey(), Match.PREFIX);
                         }
                     }
                 }
@@ -295,60 +424,97 @@ public class CfgPropsCompletionQuery extends AsyncCompletionQuery {
             final Hints hints = propMeta.getHints();
             for (ValueHint valueHint : hints.getValueHints()) {
                 if (valueHint.getValue().toString().toLowerCase().contains(filterLowcase)) {
-                    completionResultSet.addItem(new ValueCompletionItem(valueHint, startOffset, caretOffset));
+                    addValueItem(completionResultSet, valueHint, startOffset, caretOffset);
                 }
             }
             // invoke value providers
             if (!hints.getValueProviders().isEmpty()) {
                 logger.log(FINER, "Value providers for {0}:", propName);
+                collectable = false;
                 for (ValueProvider vp : hints.getValueProviders()) {
                     logger.log(FINER, "  {0} - params: {1}", new Object[]{vp.getName(), vp.getParameters()});
-                    sbs.getHintProvider(vp.getName()).provide(vp.getParameters(), propMeta, filter, false,
-                            completionResultSet, startOffset, caretOffset);
+                    providers.run(vp.getName(), sbs.getHintProvider(vp.getName()), vp.getParameters(), propMeta, filter, false,
+                            startOffset, caretOffset);
                 }
             }
         }
-        final long elapsed = System.currentTimeMillis() - mark;
+        VALUE_LATENCY.recordSince(mark);
+        final long elapsed = (System.nanoTime() - mark) / 1_000_000;
         logger.log(FINE, "Value completion of ''{0}'' on ''{1}'' took: {2} msecs", new Object[]{filter, propName, elapsed});
     }
 
     private void completeValueEnum(String dataType, String filter, CompletionResultSet completionResultSet, int startOffset,
             int caretOffset) {
-        try {
-            ClassPath cpExec = Utils.execClasspathForProj(proj);
-            Object[] enumvals = cpExec.getClassLoader(true).loadClass(dataType).getEnumConstants();
-            if (enumvals != null) {
-                for (Object val : enumvals) {
-                    final String valName = val.toString().toLowerCase();
-                    if (valName.contains(filter)) {
-                        completionResultSet.addItem(new ValueCompletionItem(Utils.createEnumHint(valName), startOffset,
-                                caretOffset));
-                    }
-                }
-            }
-        } catch (ClassNotFoundException ex) {
-            // enum not available in project classpath, no completion possible
+        ClassPath cpExec = Utils.execClasspathForProj(proj);
+        if (cpExec != null) {
+            Utils.completeEnum(cpExec, dataType, filter, hint -> {
+                addValueItem(completionResultSet, hint, startOffset, caretOffset);
+            });
         }
     }
 
-    private String extractMapKeyType(ConfigurationMetadataProperty propMeta) {
-        Matcher matcher = PATTERN_MAPKEY_DATATYPE.matcher(propMeta.getType());
-        if (matcher.matches()) {
-            final String dataType = matcher.group(1);
-            logger.log(FINER, "Map key data type: {0}", dataType);
-            return dataType;
+    private void addValueItem(CompletionResultSet completionResultSet, ValueHint hint, int startOffset, int caretOffset) {
+        addItem(completionResultSet, new ValueCompletionItem(hint, startOffset, caretOffset), startOffset,
+                hint.getValue().toString(), Match.CONTAINS);
+    }
+
+    // add an item to the result set remembering how it matched the filter starting at the given offset
+    private void addItem(CompletionResultSet completionResultSet, CompletionItem item, int filterStart, String text,
+            Match match) {
+        completionResultSet.addItem(item);
+        collected.add(new FilterableItem(item, filterStart, text, match));
+    }
+
+    private String extractMapKeyType(CompactPropertyMetadata propMeta) {
+        final PropertyType parsedType = propMeta.getParsedType();
+        if (parsedType != null && parsedType.isMap()) {
+            logger.log(FINER, "Map key data type: {0}", parsedType.getKeyType());
+            return parsedType.getKeyType();
         }
         return "";
     }
 
-    private String extractMapValueType(ConfigurationMetadataProperty propMeta) {
-        Matcher matcher = PATTERN_MAPVALUE_DATATYPE.matcher(propMeta.getType());
-        if (matcher.matches()) {
-            final String dataType = matcher.group(1);
-            logger.log(FINER, "Map value data type: {0}", dataType);
-            return dataType;
+    private String extractMapValueType(CompactPropertyMetadata propMeta) {
+        final PropertyType parsedType = propMeta.getParsedType();
+        if (parsedType != null && parsedType.isMap()) {
+            logger.log(FINER, "Map value data type: {0}", parsedType.getValueType());
+            return parsedType.getValueType();
         }
         return "";
     }
 
+    private enum Match {
+        // canonical property name matched segment wise, as in ranked name queries
+        NAME,
+        // text contains filter ignoring case
+        CONTAINS,
+        // text starts with filter ignoring case
+        PREFIX
+    }
+
+    private static final class FilterableItem {
+
+        private final CompletionItem item;
+        private final int filterStart;
+        private final String text;
+        private final Match match;
+
+        FilterableItem(CompletionItem item, int filterStart, String text, Match match) {
+            this.item = item;
+            this.filterStart = filterStart;
+            this.match = match;
+            this.text = match == Match.NAME ? CanonicalNameIndex.canonicalize(text) : text.toLowerCase();
+        }
+
+        boolean matches(String filter, FuzzyNameMatcher matcher) {
+            switch (match) {
+                case NAME:
+                    return matcher.score(text) != FuzzyNameMatcher.NO_MATCH;
+                case PREFIX:
+                    return text.startsWith(filter.toLowerCase());
+                default:
+                    return text.contains(filter.toLowerCase());
+            }
+        }
+    }
 }
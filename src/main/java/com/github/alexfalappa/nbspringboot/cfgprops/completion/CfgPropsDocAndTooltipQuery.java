@@ -31,9 +31,9 @@ import javax.swing.text.StyledDocument;
 import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.netbeans.spi.editor.completion.support.AsyncCompletionQuery;
 import org.openide.util.Exceptions;
-import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
 import com.github.alexfalappa.nbspringboot.Utils;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
 import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
 
 import static java.util.logging.Level.FINER;
@@ -76,14 +76,16 @@ public class CfgPropsDocAndTooltipQuery extends AsyncCompletionQuery {
                 Matcher matcher = PATTERN_PROP_NAME.matcher(line);
                 if (matcher.matches()) {
                     String propPrefix = matcher.group(1);
-                    ConfigurationMetadataProperty propMeta = sbs.getPropertyMetadata(propPrefix);
+                    CompactPropertyMetadata propMeta = sbs.getCompactPropertyMetadata(propPrefix);
                     if (propMeta != null) {
                         if (showTooltip) {
                             final JToolTip toolTip = new JToolTip();
                             toolTip.setTipText(Utils.shortenJavaType(propMeta.getType()));
                             completionResultSet.setToolTip(toolTip);
                         } else {
-                            completionResultSet.setDocumentation(new CfgPropCompletionDocumentation(propMeta));
+                            // only the documentation needs the description
+                            completionResultSet.setDocumentation(
+                                    new CfgPropCompletionDocumentation(propMeta.toMetadataProperty()));
                         }
                     }
                 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.completion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import org.netbeans.spi.editor.completion.CompletionItem;
+import org.netbeans.spi.editor.completion.CompletionResultSet;
+import org.openide.util.NbBundle.Messages;
+import org.openide.util.RequestProcessor;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+
+import com.github.alexfalappa.nbspringboot.LatencyRecorder;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintCollector;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Runs hint providers in background with a time budget, streaming their items into a completion result set.
+ * <p>
+ * The completion query thread collects the items emitted by a provider while it runs. When the completion task is
+ * cancelled or the time budget expires the provider is asked to stop and the items emitted so far are kept. Results
+ * cut short by the budget are signalled on the result set as additional items, available by invoking completion again.
+ *
+ * @author Alessandro Falappa
+ */
+@Messages("HintProviderRunner.additional=Slow hints cut short, press Ctrl+Space again for all")
+public final class HintProviderRunner {
+
+    /** Default time budget of each provider invocation. */
+    public static final long DEFAULT_BUDGET_MILLIS = 250;
+    private static final Logger logger = Logger.getLogger(HintProviderRunner.class.getName());
+    private static final RequestProcessor RP = new RequestProcessor("Spring Boot hint providers", 4, true);
+    private static final long POLL_MILLIS = 10;
+    private final CompletionResultSet resultSet;
+    private final BooleanSupplier taskCancelled;
+    private final long budgetMillis;
+
+    /**
+     * Creates a runner.
+     *
+     * @param resultSet the result set receiving the items
+     * @param taskCancelled tells if the completion task has been cancelled
+     * @param budgetMillis the time budget of each provider invocation, zero or negative for no limit
+     */
+    public HintProviderRunner(CompletionResultSet resultSet, BooleanSupplier taskCancelled, long budgetMillis) {
+        this.resultSet = resultSet;
+        this.taskCancelled = taskCancelled;
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Runs a provider, returning when it completes, the task is cancelled or the time budget expires.
+     *
+     * @see HintProvider#provide(java.util.Map, ConfigurationMetadataProperty, java.lang.String, boolean, HintCollector, int,
+     * int)
+     */
+    public void run(String name, HintProvider provider, Map<String, Object> params, ConfigurationMetadataProperty propMetadata,
+            String filter, boolean isKey, int dotOffset, int caretOffset) {
+        final long mark = System.nanoTime();
+        final ConcurrentLinkedQueue<CompletionItem> queue = new ConcurrentLinkedQueue<>();
+        final Collector collector = new Collector(queue);
+        RequestProcessor.Task task = RP.post(() -> {
+            provider.provide(params, propMetadata, filter, isKey, collector, dotOffset, caretOffset);
+        });
+        int count = 0;
+        boolean finished = false;
+        try {
+            while (!finished && !taskCancelled.getAsBoolean()) {
+                if (budgetMillis > 0 && (System.nanoTime() - mark) / 1_000_000 > budgetMillis) {
+                    break;
+                }
+                finished = task.waitFinished(POLL_MILLIS);
+                count += drain(queue);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!finished) {
+            // items emitted from now on are discarded
+            collector.stopped = true;
+            task.cancel();
+            if (!taskCancelled.getAsBoolean()) {
+                resultSet.setHasAdditionalItems(true);
+                resultSet.setHasAdditionalItemsText(Bundle.HintProviderRunner_additional());
+            }
+        }
+        count += drain(queue);
+        // stopped providers are recorded with the time they were given
+        LatencyRecorder.get("hint-provider." + name).recordSince(mark);
+        final long elapsed = (System.nanoTime() - mark) / 1_000_000;
+        logger.log(FINE, "Hint provider {0} emitted {1} items in {2} msecs{3}",
+                new Object[]{name, count, elapsed, finished ? "" : ", stopped"});
+    }
+
+    private int drain(ConcurrentLinkedQueue<CompletionItem> queue) {
+        int count = 0;
+        CompletionItem item;
+        while ((item = queue.poll()) != null) {
+            resultSet.addItem(item);
+            count++;
+        }
+        return count;
+    }
+
+    private final class Collector implements HintCollector {
+
+        private final ConcurrentLinkedQueue<CompletionItem> queue;
+        private volatile boolean stopped;
+
+        Collector(ConcurrentLinkedQueue<CompletionItem> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void addItem(CompletionItem item) {
+            if (!isCancelled()) {
+                queue.add(item);
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return stopped || taskCancelled.getAsBoolean() || Thread.currentThread().isInterrupted();
+        }
+    }
+}
@@ -40,12 +40,11 @@ import org.netbeans.spi.editor.completion.support.CompletionUtilities;
 import org.openide.util.Exceptions;
 import org.openide.util.ImageUtilities;
 import org.openide.util.NbPreferences;
-import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
-import org.springframework.boot.configurationmetadata.Hints;
 
 import com.github.alexfalappa.nbspringboot.PrefConstants;
 import com.github.alexfalappa.nbspringboot.Utils;
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.doc.CfgPropCompletionDocumentation;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
 
 import static com.github.alexfalappa.nbspringboot.Utils.shortenJavaType;
 import static com.github.alexfalappa.nbspringboot.Utils.simpleHtmlEscape;
@@ -53,7 +52,8 @@ import static com.github.alexfalappa.nbspringboot.Utils.simpleHtmlEscape;
 /**
  * The implementation of {@code CompletionItem} for Spring Boot configuration property names.
  * <p>
- * Uses a {@code ConfigurationMetadataProperty} to render the completion item and spawn the documentation display.
+ * Uses a {@code CompactPropertyMetadata} to render the completion item and spawn the documentation display. The full
+ * metadata, description included, is materialized only by the documentation task.
  *
  * @author Aggelos Karalias
  * @author Alessandro Falappa
@@ -63,15 +63,30 @@ public class CfgPropCompletionItem implements CompletionItem {
     private static final Logger logger = Logger.getLogger(CfgPropCompletionItem.class.getName());
     private static final ImageIcon fieldIcon = new ImageIcon(ImageUtilities.loadImage(
             "com/github/alexfalappa/nbspringboot/cfgprops/completion/springboot-property.png"));
-    private final ConfigurationMetadataProperty configurationMeta;
+    private final CompactPropertyMetadata configurationMeta;
     private final int caretOffset;
     private final int propStartOffset;
     private boolean overwrite;
     private final String type;
     private final boolean sortDeprLast;
+    private final String sortText;
 
-    public CfgPropCompletionItem(ConfigurationMetadataProperty configurationMeta, int propStartOffset, int caretOffset,
+    public CfgPropCompletionItem(CompactPropertyMetadata configurationMeta, int propStartOffset, int caretOffset,
             boolean sortDeprLast) {
+        this(configurationMeta, propStartOffset, caretOffset, sortDeprLast, -1);
+    }
+
+    /**
+     * Creates an item sorted by relevance rank instead of alphabetically.
+     *
+     * @param configurationMeta the property metadata
+     * @param propStartOffset document offset of the start of the property name
+     * @param caretOffset document offset of the caret when completion was invoked
+     * @param sortDeprLast whether to sort deprecated properties last
+     * @param rank the relevance rank, lower is better, negative to sort alphabetically
+     */
+    public CfgPropCompletionItem(CompactPropertyMetadata configurationMeta, int propStartOffset, int caretOffset,
+            boolean sortDeprLast, int rank) {
         this.overwrite = false;
         this.configurationMeta = configurationMeta;
         if (configurationMeta.getType() != null) {
@@ -82,9 +97,10 @@ public class CfgPropCompletionItem implements CompletionItem {
         this.propStartOffset = propStartOffset;
         this.caretOffset = caretOffset;
         this.sortDeprLast = sortDeprLast;
+        this.sortText = rank >= 0 ? String.format("%05d", rank) : configurationMeta.getId();
     }
 
-    public ConfigurationMetadataProperty getConfigurationMetadata() {
+    public CompactPropertyMetadata getConfigurationMetadata() {
         return configurationMeta;
     }
 
@@ -102,7 +118,7 @@ public class CfgPropCompletionItem implements CompletionItem {
         try {
             StyledDocument doc = (StyledDocument) jtc.getDocument();
             // calculate the amount of chars to remove (by default from property start up to caret position)
-            int lenToRemove = caretOffset - propStartOffset;
+            int lenToRemove = jtc.getCaretPosition() - propStartOffset;
             int equalSignIndex = -1;
             if (overwrite) {
                 // NOTE: the editor removes by itself the word at caret when ctrl + enter is pressed
@@ -183,7 +199,7 @@ public class CfgPropCompletionItem implements CompletionItem {
     public void render(Graphics g, Font defaultFont, Color defaultColor, Color backgroundColor, int width, int height,
             boolean selected) {
         String leftHtmlText = getText();
-        if (configurationMeta.isDeprecated()) {
+        if (configurationMeta.getDeprecation() != null) {
             leftHtmlText = "<s>" + leftHtmlText + "</s>";
         }
         final Color color = Utils.isErrorDeprecated(configurationMeta)
@@ -198,7 +214,9 @@ public class CfgPropCompletionItem implements CompletionItem {
         return new AsyncCompletionTask(new AsyncCompletionQuery() {
             @Override
             protected void query(CompletionResultSet completionResultSet, Document document, int i) {
-                completionResultSet.setDocumentation(new CfgPropCompletionDocumentation(configurationMeta));
+                // the description is loaded here, only for the item being documented
+                completionResultSet.setDocumentation(
+                        new CfgPropCompletionDocumentation(configurationMeta.toMetadataProperty()));
                 completionResultSet.finish();
             }
         });
@@ -216,12 +234,12 @@ public class CfgPropCompletionItem implements CompletionItem {
 
     @Override
     public int getSortPriority() {
-        return (configurationMeta.isDeprecated() && sortDeprLast) ? 1 : 0;
+        return (configurationMeta.getDeprecation() != null && sortDeprLast) ? 1 : 0;
     }
 
     @Override
     public CharSequence getSortText() {
-        return getText();
+        return sortText;
     }
 
     @Override
@@ -230,28 +248,14 @@ public class CfgPropCompletionItem implements CompletionItem {
     }
 
     private boolean canCompleteKey() {
-        final Hints hints = configurationMeta.getHints();
-        if (hints == null) {
-            return false;
-        }
-        if (!hints.getKeyHints().isEmpty()) {
-            return true;
-        }
-        if (!hints.getKeyProviders().isEmpty()) {
+        if (configurationMeta.hasKeyHints()) {
             return true;
         }
         return isCompletableType();
     }
 
     private boolean canCompleteValue() {
-        final Hints hints = configurationMeta.getHints();
-        if (hints == null) {
-            return false;
-        }
-        if (!hints.getValueHints().isEmpty()) {
-            return true;
-        }
-        if (!hints.getValueProviders().isEmpty()) {
+        if (configurationMeta.hasValueHints()) {
             return true;
         }
         return isCompletableType();
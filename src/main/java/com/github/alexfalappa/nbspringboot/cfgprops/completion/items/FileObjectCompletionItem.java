@@ -19,9 +19,11 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.event.KeyEvent;
+import java.io.File;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.swing.ImageIcon;
 import javax.swing.UIManager;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Element;
@@ -40,6 +42,8 @@ import com.github.alexfalappa.nbspringboot.projects.service.impl.HintSupport;
 
 /**
  * The implementation of {@code CompletionItem} for file objects.
+ * <p>
+ * Items can be created from plain files, the file type and icon are then resolved only when the item is shown.
  *
  * @author Alessandro Falappa
  */
@@ -48,17 +52,31 @@ public class FileObjectCompletionItem implements CompletionItem {
     private static final Logger logger = Logger.getLogger(FileObjectCompletionItem.class.getName());
     private final int caretOffset;
     private final FileObject fileObj;
+    private final File file;
+    private final String name;
     private final int dotOffset;
     private boolean overwrite;
+    private Boolean folder;
+    private ImageIcon icon;
 
     public FileObjectCompletionItem(FileObject fileObj, int dotOffset, int caretOffset) {
         this.fileObj = fileObj;
+        this.file = null;
+        this.name = fileObj.getNameExt();
+        this.dotOffset = dotOffset;
+        this.caretOffset = caretOffset;
+    }
+
+    public FileObjectCompletionItem(File file, int dotOffset, int caretOffset) {
+        this.fileObj = null;
+        this.file = file;
+        this.name = file.getName();
         this.dotOffset = dotOffset;
         this.caretOffset = caretOffset;
     }
 
     public String getText() {
-        return fileObj.getNameExt();
+        return name;
     }
 
     public String getTextRight() {
@@ -67,7 +85,8 @@ public class FileObjectCompletionItem implements CompletionItem {
 
     @Override
     public void defaultAction(JTextComponent jtc) {
-        logger.log(Level.FINER, "Accepted file object completion: {0}", FileUtil.getFileDisplayName(fileObj));
+        logger.log(Level.FINER, "Accepted file object completion: {0}",
+                file != null ? file.getAbsolutePath() : FileUtil.getFileDisplayName(fileObj));
         try {
             StyledDocument doc = (StyledDocument) jtc.getDocument();
             // calculate the amount of chars to remove (by default from dot up to caret position)
@@ -97,10 +116,10 @@ public class FileObjectCompletionItem implements CompletionItem {
             }
             // remove characters from dot then insert new text
             doc.remove(dotOffset, lenToRemove);
-            if (fileObj.isRoot()) {
+            if (fileObj != null && fileObj.isRoot()) {
                 logger.log(Level.FINER, "Adding filesystem root and continuing completion");
                 doc.insertString(dotOffset, getText(), null);
-            } else if (fileObj.isFolder()) {
+            } else if (isFolder()) {
                 logger.log(Level.FINER, "Adding folder and continuing completion");
                 doc.insertString(dotOffset, getText().concat("/"), null);
             } else {
@@ -128,9 +147,13 @@ public class FileObjectCompletionItem implements CompletionItem {
     public void render(Graphics g, Font defaultFont, Color defaultColor, Color backgroundColor, int width, int height,
             boolean selected) {
         final Color color = selected ? UIManager.getColor("List.selectionForeground") : UIManager.getColor("List.foreground");
-        CompletionUtilities
-                .renderHtml(HintSupport.getIconFor(FileUtil.toFile(fileObj)), getText(), getTextRight(), g, defaultFont, color,
-                        width, height, selected);
+        if (icon == null) {
+            final File iconFile = file != null ? file : FileUtil.toFile(fileObj);
+            if (iconFile != null) {
+                icon = HintSupport.getIconFor(iconFile);
+            }
+        }
+        CompletionUtilities.renderHtml(icon, getText(), getTextRight(), g, defaultFont, color, width, height, selected);
     }
 
     @Override
@@ -150,7 +173,7 @@ public class FileObjectCompletionItem implements CompletionItem {
 
     @Override
     public int getSortPriority() {
-        return fileObj.isFolder() ? 0 : 1;
+        return isFolder() ? 0 : 1;
     }
 
     @Override
@@ -163,4 +186,11 @@ public class FileObjectCompletionItem implements CompletionItem {
         return getText();
     }
 
+    private boolean isFolder() {
+        if (folder == null) {
+            folder = file != null ? file.isDirectory() : fileObj.isFolder();
+        }
+        return folder;
+    }
+
 }
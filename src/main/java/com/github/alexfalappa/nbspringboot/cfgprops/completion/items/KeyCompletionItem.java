@@ -85,7 +85,7 @@ public class KeyCompletionItem implements CompletionItem {
         try {
             StyledDocument doc = (StyledDocument) jtc.getDocument();
             // calculate the amount of chars to remove (by default from dot up to caret position)
-            int lenToRemove = caretOffset - dotOffset;
+            int lenToRemove = jtc.getCaretPosition() - dotOffset;
             int equalSignIndex = -1;
             int colonIndex = -1;
             if (overwrite) {
@@ -91,7 +91,7 @@ public class ValueCompletionItem implements CompletionItem {
         try {
             StyledDocument doc = (StyledDocument) jtc.getDocument();
             // calculate the amount of chars to remove (by default from dot up to caret position)
-            int lenToRemove = caretOffset - dotOffset;
+            int lenToRemove = jtc.getCaretPosition() - dotOffset;
             if (overwrite) {
                 // NOTE: the editor removes by itself the word at caret when ctrl + enter is pressed
                 // the document state here is different from when the completion was invoked thus we have to
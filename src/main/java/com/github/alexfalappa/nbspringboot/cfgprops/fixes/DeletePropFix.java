@@ -17,6 +17,7 @@ package com.github.alexfalappa.nbspringboot.cfgprops.fixes;
 
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
+import javax.swing.text.Position;
 
 import org.netbeans.spi.editor.hints.ChangeInfo;
 import org.netbeans.spi.editor.hints.EnhancedFix;
@@ -30,14 +31,15 @@ import org.openide.awt.StatusDisplayer;
 public class DeletePropFix implements BaseFix {
 
     private final Document document;
-    private final int start;
-    private final int end;
+    private final Position start;
+    private final Position end;
     private final String propName;
 
     public DeletePropFix(Document document, String propName, int start, int end) throws BadLocationException {
         this.document = document;
-        this.start = start;
-        this.end = end;
+        // positions follow edits made after the fix was created
+        this.start = document.createPosition(start);
+        this.end = document.createPosition(end);
         this.propName = propName;
     }
 
@@ -53,7 +55,7 @@ public class DeletePropFix implements BaseFix {
 
     @Override
     public ChangeInfo implement() throws Exception {
-        document.remove(start, end - start);
+        document.remove(start.getOffset(), end.getOffset() - start.getOffset());
         StatusDisplayer.getDefault().setStatusText("Removed property: " + propName);
         return null;
     }
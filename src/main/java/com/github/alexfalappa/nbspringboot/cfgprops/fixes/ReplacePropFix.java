@@ -17,6 +17,7 @@ package com.github.alexfalappa.nbspringboot.cfgprops.fixes;
 
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
+import javax.swing.text.Position;
 
 import org.netbeans.spi.editor.hints.ChangeInfo;
 import org.netbeans.spi.editor.hints.EnhancedFix;
@@ -30,15 +31,15 @@ import org.openide.awt.StatusDisplayer;
 public class ReplacePropFix implements BaseFix {
 
     private final Document document;
-    private final int start;
-    private final int end;
+    private final Position start;
+    private final Position end;
     private final String bodyText;
     private final String replacement;
 
     public ReplacePropFix(Document document, int start, int end, String replacement) throws BadLocationException {
         this.document = document;
-        this.start = start;
-        this.end = end;
+        this.start = document.createPosition(start);
+        this.end = document.createPosition(end);
         this.bodyText = document.getText(start, end - start);
         this.replacement = replacement;
     }
@@ -55,8 +56,9 @@ public class ReplacePropFix implements BaseFix {
 
     @Override
     public ChangeInfo implement() throws Exception {
-        document.remove(start, end - start);
-        document.insertString(start, replacement, null);
+        final int offset = start.getOffset();
+        document.remove(offset, end.getOffset() - offset);
+        document.insertString(offset, replacement, null);
         StatusDisplayer.getDefault().setStatusText("Replaced property: " + bodyText);
         return null;
     }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Position;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.util.Exceptions;
+
+import com.github.alexfalappa.nbspringboot.LatencyRecorder;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Base checker of configuration properties files, producing the errors of an editor hints layer.
+ * <p>
+ * Checkers are run by {@link CfgPropsHighlightingTask} in a single pass over the key-value pairs changed since the previous
+ * run: each checker is given the removed pairs, then the added ones together with their configuration metadata, looked up
+ * once for all checkers. Errors are kept per pair and anchored to document positions, so those of unchanged pairs are
+ * reused as they are.
+ * <p>
+ * Positions may end up elsewhere than the pair when edits are ambiguous, e.g. a line inserted before an identical one, as
+ * the parser and the document can tell apart the inserted text differently. Pairs whose bounds drifted are checked again.
+ * <p>
+ * By default the errors of a pair are found by {@link #check}, looking at the pair alone.
+ *
+ * @author Alessandro Falappa
+ */
+public abstract class BaseChecker {
+
+    protected final Logger logger = Logger.getLogger(getClass().getName());
+    // time spent by the checker in each complete run, recorded by the highlighting task
+    final LatencyRecorder latency = LatencyRecorder.get("highlighting." + getClass().getSimpleName());
+    // errors of the checked pairs having some
+    private final Map<PairElement, PairErrors> pairErrors = new IdentityHashMap<>();
+    private boolean modified = true;
+
+    protected abstract String getHighlightPrefName();
+
+    protected abstract int getHighlightDefaultValue();
+
+    protected abstract String getErrorLayerName();
+
+    /**
+     * Tells if the checker uses configuration metadata of the pairs.
+     * <p>
+     * Metadata is looked up only if at least one of the checkers run needs it.
+     *
+     * @return true if metadata is needed, false by default
+     */
+    boolean needsMetadata() {
+        return false;
+    }
+
+    /**
+     * Tells if the checker can run in a context, e.g. if the project configuration metadata it needs is available.
+     *
+     * @param ctx the highlighting context
+     * @return true if the checker can run, true by default
+     */
+    boolean canCheck(HighlightingContext ctx) {
+        return true;
+    }
+
+    /**
+     * Starts a run, before changed pairs are given.
+     *
+     * @param ctx the highlighting context
+     * @param severity the severity of the errors
+     */
+    void start(HighlightingContext ctx, Severity severity) {
+    }
+
+    /**
+     * Checks a key-value pair on its own.
+     *
+     * @param pair the pair
+     * @param cfgMeta the metadata of the pair key, null if unknown or not looked up
+     * @param ctx the highlighting context
+     * @param errors the list to add errors to
+     * @param severity the severity of the errors
+     */
+    void check(PairElement pair, CompactPropertyMetadata cfgMeta, HighlightingContext ctx, List<ErrorDescription> errors,
+            Severity severity) {
+    }
+
+    /**
+     * Handles a pair added since the previous run, by default replacing its errors with those found by {@link #check}.
+     *
+     * @param pair the pair
+     * @param cfgMeta the metadata of the pair key, null if unknown or not looked up
+     * @param ctx the highlighting context
+     * @param severity the severity of the errors
+     */
+    void pairAdded(PairElement pair, CompactPropertyMetadata cfgMeta, HighlightingContext ctx, Severity severity) {
+        List<ErrorDescription> errors = new ArrayList<>();
+        check(pair, cfgMeta, ctx, errors, severity);
+        setPairErrors(pair, errors, ctx.getDocument());
+    }
+
+    /**
+     * Handles a pair removed since the previous run, by default dropping its errors.
+     *
+     * @param pair the pair
+     */
+    void pairRemoved(PairElement pair) {
+        clearPairErrors(pair);
+    }
+
+    /**
+     * Ends a run, after all changed pairs have been given.
+     * <p>
+     * Not called if the run is canceled.
+     *
+     * @param ctx the highlighting context
+     * @param severity the severity of the errors
+     */
+    void finish(HighlightingContext ctx, Severity severity) {
+    }
+
+    /**
+     * Forgets all errors, the next run is given all the pairs as added.
+     */
+    void reset() {
+        pairErrors.clear();
+        modified = true;
+    }
+
+    /**
+     * Collects the current errors.
+     *
+     * @param errors the list to add errors to
+     */
+    void collectErrors(List<ErrorDescription> errors) {
+        for (PairErrors pe : pairErrors.values()) {
+            errors.addAll(pe.errors);
+        }
+    }
+
+    /**
+     * Collects the pairs having errors whose anchoring positions no longer match the pair bounds.
+     *
+     * @param drifted the collection to add pairs to
+     */
+    void collectDrifted(Collection<PairElement> drifted) {
+        for (Map.Entry<PairElement, PairErrors> entry : pairErrors.entrySet()) {
+            final PairElement pair = entry.getKey();
+            final PairErrors pe = entry.getValue();
+            if (pe.start.getOffset() != pair.getKey().getIdxStart() || pe.end.getOffset() != endOf(pair)) {
+                drifted.add(pair);
+            }
+        }
+    }
+
+    final void setPairErrors(PairElement pair, List<ErrorDescription> errors, Document document) {
+        if (errors.isEmpty()) {
+            clearPairErrors(pair);
+            return;
+        }
+        try {
+            pairErrors.put(pair, new PairErrors(errors, document.createPosition(pair.getKey().getIdxStart()),
+                    document.createPosition(endOf(pair))));
+            modified = true;
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+    final void clearPairErrors(PairElement pair) {
+        if (pairErrors.remove(pair) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Tells if errors changed since the last time they were published.
+     *
+     * @return true if errors have to be published again
+     */
+    final boolean isModified() {
+        return modified;
+    }
+
+    final void setModified(boolean modified) {
+        this.modified = modified;
+    }
+
+    private static int endOf(PairElement pair) {
+        return pair.getValue() != null ? pair.getValue().getIdxEnd() : pair.getKey().getIdxEnd();
+    }
+
+    private static final class PairErrors {
+
+        private final List<ErrorDescription> errors;
+        private final Position start;
+        private final Position end;
+
+        PairErrors(List<ErrorDescription> errors, Position start, Position end) {
+            this.errors = errors;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
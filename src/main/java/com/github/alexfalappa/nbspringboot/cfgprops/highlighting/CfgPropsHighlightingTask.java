@@ -0,0 +1,319 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.prefs.Preferences;
+
+import javax.swing.event.ChangeListener;
+import javax.swing.text.StyledDocument;
+
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.project.Project;
+import org.netbeans.editor.BaseDocument;
+import org.netbeans.modules.parsing.spi.ParseException;
+import org.netbeans.modules.parsing.spi.ParserResultTask;
+import org.netbeans.modules.parsing.spi.Scheduler;
+import org.netbeans.modules.parsing.spi.SchedulerEvent;
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.HintsController;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.util.Exceptions;
+import org.openide.util.NbPreferences;
+import org.openide.util.WeakListeners;
+
+import com.github.alexfalappa.nbspringboot.LatencyRecorder;
+import com.github.alexfalappa.nbspringboot.PrefConstants;
+import com.github.alexfalappa.nbspringboot.Utils;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgPropsParser;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgSyntaxError;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.FINER;
+
+/**
+ * Highlighting task running all the enabled checkers in a single pass over the parsed configuration properties.
+ * <p>
+ * The document is read locked once, the active project and its Spring Boot service are resolved once and the
+ * configuration metadata of each key is looked up once and handed to all the checkers. Each checker publishes its errors
+ * in its own hints layer, a checker set to "None" in the options clears its layer.
+ * <p>
+ * Only the key-value pairs changed since the previous run are checked. The incremental parser keeps the pairs of the
+ * lines untouched by edits, so pairs are told apart by identity: those not seen in the previous run are added, those
+ * seen but no longer parsed are removed. Checkers keep the errors of the other pairs and a layer is published again only
+ * if its errors changed. Everything is checked again when the enabled checkers, their severities, the project
+ * configuration metadata or the document change.
+ * <p>
+ * The latency of the whole pass is recorded, as well as the time each checker spends in a complete run.
+ *
+ * @author Alessandro Falappa
+ */
+public class CfgPropsHighlightingTask extends ParserResultTask<CfgPropsParser.CfgPropsParserResult> {
+
+    private static final Logger logger = Logger.getLogger(CfgPropsHighlightingTask.class.getName());
+    private final LatencyRecorder latency = LatencyRecorder.get("highlighting." + getClass().getSimpleName());
+    private final List<BaseChecker> checkers = Arrays.asList(
+            new SyntaxErrorChecker(),
+            new DuplicatesChecker(),
+            new DataTypeMismatchChecker(),
+            new DeprecatedPropsChecker(),
+            new UnknownPropsChecker()
+    );
+    // pairs seen by the checkers, with the generation of the run that last found them parsed
+    private final Map<PairElement, Integer> seen = new IdentityHashMap<>();
+    private int generation = 0;
+    private StyledDocument lastDocument;
+    private SpringBootService lastService;
+    private ClassLoader lastClassLoader;
+    private Map<BaseChecker, Severity> lastActive = Collections.emptyMap();
+    private volatile boolean metadataChanged = false;
+    private final ChangeListener metadataListener = e -> metadataChanged = true;
+    private SpringBootService listenedService;
+    private ChangeListener weakMetadataListener;
+    private volatile boolean canceled = false;
+
+    @Override
+    public void run(CfgPropsParser.CfgPropsParserResult cfgResult, SchedulerEvent se) {
+        final BaseDocument document = (BaseDocument) cfgResult.getSnapshot().getSource().getDocument(false);
+        if (document == null) {
+            return;
+        }
+        final Preferences prefs = NbPreferences.forModule(PrefConstants.class);
+        Map<BaseChecker, Severity> enabled = new LinkedHashMap<>();
+        boolean needsMetadata = false;
+        for (BaseChecker checker : checkers) {
+            // skip checkers with preference set to "None"
+            final int sevLevel = prefs.getInt(checker.getHighlightPrefName(), checker.getHighlightDefaultValue());
+            if (sevLevel > 0) {
+                enabled.put(checker, decodeSeverity(sevLevel));
+                needsMetadata |= checker.needsMetadata();
+            }
+        }
+        List<CfgSyntaxError> syntaxErrors = Collections.emptyList();
+        try {
+            syntaxErrors = cfgResult.getSyntaxErrors();
+        } catch (ParseException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+        SpringBootService sbs = null;
+        ClassLoader cl = null;
+        if (needsMetadata) {
+            final Project prj = Utils.getActiveProject();
+            if (prj != null) {
+                sbs = prj.getLookup().lookup(SpringBootService.class);
+                listenToMetadata(sbs);
+                final ClassPath cp = Utils.execClasspathForProj(prj);
+                if (cp != null) {
+                    cl = cp.getClassLoader(true);
+                }
+            }
+        }
+        final HighlightingContext ctx = new HighlightingContext((StyledDocument) document, cfgResult.getCfgFile(), syntaxErrors,
+                sbs, cl);
+        final long mark = System.nanoTime();
+        Map<String, List<ErrorDescription>> layers;
+        document.readLock();
+        try {
+            layers = highlight(ctx, enabled);
+        } finally {
+            document.readUnlock();
+        }
+        latency.recordSince(mark);
+        for (Map.Entry<String, List<ErrorDescription>> entry : layers.entrySet()) {
+            HintsController.setErrors(document, entry.getKey(), entry.getValue());
+            logger.log(FINE, "Published {0} errors in layer {1}", new Object[]{entry.getValue().size(), entry.getKey()});
+        }
+    }
+
+    @Override
+    public int getPriority() {
+        return 100;
+    }
+
+    @Override
+    public Class<? extends Scheduler> getSchedulerClass() {
+        return Scheduler.EDITOR_SENSITIVE_TASK_SCHEDULER;
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    /**
+     * Runs checkers in a single pass over the key-value pairs changed since the previous run.
+     * <p>
+     * Checkers that cannot run in the context are skipped. A canceled run leaves the checkers consistent with the pairs
+     * handled so far, the next run carries on from there.
+     *
+     * @param ctx the highlighting context
+     * @param enabled the checkers of this task to run with the severity of their errors, in run order
+     * @return the errors of the layers changed by the run, keyed by error layer name, empty if the run was canceled
+     */
+    Map<String, List<ErrorDescription>> highlight(HighlightingContext ctx, Map<BaseChecker, Severity> enabled) {
+        canceled = false;
+        final Map<BaseChecker, Severity> active = new LinkedHashMap<>();
+        boolean lookup = false;
+        for (Map.Entry<BaseChecker, Severity> entry : enabled.entrySet()) {
+            if (entry.getKey().canCheck(ctx)) {
+                active.put(entry.getKey(), entry.getValue());
+                lookup |= entry.getKey().needsMetadata();
+            }
+        }
+        if (metadataChanged || !active.equals(lastActive) || ctx.getDocument() != lastDocument
+                || ctx.getSpringBootService() != lastService || ctx.getClassLoader() != lastClassLoader) {
+            metadataChanged = false;
+            reset();
+            lastActive = active;
+            lastDocument = ctx.getDocument();
+            lastService = ctx.getSpringBootService();
+            lastClassLoader = ctx.getClassLoader();
+        }
+        final List<BaseChecker> checkersRun = new ArrayList<>(active.keySet());
+        final List<Severity> severities = new ArrayList<>(active.values());
+        // nanoseconds spent by each checker in this run
+        final long[] spent = new long[checkersRun.size()];
+        long mark = System.nanoTime();
+        for (int i = 0; i < checkersRun.size(); i++) {
+            checkersRun.get(i).start(ctx, severities.get(i));
+            mark = charge(spent, i, mark);
+        }
+        // pairs whose errors drifted away are handled as changed
+        final Set<PairElement> drifted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BaseChecker checker : checkersRun) {
+            checker.collectDrifted(drifted);
+        }
+        for (PairElement pair : drifted) {
+            for (BaseChecker checker : checkersRun) {
+                checker.pairRemoved(pair);
+            }
+            seen.remove(pair);
+        }
+        // find changed pairs, marking the unchanged ones with the generation of this run
+        final Integer stamp = ++generation;
+        final List<PairElement> added = new ArrayList<>();
+        for (PairElement pair : ctx.getCfgFile().getElements()) {
+            if (seen.replace(pair, stamp) == null) {
+                added.add(pair);
+            }
+        }
+        final List<PairElement> removed = new ArrayList<>();
+        for (Map.Entry<PairElement, Integer> entry : seen.entrySet()) {
+            if (!stamp.equals(entry.getValue())) {
+                removed.add(entry.getKey());
+            }
+        }
+        logger.log(FINER, "Checking {0} added and {1} removed pairs", new Object[]{added.size(), removed.size()});
+        for (PairElement pair : removed) {
+            for (BaseChecker checker : checkersRun) {
+                checker.pairRemoved(pair);
+            }
+            seen.remove(pair);
+        }
+        final SpringBootService sbs = ctx.getSpringBootService();
+        for (PairElement pair : added) {
+            if (canceled) {
+                return Collections.emptyMap();
+            }
+            final CompactPropertyMetadata cfgMeta = lookup ? sbs.getCompactPropertyMetadata(pair.getKey().getText()) : null;
+            mark = System.nanoTime();
+            for (int i = 0; i < checkersRun.size(); i++) {
+                checkersRun.get(i).pairAdded(pair, cfgMeta, ctx, severities.get(i));
+                mark = charge(spent, i, mark);
+            }
+            seen.put(pair, stamp);
+        }
+        mark = System.nanoTime();
+        for (int i = 0; i < checkersRun.size(); i++) {
+            checkersRun.get(i).finish(ctx, severities.get(i));
+            mark = charge(spent, i, mark);
+        }
+        // canceled runs are not recorded, their timings are partial
+        for (int i = 0; i < checkersRun.size(); i++) {
+            checkersRun.get(i).latency.record(spent[i] / 1000);
+        }
+        Map<String, List<ErrorDescription>> ret = new HashMap<>();
+        for (BaseChecker checker : checkers) {
+            if (checker.isModified()) {
+                List<ErrorDescription> errors = new ArrayList<>();
+                checker.collectErrors(errors);
+                ret.put(checker.getErrorLayerName(), errors);
+                checker.setModified(false);
+            }
+        }
+        return ret;
+    }
+
+    // add the time elapsed since the mark to the time spent by a checker, returns the new mark
+    private static long charge(long[] spent, int checker, long mark) {
+        final long now = System.nanoTime();
+        spent[checker] += now - mark;
+        return now;
+    }
+
+    List<BaseChecker> getCheckers() {
+        return checkers;
+    }
+
+    /**
+     * Forgets the errors found so far, the next run checks all pairs.
+     */
+    void reset() {
+        seen.clear();
+        for (BaseChecker checker : checkers) {
+            checker.reset();
+        }
+        lastActive = Collections.emptyMap();
+    }
+
+    // track metadata publications of the Spring Boot service of the active project
+    private void listenToMetadata(SpringBootService sbs) {
+        if (sbs != listenedService) {
+            if (listenedService != null) {
+                listenedService.removeChangeListener(weakMetadataListener);
+                weakMetadataListener = null;
+            }
+            if (sbs != null) {
+                weakMetadataListener = WeakListeners.change(metadataListener, sbs);
+                sbs.addChangeListener(weakMetadataListener);
+            }
+            listenedService = sbs;
+        }
+    }
+
+    private Severity decodeSeverity(int level) {
+        switch (level) {
+            case 1:
+                return Severity.WARNING;
+            case 2:
+                return Severity.ERROR;
+            default:
+                throw new AssertionError();
+        }
+    }
+}
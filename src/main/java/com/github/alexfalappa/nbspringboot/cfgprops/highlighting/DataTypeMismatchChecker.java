@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.List;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.ErrorDescriptionFactory;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.util.Exceptions;
+
+import com.github.alexfalappa.nbspringboot.PrefConstants;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.PropertyType;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Highlighting checker for data type mismatch in configuration properties values.
+ *
+ * @author Alessandro Falappa
+ */
+public class DataTypeMismatchChecker extends BaseChecker {
+
+    private final ApplicationConversionService conversionService = new ApplicationConversionService();
+
+    @Override
+    protected String getHighlightPrefName() {
+        return PrefConstants.PREF_HLIGHT_LEV_DTMISMATCH;
+    }
+
+    @Override
+    protected int getHighlightDefaultValue() {
+        return 2;
+    }
+
+    @Override
+    protected String getErrorLayerName() {
+        return "boot-cfgprops-typemismatches";
+    }
+
+    @Override
+    boolean needsMetadata() {
+        return true;
+    }
+
+    @Override
+    boolean canCheck(HighlightingContext ctx) {
+        return ctx.getSpringBootService() != null && ctx.getClassLoader() != null;
+    }
+
+    @Override
+    void check(PairElement pair, CompactPropertyMetadata cfgMeta, HighlightingContext ctx, List<ErrorDescription> errors,
+            Severity severity) {
+        // type is null for deprecated configuration properties
+        if (cfgMeta == null || cfgMeta.getParsedType() == null) {
+            return;
+        }
+        final Document document = ctx.getDocument();
+        final ClassLoader cl = ctx.getClassLoader();
+        final CfgElement key = pair.getKey();
+        final CfgElement value = pair.getValue();
+        final String pName = key.getText();
+        final String pValue = value != null ? value.getText() : "";
+        final PropertyType type = cfgMeta.getParsedType();
+        try {
+            if (type.isMap()) {
+                check(PropertyType.of(type.getKeyType()), pName.substring(pName.lastIndexOf('.') + 1), document, key, errors,
+                        cl, severity);
+                check(PropertyType.of(type.getValueType()), pValue, document, value, errors, cl, severity);
+            } else if (type.getElementType() != null) {
+                // generic types with one argument and arrays
+                final PropertyType elementType = PropertyType.of(type.getElementType());
+                if (pValue.contains(",")) {
+                    for (String val : pValue.split("\\s*,\\s*")) {
+                        check(elementType, val, document, value, errors, cl, severity);
+                    }
+                } else {
+                    check(elementType, pValue, document, value, errors, cl, severity);
+                }
+            } else {
+                check(type, pValue, document, value, errors, cl, severity);
+            }
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+    private void check(PropertyType type, String text, Document document, CfgElement elem, List<ErrorDescription> errors,
+            ClassLoader cl, Severity severity) throws BadLocationException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        // non generic types
+        try {
+            if (!checkType(type, text, cl)) {
+                ErrorDescription errDesc = ErrorDescriptionFactory.createErrorDescription(
+                        severity,
+                        String.format("Cannot parse '%s' as %s", text, type),
+                        document,
+                        document.createPosition(elem.getIdxStart()),
+                        document.createPosition(elem.getIdxEnd())
+                );
+                errors.add(errDesc);
+            }
+        } catch (IllegalArgumentException ex) {
+            // problems instantiating type class, cannot decide, ignore
+        }
+    }
+
+    private boolean checkType(PropertyType type, String text, ClassLoader cl) throws IllegalArgumentException {
+        Class<?> clazz = type.resolve(cl);
+        if (clazz != null) {
+            try {
+                Object obj = conversionService.convert(text, TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(clazz));
+                return obj != null;
+            } catch (Exception ex) {
+                return false;
+            }
+        }
+        // generic or unresolvable/unknown class, assume user knows what is doing
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.StyledDocument;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.ErrorDescriptionFactory;
+import org.netbeans.spi.editor.hints.Fix;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.util.Exceptions;
+import org.springframework.boot.configurationmetadata.Deprecation;
+
+import com.github.alexfalappa.nbspringboot.PrefConstants;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.fixes.DeletePropFix;
+import com.github.alexfalappa.nbspringboot.cfgprops.fixes.ReplacePropFix;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+import static org.springframework.boot.configurationmetadata.Deprecation.Level.ERROR;
+
+/**
+ * Highlighting checker for deprecated configuration properties names.
+ * <p>
+ * Severity depends on the deprecation level, the configured one only enables the checker.
+ *
+ * @author Alessandro Falappa
+ */
+public class DeprecatedPropsChecker extends BaseChecker {
+
+    @Override
+    protected String getHighlightPrefName() {
+        return PrefConstants.PREF_HLIGHT_LEV_DEPRECATED;
+    }
+
+    @Override
+    protected int getHighlightDefaultValue() {
+        return 1;
+    }
+
+    @Override
+    protected String getErrorLayerName() {
+        return "boot-cfgprops-deprecatedprops";
+    }
+
+    @Override
+    boolean needsMetadata() {
+        return true;
+    }
+
+    @Override
+    boolean canCheck(HighlightingContext ctx) {
+        return ctx.getSpringBootService() != null;
+    }
+
+    @Override
+    void check(PairElement pair, CompactPropertyMetadata cfgMeta, HighlightingContext ctx, List<ErrorDescription> errors,
+            Severity unused) {
+        if (cfgMeta == null || cfgMeta.getDeprecation() == null) {
+            return;
+        }
+        final StyledDocument document = ctx.getDocument();
+        final CfgElement key = pair.getKey();
+        final CfgElement value = pair.getValue();
+        final String pName = key.getText();
+        try {
+            final Deprecation deprecation = cfgMeta.getDeprecation();
+            List<Fix> fixes = new ArrayList<>();
+            final int start = key.getIdxStart();
+            int end = value != null ? value.getIdxEnd() : key.getIdxEnd();
+            fixes.add(new DeletePropFix(document, key.getText(), key.getIdxStart(), end));
+            if (deprecation.getReplacement() != null) {
+                end = key.getIdxEnd();
+                fixes.add(new ReplacePropFix(document, start, end, deprecation.getReplacement()));
+            }
+            Deprecation.Level deprLevel = deprecation.getLevel();
+            ErrorDescription errDesc;
+            if (deprLevel == ERROR) {
+                errDesc = ErrorDescriptionFactory.createErrorDescription(
+                        Severity.ERROR,
+                        String.format("No more supported Spring Boot property '%s'", pName),
+                        fixes,
+                        document,
+                        document.createPosition(start),
+                        document.createPosition(end)
+                );
+            } else {
+                errDesc = ErrorDescriptionFactory.createErrorDescription(
+                        Severity.WARNING,
+                        String.format("Deprecated Spring Boot property '%s'", pName),
+                        fixes,
+                        document,
+                        document.createPosition(start),
+                        document.createPosition(end)
+                );
+            }
+            errors.add(errDesc);
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.StyledDocument;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.ErrorDescriptionFactory;
+import org.netbeans.spi.editor.hints.Fix;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.text.NbDocument;
+import org.openide.util.Exceptions;
+
+import com.github.alexfalappa.nbspringboot.PrefConstants;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.fixes.DeletePropFix;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Highlighting checker for duplicate properties.
+ * <p>
+ * Keeps an index of the occurrences of each key, updated with the changed pairs. Errors of all the occurrences of a key
+ * are recomputed only when its first occurrence changes or moves to another line, as errors mention it, otherwise only
+ * the added occurrences are given errors.
+ *
+ * @author Alessandro Falappa
+ */
+public class DuplicatesChecker extends BaseChecker {
+
+    private final Map<String, List<PairElement>> occurrences = new HashMap<>();
+    // first occurrence mentioned in the errors of each duplicated key
+    private final Map<String, FirstOccurrence> reported = new HashMap<>();
+    // occurrences added and keys changed since the last finished run
+    private final Map<String, List<PairElement>> added = new HashMap<>();
+    private final Set<String> dirtyKeys = new HashSet<>();
+
+    @Override
+    protected String getHighlightPrefName() {
+        return PrefConstants.PREF_HLIGHT_LEV_DUPLICATES;
+    }
+
+    @Override
+    protected int getHighlightDefaultValue() {
+        return 1;
+    }
+
+    @Override
+    protected String getErrorLayerName() {
+        return "boot-cfgprops-duplicates";
+    }
+
+    @Override
+    void pairAdded(PairElement pair, CompactPropertyMetadata cfgMeta, HighlightingContext ctx, Severity severity) {
+        final String pName = pair.getKey().getText();
+        occurrences.computeIfAbsent(pName, k -> new ArrayList<>(1)).add(pair);
+        added.computeIfAbsent(pName, k -> new ArrayList<>(1)).add(pair);
+        dirtyKeys.add(pName);
+    }
+
+    @Override
+    void pairRemoved(PairElement pair) {
+        final String pName = pair.getKey().getText();
+        final List<PairElement> occurs = occurrences.get(pName);
+        if (occurs != null) {
+            occurs.remove(pair);
+            if (occurs.isEmpty()) {
+                occurrences.remove(pName);
+            }
+        }
+        final List<PairElement> addedOccurs = added.get(pName);
+        if (addedOccurs != null) {
+            addedOccurs.remove(pair);
+        }
+        dirtyKeys.add(pName);
+        super.pairRemoved(pair);
+    }
+
+    @Override
+    void finish(HighlightingContext ctx, Severity severity) {
+        final StyledDocument document = ctx.getDocument();
+        final Set<String> keys = new HashSet<>(reported.keySet());
+        keys.addAll(dirtyKeys);
+        for (String pName : keys) {
+            final List<PairElement> occurs = occurrences.get(pName);
+            if (occurs == null) {
+                reported.remove(pName);
+                continue;
+            }
+            PairElement first = occurs.get(0);
+            for (PairElement pair : occurs) {
+                if (pair.getKey().getIdxStart() < first.getKey().getIdxStart()) {
+                    first = pair;
+                }
+            }
+            if (occurs.size() == 1) {
+                reported.remove(pName);
+                clearPairErrors(first);
+                continue;
+            }
+            final int line = NbDocument.findLineNumber(document, first.getKey().getIdxStart()) + 1;
+            final FirstOccurrence prev = reported.put(pName, new FirstOccurrence(first, line));
+            final boolean unchanged = prev != null && prev.pair == first && prev.line == line;
+            for (PairElement pair : unchanged ? added.getOrDefault(pName, Collections.emptyList()) : occurs) {
+                if (pair == first) {
+                    clearPairErrors(pair);
+                } else {
+                    setPairErrors(pair, duplicateError(pair, line, document, severity), document);
+                }
+            }
+        }
+        added.clear();
+        dirtyKeys.clear();
+    }
+
+    @Override
+    void reset() {
+        super.reset();
+        occurrences.clear();
+        reported.clear();
+        added.clear();
+        dirtyKeys.clear();
+    }
+
+    private List<ErrorDescription> duplicateError(PairElement pair, int firstLine, StyledDocument document,
+            Severity severity) {
+        final CfgElement key = pair.getKey();
+        final CfgElement value = pair.getValue();
+        try {
+            List<Fix> fixes = new ArrayList<>();
+            int end = value != null ? value.getIdxEnd() : key.getIdxEnd();
+            fixes.add(new DeletePropFix(document, key.getText(), key.getIdxStart(), end));
+            ErrorDescription errDesc = ErrorDescriptionFactory.createErrorDescription(
+                    severity,
+                    String.format("Duplicate of property at line %d", firstLine),
+                    fixes,
+                    document,
+                    document.createPosition(key.getIdxStart()),
+                    document.createPosition(key.getIdxEnd())
+            );
+            return Collections.singletonList(errDesc);
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+            return Collections.emptyList();
+        }
+    }
+
+    private static final class FirstOccurrence {
+
+        private final PairElement pair;
+        private final int line;
+
+        FirstOccurrence(PairElement pair, int line) {
+            this.pair = pair;
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.List;
+
+import javax.swing.text.StyledDocument;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgSyntaxError;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+
+/**
+ * What highlighting checkers look at: the document, its parsing results and the project configuration metadata.
+ *
+ * @author Alessandro Falappa
+ */
+final class HighlightingContext {
+
+    private final StyledDocument document;
+    private final CfgFile cfgFile;
+    private final List<CfgSyntaxError> syntaxErrors;
+    private final SpringBootService springBootService;
+    private final ClassLoader classLoader;
+
+    /**
+     * Creates a context.
+     *
+     * @param document the document
+     * @param cfgFile the parsed file
+     * @param syntaxErrors the syntax errors found while parsing
+     * @param springBootService the service of the active project, null if not available
+     * @param classLoader the execution class loader of the active project, null if not available
+     */
+    HighlightingContext(StyledDocument document, CfgFile cfgFile, List<CfgSyntaxError> syntaxErrors,
+            SpringBootService springBootService, ClassLoader classLoader) {
+        this.document = document;
+        this.cfgFile = cfgFile;
+        this.syntaxErrors = syntaxErrors;
+        this.springBootService = springBootService;
+        this.classLoader = classLoader;
+    }
+
+    StyledDocument getDocument() {
+        return document;
+    }
+
+    CfgFile getCfgFile() {
+        return cfgFile;
+    }
+
+    List<CfgSyntaxError> getSyntaxErrors() {
+        return syntaxErrors;
+    }
+
+    SpringBootService getSpringBootService() {
+        return springBootService;
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Position;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.ErrorDescriptionFactory;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.util.Exceptions;
+
+import com.github.alexfalappa.nbspringboot.PrefConstants;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgSyntaxError;
+
+/**
+ * Highlighting checker for syntax errors.
+ * <p>
+ * Syntax errors outside the lines reparsed after an edit are kept by the parser, their error descriptions are reused while
+ * still anchored at the error bounds.
+ *
+ * @author Alessandro Falappa
+ */
+public class SyntaxErrorChecker extends BaseChecker {
+
+    private Map<CfgSyntaxError, Described> described = new IdentityHashMap<>();
+
+    @Override
+    protected String getHighlightPrefName() {
+        return PrefConstants.PREF_HLIGHT_LEV_SYNERR;
+    }
+
+    @Override
+    protected int getHighlightDefaultValue() {
+        return 2;
+    }
+
+    @Override
+    protected String getErrorLayerName() {
+        return "boot-props-syntax-errors";
+    }
+
+    @Override
+    void start(HighlightingContext ctx, Severity severity) {
+        final Document document = ctx.getDocument();
+        final Map<CfgSyntaxError, Described> current = new IdentityHashMap<>();
+        try {
+            for (CfgSyntaxError error : ctx.getSyntaxErrors()) {
+                Described desc = described.get(error);
+                if (desc == null || desc.start.getOffset() != error.getIdxStart() || desc.end.getOffset() != error.getIdxEnd()) {
+                    final Position start = document.createPosition(error.getIdxStart());
+                    final Position end = document.createPosition(error.getIdxEnd());
+                    ErrorDescription errDesc = ErrorDescriptionFactory.createErrorDescription(
+                            severity,
+                            error.getMessage(),
+                            document,
+                            start,
+                            end
+                    );
+                    desc = new Described(errDesc, start, end);
+                    setModified(true);
+                }
+                current.put(error, desc);
+            }
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+        if (current.size() != described.size()) {
+            setModified(true);
+        }
+        described = current;
+    }
+
+    @Override
+    void reset() {
+        super.reset();
+        described.clear();
+    }
+
+    @Override
+    void collectErrors(List<ErrorDescription> errors) {
+        for (Described desc : described.values()) {
+            errors.add(desc.errDesc);
+        }
+    }
+
+    private static final class Described {
+
+        private final ErrorDescription errDesc;
+        private final Position start;
+        private final Position end;
+
+        Described(ErrorDescription errDesc, Position start, Position end) {
+            this.errDesc = errDesc;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.StyledDocument;
+
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.ErrorDescriptionFactory;
+import org.netbeans.spi.editor.hints.Fix;
+import org.netbeans.spi.editor.hints.Severity;
+import org.openide.util.Exceptions;
+
+import com.github.alexfalappa.nbspringboot.PrefConstants;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.fixes.DeletePropFix;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Highlighting checker for unknown configuration properties names.
+ *
+ * @author Alessandro Falappa
+ */
+public class UnknownPropsChecker extends BaseChecker {
+
+    @Override
+    protected String getHighlightPrefName() {
+        return PrefConstants.PREF_HLIGHT_LEV_UNKNOWN;
+    }
+
+    @Override
+    protected int getHighlightDefaultValue() {
+        return 1;
+    }
+
+    @Override
+    protected String getErrorLayerName() {
+        return "boot-cfgprops-unknownprops";
+    }
+
+    @Override
+    boolean needsMetadata() {
+        return true;
+    }
+
+    @Override
+    boolean canCheck(HighlightingContext ctx) {
+        // all properties would be unknown while metadata is still loading
+        return ctx.getSpringBootService() != null && ctx.getSpringBootService().isMetadataReady();
+    }
+
+    @Override
+    void check(PairElement pair, CompactPropertyMetadata cfgMeta, HighlightingContext ctx, List<ErrorDescription> errors,
+            Severity severity) {
+        if (cfgMeta != null) {
+            return;
+        }
+        final StyledDocument document = ctx.getDocument();
+        final CfgElement key = pair.getKey();
+        final CfgElement value = pair.getValue();
+        final String pName = key.getText();
+        try {
+            List<Fix> fixes = new ArrayList<>();
+            int end = value != null ? value.getIdxEnd() : key.getIdxEnd();
+            fixes.add(new DeletePropFix(document, key.getText(), key.getIdxStart(), end));
+            ErrorDescription errDesc = ErrorDescriptionFactory.createErrorDescription(
+                    severity,
+                    String.format("Unknown Spring Boot property '%s'", pName),
+                    fixes,
+                    document,
+                    document.createPosition(key.getIdxStart()),
+                    document.createPosition(key.getIdxEnd())
+            );
+            errors.add(errDesc);
+        } catch (BadLocationException ex) {
+            Exceptions.printStackTrace(ex);
+        }
+    }
+
+}
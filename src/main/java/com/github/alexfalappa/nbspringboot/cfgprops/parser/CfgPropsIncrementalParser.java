@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Configuration properties parser reparsing only the logical lines touched by edits.
+ * <p>
+ * A logical line is a line of text together with the following lines it is continued on by a trailing backslash. Grammar
+ * items never span logical lines, so the logical lines differing from the previously parsed text are parsed in isolation
+ * and their key-value pairs and syntax errors are spliced into the previous results, moving the positions of the
+ * following ones. Parsed properties are updated for the changed keys only.
+ * <p>
+ * Texts are parsed by a pluggable {@link CfgPropsTextParser}.
+ * <p>
+ * Not thread safe, results are updated in place by each parse.
+ *
+ * @author Alessandro Falappa
+ */
+public final class CfgPropsIncrementalParser {
+
+    private static final Logger logger = Logger.getLogger(CfgPropsIncrementalParser.class.getName());
+    private final CfgPropsTextParser textParser;
+    private final Properties parsedProps = new Properties();
+    // occurrences of each unescaped key, to restore the value of duplicates
+    private final Map<String, Integer> keyCounts = new HashMap<>();
+    private final List<CfgSyntaxError> errors = new ArrayList<>();
+    private CfgFile cfgFile = new CfgFile();
+    private String text;
+
+    public CfgPropsIncrementalParser(CfgPropsTextParser textParser) {
+        this.textParser = textParser;
+    }
+
+    public Properties getParsedProps() {
+        return parsedProps;
+    }
+
+    public CfgFile getCfgFile() {
+        return cfgFile;
+    }
+
+    /**
+     * The syntax errors found, sorted by position.
+     *
+     * @return an unmodifiable view of the errors
+     */
+    public List<CfgSyntaxError> getSyntaxErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Parses a text, reparsing only the logical lines differing from the previously parsed text.
+     *
+     * @param newText the text to parse
+     */
+    public void parse(String newText) {
+        if (text == null) {
+            parseFully(newText);
+            return;
+        }
+        final int oldLen = text.length();
+        final int newLen = newText.length();
+        final int minLen = Math.min(oldLen, newLen);
+        int prefix = 0;
+        while (prefix < minLen && text.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix == minLen && oldLen == newLen) {
+            logger.fine("Text unchanged, keeping previous results");
+            return;
+        }
+        int suffix = 0;
+        while (suffix < minLen - prefix && text.charAt(oldLen - 1 - suffix) == newText.charAt(newLen - 1 - suffix)) {
+            suffix++;
+        }
+        // widen the changed span to logical lines starting and ending at the same places in both texts
+        final int delta = newLen - oldLen;
+        int start = prefix;
+        while (!isBoundary(text, start) || !isBoundary(newText, start)) {
+            start--;
+        }
+        int endNew = newLen - suffix;
+        int endOld;
+        while (true) {
+            while (!isBoundary(newText, endNew)) {
+                endNew++;
+            }
+            endOld = endNew - delta;
+            if (isBoundary(text, endOld)) {
+                break;
+            }
+            while (!isBoundary(text, endOld)) {
+                endOld++;
+            }
+            endNew = endOld + delta;
+            if (isBoundary(newText, endNew)) {
+                break;
+            }
+        }
+        if (endNew - start > newLen / 2) {
+            parseFully(newText);
+            return;
+        }
+        splice(newText, start, endOld, endNew);
+        text = newText;
+        logger.log(FINE, "Reparsed chars {0}-{1} of {2}", new Object[]{start, endNew, newLen});
+    }
+
+    /**
+     * Parses a whole text, discarding previous results.
+     *
+     * @param newText the text to parse
+     */
+    public void parseFully(String newText) {
+        errors.clear();
+        cfgFile = textParser.parse(newText, errors);
+        parsedProps.clear();
+        keyCounts.clear();
+        for (PairElement pair : cfgFile.getElements()) {
+            final String key = keyOf(pair);
+            parsedProps.setProperty(key, valueOf(pair));
+            keyCounts.merge(key, 1, Integer::sum);
+        }
+        text = newText;
+        logger.log(FINE, "Parsed all {0} chars", newText.length());
+    }
+
+    // replaces the results in [start, endOld) of the previous text with those of [start, endNew) of the new text
+    private void splice(String newText, int start, int endOld, int endNew) {
+        final int delta = endNew - endOld;
+        final NavigableSet<PairElement> elements = cfgFile.getElements();
+        final Set<String> dirtyKeys = new HashSet<>();
+        final NavigableSet<PairElement> changed = elements.subSet(probe(start), true, probe(endOld), false);
+        for (PairElement pair : changed) {
+            final String key = keyOf(pair);
+            keyCounts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+            dirtyKeys.add(key);
+        }
+        changed.clear();
+        if (delta != 0) {
+            // a uniform shift keeps the set ordering
+            for (PairElement pair : elements.tailSet(probe(endOld), true)) {
+                pair.shift(delta);
+            }
+        }
+        int errIdx = 0;
+        while (errIdx < errors.size() && errors.get(errIdx).getIdxStart() < start) {
+            errIdx++;
+        }
+        // errors at the end of the text belong to the last logical line
+        final boolean toEnd = endOld == text.length();
+        while (errIdx < errors.size() && (toEnd || errors.get(errIdx).getIdxStart() < endOld)) {
+            errors.remove(errIdx);
+        }
+        if (delta != 0) {
+            for (int i = errIdx; i < errors.size(); i++) {
+                errors.get(i).shift(delta);
+            }
+        }
+        final Map<String, String> newValues = new HashMap<>();
+        if (endNew > start) {
+            final List<CfgSyntaxError> regionErrors = new ArrayList<>();
+            for (PairElement pair : textParser.parse(newText.substring(start, endNew), regionErrors).getElements()) {
+                pair.shift(start);
+                elements.add(pair);
+                final String key = keyOf(pair);
+                keyCounts.merge(key, 1, Integer::sum);
+                dirtyKeys.add(key);
+                newValues.put(key, valueOf(pair));
+            }
+            for (CfgSyntaxError error : regionErrors) {
+                error.shift(start);
+            }
+            errors.addAll(errIdx, regionErrors);
+        }
+        for (String key : dirtyKeys) {
+            final Integer count = keyCounts.get(key);
+            if (count == null) {
+                parsedProps.remove(key);
+            } else if (count == 1 && newValues.containsKey(key)) {
+                parsedProps.setProperty(key, newValues.get(key));
+            } else {
+                // duplicated key, the last occurrence wins
+                for (PairElement pair : elements.descendingSet()) {
+                    if (key.equals(keyOf(pair))) {
+                        parsedProps.setProperty(key, valueOf(pair));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells if a logical line starts at the given position of a text.
+     * <p>
+     * Logical lines start at the beginning of the text, at its end and after line terminators not preceded by an odd number
+     * of backslashes.
+     *
+     * @param text the text
+     * @param pos the position
+     * @return true if a logical line starts at the position
+     */
+    static boolean isBoundary(String text, int pos) {
+        if (pos <= 0 || pos >= text.length()) {
+            return true;
+        }
+        final char c = text.charAt(pos - 1);
+        int eolStart;
+        if (c == '\n') {
+            eolStart = pos >= 2 && text.charAt(pos - 2) == '\r' ? pos - 2 : pos - 1;
+        } else if (c == '\r' && text.charAt(pos) != '\n') {
+            eolStart = pos - 1;
+        } else {
+            return false;
+        }
+        int backslashes = 0;
+        for (int i = eolStart - 1; i >= 0 && text.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 0;
+    }
+
+    // sorts before any pair whose key starts at the given offset
+    private static PairElement probe(int offset) {
+        return new PairElement(new CfgElement(offset, Integer.MIN_VALUE, ""));
+    }
+
+    private static String keyOf(PairElement pair) {
+        return CfgPropsParboiled.unescape(pair.getKey().getText());
+    }
+
+    private static String valueOf(PairElement pair) {
+        return pair.getValue() != null ? CfgPropsParboiled.unescape(pair.getValue().getText()) : "";
+    }
+}
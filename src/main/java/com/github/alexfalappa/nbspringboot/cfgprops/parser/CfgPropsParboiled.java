@@ -300,7 +300,7 @@ public class CfgPropsParboiled extends BaseParser<CfgElement> {
         return true;
     }
 
-    String uniToStr(String str) {
+    static String uniToStr(String str) {
         String ret = "";
         int codePoint = 0;
         try {
@@ -312,7 +312,11 @@ public class CfgPropsParboiled extends BaseParser<CfgElement> {
         return ret;
     }
 
-    private String unescape(String text) {
+    static String unescape(String text) {
+        // all escapes start with a backslash
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
         StringBuffer sb = new StringBuffer();
         Matcher m = PAT_UNICODES.matcher(text);
         while (m.find()) {
@@ -23,6 +23,8 @@ import java.util.logging.Logger;
 
 import javax.swing.event.ChangeListener;
 
+import org.netbeans.api.project.FileOwnerQuery;
+import org.netbeans.api.project.Project;
 import org.netbeans.modules.csl.api.Error;
 import org.netbeans.modules.csl.spi.ParserResult;
 import org.netbeans.modules.parsing.api.Snapshot;
@@ -30,62 +32,104 @@ import org.netbeans.modules.parsing.api.Task;
 import org.netbeans.modules.parsing.spi.ParseException;
 import org.netbeans.modules.parsing.spi.Parser;
 import org.netbeans.modules.parsing.spi.SourceModificationEvent;
-import org.parboiled.Parboiled;
-import org.parboiled.parserunners.RecoveringParseRunner;
-import org.parboiled.support.ParsingResult;
+import org.openide.filesystems.FileObject;
+import org.openide.util.ChangeSupport;
+import org.openide.util.NbPreferences;
+import org.openide.util.WeakListeners;
 
+import com.github.alexfalappa.nbspringboot.PrefConstants;
 import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
 import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
 import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
 
 /**
- * NetBeans Parsing and Lexing API parser for integrating the Parboiled parser.
+ * NetBeans Parsing and Lexing API parser for integrating the configuration properties parsers.
+ * <p>
+ * Edits are parsed incrementally by a {@link CfgPropsIncrementalParser}, reparsing only the changed logical lines. Texts
+ * are parsed by the {@link ParboiledTextParser} unless the faster {@link RecursiveDescentTextParser} is selected in the
+ * plugin options.
+ * <p>
+ * Listens to configuration metadata changes of the owning project and notifies the parsing infrastructure, so that
+ * highlighting tasks are run again once metadata is loaded in background.
  *
  * @author Alessandro Falappa
  */
 public class CfgPropsParser extends Parser {
 
     private static final Logger logger = Logger.getLogger(CfgPropsParser.class.getName());
-    private final CfgPropsParboiled parboiled;
+    private CfgPropsIncrementalParser incrParser;
+    private boolean fastParserSelected;
+    private final ChangeSupport changeSupport = new ChangeSupport(this);
+    private final ChangeListener metadataListener = e -> changeSupport.fireChange();
+    private SpringBootService listenedService;
+    private ChangeListener weakMetadataListener;
     private Snapshot snapshot;
-    private ParsingResult parbResult;
-
-    public CfgPropsParser() {
-        parboiled = Parboiled.createParser(CfgPropsParboiled.class);
-    }
 
     @Override
     public void parse(Snapshot snapshot, Task task, SourceModificationEvent sme) throws ParseException {
         logger.fine("Parsing...");
         this.snapshot = snapshot;
-        RecoveringParseRunner runner = new RecoveringParseRunner(parboiled.cfgProps());
-        parboiled.reset();
-        parbResult = runner.run(snapshot.getText().toString());
+        listenToMetadata(snapshot.getSource().getFileObject());
+        final boolean useFastParser = NbPreferences.forModule(PrefConstants.class)
+                .getBoolean(PrefConstants.PREF_FAST_PARSER, false);
+        if (incrParser == null || useFastParser != fastParserSelected) {
+            incrParser = new CfgPropsIncrementalParser(
+                    useFastParser ? new RecursiveDescentTextParser() : new ParboiledTextParser());
+            fastParserSelected = useFastParser;
+        }
+        // modification events may coalesce several edits, the changed lines are found comparing with the previous text
+        incrParser.parse(snapshot.getText().toString());
         logParsingResult();
     }
 
     @Override
     public Result getResult(Task task) throws ParseException {
-        return new CfgPropsParserResult(snapshot, parbResult, parboiled.getParsedProps(), parboiled.getCfgFile());
+        return new CfgPropsParserResult(snapshot, incrParser.getSyntaxErrors(), incrParser.getParsedProps(),
+                incrParser.getCfgFile());
     }
 
     @Override
     public void addChangeListener(ChangeListener cl) {
+        changeSupport.addChangeListener(cl);
     }
 
     @Override
     public void removeChangeListener(ChangeListener cl) {
+        changeSupport.removeChangeListener(cl);
+    }
+
+    // track the Spring Boot service of the project owning the parsed file
+    private void listenToMetadata(FileObject fo) {
+        SpringBootService sbs = null;
+        if (fo != null) {
+            final Project prj = FileOwnerQuery.getOwner(fo);
+            if (prj != null) {
+                sbs = prj.getLookup().lookup(SpringBootService.class);
+            }
+        }
+        if (sbs != listenedService) {
+            if (listenedService != null) {
+                listenedService.removeChangeListener(weakMetadataListener);
+                weakMetadataListener = null;
+            }
+            if (sbs != null) {
+                weakMetadataListener = WeakListeners.change(metadataListener, sbs);
+                sbs.addChangeListener(weakMetadataListener);
+            }
+            listenedService = sbs;
+        }
     }
 
     private void logParsingResult() {
         if (logger.isLoggable(Level.FINER)) {
             logger.finer("Parsed properties:");
-            final Properties parsedProps = parboiled.getParsedProps();
+            final Properties parsedProps = incrParser.getParsedProps();
             for (String pname : parsedProps.stringPropertyNames()) {
                 logger.log(Level.FINER, "\t{0} -> {1}", new Object[]{pname, parsedProps.getProperty(pname)});
             }
             logger.finer("Parsed AST:");
-            final CfgFile cfgFile = parboiled.getCfgFile();
+            final CfgFile cfgFile = incrParser.getCfgFile();
             for (PairElement p : cfgFile.getElements()) {
                 CfgElement e = p.getKey();
                 logger.finer(String.format("\t(%3d;%3d) key: %s", e.getIdxStart(), e.getIdxEnd(), e.getText()));
@@ -99,14 +143,14 @@ public class CfgPropsParser extends Parser {
 
     public static class CfgPropsParserResult extends ParserResult {
 
-        private final ParsingResult parbResult;
+        private final List<CfgSyntaxError> syntaxErrors;
         private final Properties parsedProps;
         private boolean valid = true;
         private final CfgFile cfgFile;
 
-        CfgPropsParserResult(Snapshot snapshot, ParsingResult parbResult, Properties parsedProps, CfgFile cfgFile) {
+        CfgPropsParserResult(Snapshot snapshot, List<CfgSyntaxError> syntaxErrors, Properties parsedProps, CfgFile cfgFile) {
             super(snapshot);
-            this.parbResult = parbResult;
+            this.syntaxErrors = syntaxErrors;
             this.parsedProps = parsedProps;
             this.cfgFile = cfgFile;
         }
@@ -116,11 +160,11 @@ public class CfgPropsParser extends Parser {
             valid = false;
         }
 
-        public ParsingResult getParbResult() throws org.netbeans.modules.parsing.spi.ParseException {
+        public List<CfgSyntaxError> getSyntaxErrors() throws org.netbeans.modules.parsing.spi.ParseException {
             if (!valid) {
                 throw new org.netbeans.modules.parsing.spi.ParseException();
             }
-            return parbResult;
+            return syntaxErrors;
         }
 
         public Properties getParsedProps() {
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+import java.util.List;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+
+/**
+ * Parser of a whole configuration properties text into key-value pairs and syntax errors.
+ * <p>
+ * Implementations are reusable but not thread safe.
+ *
+ * @author Alessandro Falappa
+ */
+public interface CfgPropsTextParser {
+
+    /**
+     * Parses a text.
+     *
+     * @param text the text to parse
+     * @param errors list receiving the syntax errors found, sorted by position
+     * @return a new {@link CfgFile} with the key-value pairs found, positioned relative to the start of the text
+     */
+    CfgFile parse(String text, List<CfgSyntaxError> errors);
+}
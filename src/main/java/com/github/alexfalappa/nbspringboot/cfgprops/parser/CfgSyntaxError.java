@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+/**
+ * A syntax error found while parsing, with its message and char index range in the document.
+ *
+ * @author Alessandro Falappa
+ */
+public final class CfgSyntaxError {
+
+    private int idxStart;
+    private int idxEnd;
+    private final String message;
+
+    public CfgSyntaxError(int idxStart, int idxEnd, String message) {
+        this.idxStart = idxStart;
+        this.idxEnd = idxEnd;
+        this.message = message;
+    }
+
+    public int getIdxStart() {
+        return idxStart;
+    }
+
+    public int getIdxEnd() {
+        return idxEnd;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    void shift(int delta) {
+        idxStart += delta;
+        idxEnd += delta;
+    }
+}
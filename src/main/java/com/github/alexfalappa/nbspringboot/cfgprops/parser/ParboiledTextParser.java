@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+import java.util.List;
+
+import org.parboiled.Parboiled;
+import org.parboiled.buffers.InputBuffer;
+import org.parboiled.common.Formatter;
+import org.parboiled.errors.DefaultInvalidInputErrorFormatter;
+import org.parboiled.errors.InvalidInputError;
+import org.parboiled.errors.ParseError;
+import org.parboiled.parserunners.RecoveringParseRunner;
+import org.parboiled.support.ParsingResult;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+
+/**
+ * Text parser running the {@link CfgPropsParboiled} grammar with Parboiled error recovery.
+ *
+ * @author Alessandro Falappa
+ */
+public final class ParboiledTextParser implements CfgPropsTextParser {
+
+    private final CfgPropsParboiled parboiled = Parboiled.createParser(CfgPropsParboiled.class);
+    private final Formatter<InvalidInputError> formatter = new DefaultInvalidInputErrorFormatter();
+
+    @Override
+    public CfgFile parse(String text, List<CfgSyntaxError> errors) {
+        parboiled.reset();
+        final ParsingResult<CfgElement> result = new RecoveringParseRunner<CfgElement>(parboiled.cfgProps()).run(text);
+        final InputBuffer ibuf = result.inputBuffer;
+        final int firstIdx = errors.size();
+        for (ParseError error : result.parseErrors) {
+            String message = error.getErrorMessage() != null
+                    ? error.getErrorMessage()
+                    : error instanceof InvalidInputError
+                            ? formatter.format((InvalidInputError) error)
+                            : error.getClass().getSimpleName();
+            errors.add(new CfgSyntaxError(ibuf.getOriginalIndex(error.getStartIndex()),
+                    ibuf.getOriginalIndex(error.getEndIndex()), message));
+        }
+        errors.subList(firstIdx, errors.size()).sort((e1, e2) -> Integer.compare(e1.getIdxStart(), e2.getIdxStart()));
+        return parboiled.getCfgFile();
+    }
+}
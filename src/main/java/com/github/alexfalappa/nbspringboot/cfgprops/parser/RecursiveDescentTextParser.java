@@ -0,0 +1,288 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+import java.util.List;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.KeyElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.ValueElement;
+
+/**
+ * Hand-written single pass text parser accepting the same grammar as {@link CfgPropsParboiled}.
+ * <p>
+ * Rules are matched directly on the text with ordered choice and backtracking as in the Parboiled grammar, so valid
+ * texts give the same key-value pairs. The only allocations are the parsed elements and their texts.
+ * <p>
+ * Syntax errors are reported at the farthest position a rule failed to match, with messages in the Parboiled format.
+ * Instead of the Parboiled error recovery strategies, parsing resumes at the end of the line in error and key-value
+ * pairs on that line after the error are dropped.
+ *
+ * @author Alessandro Falappa
+ */
+public final class RecursiveDescentTextParser implements CfgPropsTextParser {
+
+    private static final String LITERAL_SYMBOLS = "(){}-+*/^|;,`°§<>\"'%&@?";
+    private static final String VALUE_SYMBOLS = "=:[].";
+    private static final String SPECIAL_ESCAPES = " \\=:#!nt";
+    private String text;
+    private int len;
+    // farthest position where a rule failed to match while parsing the current item, and what was expected there
+    private int failIdx;
+    private String failExpected;
+
+    @Override
+    public CfgFile parse(String text, List<CfgSyntaxError> errors) {
+        this.text = text;
+        this.len = text.length();
+        final CfgFile ret = new CfgFile();
+        try {
+            int idx = 0;
+            while (idx < len) {
+                failIdx = -1;
+                int next = kvPair(idx, ret);
+                if (next < 0) {
+                    next = comment(idx);
+                }
+                if (next < 0) {
+                    next = whitespace(idx);
+                }
+                if (next < 0) {
+                    next = eol(idx);
+                }
+                if (next < 0) {
+                    fail(idx, "kvPair, comment, whitespace, eolChar or EOI");
+                    errors.add(new CfgSyntaxError(failIdx, Math.min(failIdx + 1, len), errorMessage()));
+                    // resume at the end of the line
+                    next = failIdx;
+                    while (next < len && !isEol(text.charAt(next))) {
+                        next++;
+                    }
+                }
+                idx = next;
+            }
+        } finally {
+            this.text = null;
+        }
+        return ret;
+    }
+
+    private int kvPair(int start, CfgFile cfgFile) {
+        final int keyEnd = key(start);
+        if (keyEnd < 0) {
+            return -1;
+        }
+        final int idx = skipWhitespace(keyEnd);
+        if (idx < len && (text.charAt(idx) == '=' || text.charAt(idx) == ':')) {
+            final int valStart = skipWhitespace(idx + 1);
+            final int valEnd = value(valStart);
+            cfgFile.getElements().add(new PairElement(new KeyElement(start, keyEnd, text.substring(start, keyEnd)),
+                    new ValueElement(valStart, valEnd, text.substring(valStart, valEnd))));
+            return valEnd;
+        }
+        final int end = idx < len ? eol(idx) : len;
+        if (end < 0) {
+            fail(idx, idx > keyEnd ? "separator, eolChar or EOI" : "whitespace, separator, eolChar or EOI");
+            return -1;
+        }
+        cfgFile.getElements().add(new PairElement(new KeyElement(start, keyEnd, text.substring(start, keyEnd))));
+        return end;
+    }
+
+    private int key(int start) {
+        int idx = literal(start);
+        if (idx < 0) {
+            return -1;
+        }
+        while (idx < len && text.charAt(idx) == '.') {
+            final int next = literal(idx + 1);
+            if (next < 0) {
+                break;
+            }
+            idx = next;
+        }
+        if (idx < len && text.charAt(idx) == '[') {
+            final int next = literal(idx + 1);
+            if (next >= 0) {
+                if (next < len && text.charAt(next) == ']') {
+                    idx = next + 1;
+                } else {
+                    fail(next, "']'");
+                }
+            }
+        }
+        return idx;
+    }
+
+    private int literal(int start) {
+        int idx = start;
+        while (idx < len) {
+            final char c = text.charAt(idx);
+            if (Character.isJavaIdentifierPart(c) || LITERAL_SYMBOLS.indexOf(c) >= 0) {
+                idx++;
+            } else if (c == '\\') {
+                final int next = escape(idx, false);
+                if (next < 0) {
+                    break;
+                }
+                idx = next;
+            } else {
+                break;
+            }
+        }
+        if (idx == start) {
+            fail(start, "literal");
+            return -1;
+        }
+        return idx;
+    }
+
+    private int value(int start) {
+        int idx = start;
+        while (idx < len) {
+            final char c = text.charAt(idx);
+            if (Character.isJavaIdentifierPart(c) || isWhitespace(c) || VALUE_SYMBOLS.indexOf(c) >= 0
+                    || LITERAL_SYMBOLS.indexOf(c) >= 0) {
+                idx++;
+            } else if (c == '\\') {
+                final int eolEnd = eol(idx + 1);
+                if (eolEnd >= 0) {
+                    // value continues on the next line after its leading whitespace, with whatever char comes first
+                    final int next = skipWhitespace(eolEnd);
+                    if (next >= len || isEol(text.charAt(next))) {
+                        break;
+                    }
+                    idx = next + 1;
+                } else {
+                    final int next = escape(idx, true);
+                    if (next < 0) {
+                        break;
+                    }
+                    idx = next;
+                }
+            } else {
+                break;
+            }
+        }
+        return idx;
+    }
+
+    // end of the escape sequence starting with the backslash at the given position, -1 if not an accepted one
+    private int escape(int idx, boolean allowMalformed) {
+        if (idx + 1 >= len) {
+            return -1;
+        }
+        final char c = text.charAt(idx + 1);
+        if (SPECIAL_ESCAPES.indexOf(c) >= 0) {
+            return idx + 2;
+        }
+        if (c == 'u') {
+            for (int i = idx + 2; i < idx + 6; i++) {
+                if (i >= len || !isHexDigit(text.charAt(i))) {
+                    fail(i, "hexDigit");
+                    return -1;
+                }
+            }
+            return idx + 6;
+        }
+        if (allowMalformed && !isWhitespace(c) && !isEol(c)) {
+            return idx + 2;
+        }
+        return -1;
+    }
+
+    private int comment(int idx) {
+        if (text.charAt(idx) != '#' && text.charAt(idx) != '!') {
+            return -1;
+        }
+        idx++;
+        while (idx < len && !isEol(text.charAt(idx))) {
+            idx++;
+        }
+        return idx;
+    }
+
+    private int whitespace(int idx) {
+        final int end = skipWhitespace(idx);
+        return end > idx ? end : -1;
+    }
+
+    private int skipWhitespace(int idx) {
+        while (idx < len && isWhitespace(text.charAt(idx))) {
+            idx++;
+        }
+        return idx;
+    }
+
+    private int eol(int idx) {
+        if (idx >= len) {
+            return -1;
+        }
+        final char c = text.charAt(idx);
+        if (c == '\r') {
+            return idx + 1 < len && text.charAt(idx + 1) == '\n' ? idx + 2 : idx + 1;
+        }
+        return c == '\n' ? idx + 1 : -1;
+    }
+
+    private void fail(int idx, String expected) {
+        if (idx > failIdx) {
+            failIdx = idx;
+            failExpected = expected;
+        }
+    }
+
+    private String errorMessage() {
+        StringBuilder sb = new StringBuilder();
+        if (failIdx >= len) {
+            sb.append("Unexpected end of input");
+        } else {
+            sb.append("Invalid input '");
+            final char c = text.charAt(failIdx);
+            switch (c) {
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                default:
+                    sb.append(c);
+            }
+            sb.append('\'');
+        }
+        return sb.append(", expected ").append(failExpected).toString();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+    private static boolean isEol(char c) {
+        return c == '\n' || c == '\r';
+    }
+}
@@ -87,6 +87,7 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
         cbDeprecated = new javax.swing.JComboBox<>();
         lCompletion = new javax.swing.JLabel();
         chArrayNotation = new javax.swing.JCheckBox();
+        chFastParser = new javax.swing.JCheckBox();
 
         org.openide.awt.Mnemonics.setLocalizedText(lInitializr, org.openide.util.NbBundle.getMessage(BootPrefsPanel.class, "BootPrefsPanel.lInitializr.text")); // NOI18N
 
@@ -144,6 +145,8 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
 
         org.openide.awt.Mnemonics.setLocalizedText(chArrayNotation, org.openide.util.NbBundle.getMessage(BootPrefsPanel.class, "BootPrefsPanel.chArrayNotation.text")); // NOI18N
 
+        org.openide.awt.Mnemonics.setLocalizedText(chFastParser, org.openide.util.NbBundle.getMessage(BootPrefsPanel.class, "BootPrefsPanel.chFastParser.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -196,6 +199,7 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
                                             .addComponent(chDeprErrorShow)
                                             .addComponent(lCompletion)
                                             .addComponent(chArrayNotation)
+                                            .addComponent(chFastParser)
                                             .addComponent(chDeprSortLast))
                                         .addGap(18, 18, 18)
                                         .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
@@ -282,7 +286,8 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                     .addComponent(lDeprecated)
-                    .addComponent(cbDeprecated, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addComponent(cbDeprecated, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(chFastParser))
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -299,6 +304,7 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
         chDeprSortLast.setSelected(prefs.getBoolean(PrefConstants.PREF_DEPR_SORT_LAST, true));
         chDeprErrorShow.setSelected(prefs.getBoolean(PrefConstants.PREF_DEPR_ERROR_SHOW, true));
         chArrayNotation.setSelected(prefs.getBoolean(PrefConstants.PREF_ARRAY_NOTATION, false));
+        chFastParser.setSelected(prefs.getBoolean(PrefConstants.PREF_FAST_PARSER, false));
         cbDtMismatch.setSelectedIndex(prefs.getInt(PrefConstants.PREF_HLIGHT_LEV_DTMISMATCH, 2));
         cbDupl.setSelectedIndex(prefs.getInt(PrefConstants.PREF_HLIGHT_LEV_DUPLICATES, 1));
         cbSynErr.setSelectedIndex(prefs.getInt(PrefConstants.PREF_HLIGHT_LEV_SYNERR, 2));
@@ -314,6 +320,7 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
         chVmOptsLaunch.addActionListener(this);
         chDeprSortLast.addActionListener(this);
         chDeprErrorShow.addActionListener(this);
+        chFastParser.addActionListener(this);
         cbDtMismatch.addActionListener(this);
         cbDupl.addActionListener(this);
         cbSynErr.addActionListener(this);
@@ -333,6 +340,7 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
         prefs.putBoolean(PrefConstants.PREF_DEPR_SORT_LAST, chDeprSortLast.isSelected());
         prefs.putBoolean(PrefConstants.PREF_DEPR_ERROR_SHOW, chDeprErrorShow.isSelected());
         prefs.putBoolean(PrefConstants.PREF_ARRAY_NOTATION, chArrayNotation.isSelected());
+        prefs.putBoolean(PrefConstants.PREF_FAST_PARSER, chFastParser.isSelected());
         prefs.putInt(PrefConstants.PREF_HLIGHT_LEV_DTMISMATCH, cbDtMismatch.getSelectedIndex());
         prefs.putInt(PrefConstants.PREF_HLIGHT_LEV_DUPLICATES, cbDupl.getSelectedIndex());
         prefs.putInt(PrefConstants.PREF_HLIGHT_LEV_SYNERR, cbSynErr.getSelectedIndex());
@@ -363,6 +371,7 @@ final class BootPrefsPanel extends javax.swing.JPanel implements DocumentListene
     private javax.swing.JCheckBox chDeprErrorShow;
     private javax.swing.JCheckBox chDeprSortLast;
     private javax.swing.JCheckBox chDevtoolsTrigger;
+    private javax.swing.JCheckBox chFastParser;
     private javax.swing.JCheckBox chVmOptsLaunch;
     private javax.swing.JLabel lCfgProps;
     private javax.swing.JLabel lCompletion;
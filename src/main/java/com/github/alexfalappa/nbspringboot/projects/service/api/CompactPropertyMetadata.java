@@ -0,0 +1,251 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.api;
+
+import java.text.BreakIterator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+import org.springframework.boot.configurationmetadata.Hints;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.boot.configurationmetadata.ValueProvider;
+
+/**
+ * Compact and immutable representation of the metadata of a configuration property.
+ * <p>
+ * Holds the property id, the start of its group relative name in the id, the interned type, the parsed type, the default
+ * value and the deprecation. Descriptions can be held or loaded on demand from a source shared by the properties of a
+ * metadata file. The short description is computed when asked for and hints are kept in arrays, properties without hints
+ * (the vast majority) share a single empty hints instance.
+ * <p>
+ * A full {@link ConfigurationMetadataProperty} can be materialized on demand, e.g. for documentation and hint providers.
+ *
+ * @author Alessandro Falappa
+ */
+public final class CompactPropertyMetadata {
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final CompactHints NO_HINTS = new CompactHints(new ValueHint[0], new ValueProvider[0], new ValueHint[0],
+            new ValueProvider[0]);
+    private final String id;
+    private final int nameStart;
+    private final String type;
+    private final String description;
+    private final Function<String, String> descriptions;
+    private final Object defaultValue;
+    private final Deprecation deprecation;
+    private final CompactHints hints;
+    private final PropertyType parsedType;
+
+    private CompactPropertyMetadata(String id, int nameStart, String type, String description,
+            Function<String, String> descriptions, Object defaultValue, Deprecation deprecation, CompactHints hints) {
+        this.id = id;
+        this.nameStart = nameStart;
+        this.type = type;
+        this.parsedType = PropertyType.of(type);
+        this.description = description;
+        this.descriptions = descriptions;
+        this.defaultValue = defaultValue;
+        this.deprecation = deprecation;
+        this.hints = hints;
+    }
+
+    /**
+     * Builds the compact representation of the given configuration property.
+     *
+     * @param prop the configuration property
+     * @return the compact representation
+     */
+    public static CompactPropertyMetadata of(ConfigurationMetadataProperty prop) {
+        return of(prop, intern(prop.getDescription()), null);
+    }
+
+    /**
+     * Builds the compact representation of the given configuration property, without holding its description.
+     * <p>
+     * The description is asked to the given source, by property id, each time it is needed.
+     *
+     * @param prop the configuration property
+     * @param descriptions the source of descriptions, usually shared by all properties of a metadata file
+     * @return the compact representation
+     */
+    public static CompactPropertyMetadata of(ConfigurationMetadataProperty prop, Function<String, String> descriptions) {
+        return of(prop, null, descriptions);
+    }
+
+    private static CompactPropertyMetadata of(ConfigurationMetadataProperty prop, String description,
+            Function<String, String> descriptions) {
+        final Hints propHints = prop.getHints();
+        CompactHints hints = NO_HINTS;
+        if (!propHints.getKeyHints().isEmpty() || !propHints.getKeyProviders().isEmpty()
+                || !propHints.getValueHints().isEmpty() || !propHints.getValueProviders().isEmpty()) {
+            hints = new CompactHints(toArray(propHints.getKeyHints(), NO_HINTS.keyHints),
+                    toArray(propHints.getKeyProviders(), NO_HINTS.keyProviders),
+                    toArray(propHints.getValueHints(), NO_HINTS.valueHints),
+                    toArray(propHints.getValueProviders(), NO_HINTS.valueProviders));
+        }
+        return new CompactPropertyMetadata(prop.getId(), nameStart(prop.getId(), prop.getName()), intern(prop.getType()),
+                description, descriptions, prop.getDefaultValue(), prop.getDeprecation(), hints);
+    }
+
+    // names are the id or a suffix of it when relative to a group
+    private static int nameStart(String id, String name) {
+        return name != null && id.endsWith(name) ? id.length() - name.length() : 0;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * The parsed data type, shared among properties of the same type.
+     *
+     * @return the parsed type or null if the property has no type
+     */
+    public PropertyType getParsedType() {
+        return parsedType;
+    }
+
+    /**
+     * The group relative name.
+     *
+     * @return the name, the same as the id if the property is not in a group
+     */
+    public String getName() {
+        return nameStart == 0 ? id : id.substring(nameStart);
+    }
+
+    public String getDescription() {
+        return descriptions != null ? descriptions.apply(id) : description;
+    }
+
+    public String getShortDescription() {
+        return shortDescription(getDescription());
+    }
+
+    public Object getDefaultValue() {
+        return defaultValue;
+    }
+
+    public Deprecation getDeprecation() {
+        return deprecation;
+    }
+
+    public boolean hasHints() {
+        return hints != NO_HINTS;
+    }
+
+    /**
+     * Tells if map keys of this property can be completed out of metadata.
+     *
+     * @return true if the property has key hints or key providers
+     */
+    public boolean hasKeyHints() {
+        return hints.keyHints.length > 0 || hints.keyProviders.length > 0;
+    }
+
+    /**
+     * Tells if values of this property can be completed out of metadata.
+     *
+     * @return true if the property has value hints or value providers
+     */
+    public boolean hasValueHints() {
+        return hints.valueHints.length > 0 || hints.valueProviders.length > 0;
+    }
+
+    /**
+     * Materializes a full configuration property out of this compact representation.
+     * <p>
+     * A new object is returned at each call.
+     *
+     * @return a new configuration property
+     */
+    public ConfigurationMetadataProperty toMetadataProperty() {
+        ConfigurationMetadataProperty prop = new ConfigurationMetadataProperty();
+        prop.setId(id);
+        prop.setName(getName());
+        prop.setType(type);
+        final String desc = getDescription();
+        prop.setDescription(desc);
+        prop.setShortDescription(shortDescription(desc));
+        prop.setDefaultValue(defaultValue);
+        prop.setDeprecation(deprecation);
+        if (hasHints()) {
+            final Hints propHints = prop.getHints();
+            propHints.getKeyHints().addAll(Arrays.asList(hints.keyHints));
+            propHints.getKeyProviders().addAll(Arrays.asList(hints.keyProviders));
+            propHints.getValueHints().addAll(Arrays.asList(hints.valueHints));
+            propHints.getValueProviders().addAll(Arrays.asList(hints.valueProviders));
+        }
+        return prop;
+    }
+
+    /**
+     * Extracts the short description out of a property description.
+     * <p>
+     * Same algorithm of the Spring Boot metadata JSON builder: the first sentence of the description, on a single line.
+     *
+     * @param description the full description, may be null
+     * @return the short description or null
+     */
+    public static String shortDescription(String description) {
+        if (description == null) {
+            return null;
+        }
+        if (description.indexOf('.') != -1) {
+            BreakIterator breakIterator = BreakIterator.getSentenceInstance(Locale.US);
+            breakIterator.setText(description);
+            String text = description.substring(breakIterator.first(), breakIterator.next()).trim();
+            StringBuilder sb = new StringBuilder();
+            for (String line : text.split(NEW_LINE)) {
+                sb.append(line.trim()).append(' ');
+            }
+            return sb.toString().trim();
+        }
+        return description.split(NEW_LINE)[0].trim();
+    }
+
+    private static <T> T[] toArray(List<T> list, T[] empty) {
+        return list.isEmpty() ? empty : list.toArray(Arrays.copyOf(empty, list.size()));
+    }
+
+    private static String intern(String str) {
+        return str != null ? str.intern() : null;
+    }
+
+    private static final class CompactHints {
+
+        private final ValueHint[] keyHints;
+        private final ValueProvider[] keyProviders;
+        private final ValueHint[] valueHints;
+        private final ValueProvider[] valueProviders;
+
+        CompactHints(ValueHint[] keyHints, ValueProvider[] keyProviders, ValueHint[] valueHints, ValueProvider[] valueProviders) {
+            this.keyHints = keyHints;
+            this.keyProviders = keyProviders;
+            this.valueHints = valueHints;
+            this.valueProviders = valueProviders;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.api;
+
+import java.util.Collection;
+
+import org.netbeans.spi.editor.completion.CompletionItem;
+
+/**
+ * Receives the completion items produced by a {@link HintProvider}.
+ * <p>
+ * Items can be emitted one at a time or in batches, as soon as they are available. Long running providers should check
+ * {@link #isCancelled()} periodically and return early when it answers true: the completion task has been cancelled or
+ * the provider ran out of its time budget, further items would be discarded anyway.
+ *
+ * @author Alessandro Falappa
+ */
+public interface HintCollector {
+
+    void addItem(CompletionItem item);
+
+    default void addAllItems(Collection<? extends CompletionItem> items) {
+        items.forEach(this::addItem);
+    }
+
+    boolean isCancelled();
+}
@@ -17,17 +17,30 @@ package com.github.alexfalappa.nbspringboot.projects.service.api;
 
 import java.util.Map;
 
-import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
 /**
  * Spring Boot key/value hints provider interface.
+ * <p>
+ * Providers stream completion items to a {@link HintCollector} and may be invoked on a background thread with a time
+ * budget, they should honour the collector cancellation.
  *
  * @author Alessandro Falappa
  */
 public interface HintProvider {
 
+    /**
+     * Provides hints emitting them to a collector, possibly in batches.
+     *
+     * @param params the provider parameters from metadata
+     * @param propMetadata the metadata of the property being completed
+     * @param filter the text typed so far, may be null
+     * @param isKey true when completing a map key, false when completing a value
+     * @param collector receives the completion items and tells if the provider should stop
+     * @param dotOffset document offset where the completed text starts
+     * @param caretOffset document offset of the caret
+     */
     void provide(Map<String, Object> params, ConfigurationMetadataProperty propMetadata, String filter, boolean isKey,
-            CompletionResultSet completionResultSet, int dotOffset, int caretOffset);
+            HintCollector collector, int dotOffset, int caretOffset);
 
 }
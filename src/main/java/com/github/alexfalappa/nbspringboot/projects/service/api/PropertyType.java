@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.api;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Parsed form of the data type of a configuration property as found in metadata.
+ * <p>
+ * A type string like {@code java.util.Map<java.lang.String,java.util.List<java.lang.Integer>>} is parsed once into raw
+ * type and type arguments: generic types with two arguments are considered maps (key and value type), the argument of
+ * generic types with one argument and the component type of arrays are the element type. Only arrays and lists, sets or
+ * collections are considered collections.
+ * <p>
+ * Instances are immutable apart from the class resolution cache and are shared by all properties with the same type.
+ *
+ * @author Alessandro Falappa
+ */
+public final class PropertyType {
+
+    private static final Map<String, PropertyType> cache = new ConcurrentHashMap<>();
+    private static final Resolution NONE = new Resolution(null, null);
+    private final String type;
+    private final String rawType;
+    private final String keyType;
+    private final String valueType;
+    private final String elementType;
+    private final boolean array;
+    private volatile Resolution resolution = NONE;
+
+    private PropertyType(String type) {
+        this.type = type;
+        String raw = type;
+        String key = null;
+        String value = null;
+        String element = null;
+        final boolean isArray = type.endsWith("[]");
+        final int ltIdx = type.indexOf('<');
+        if (isArray) {
+            raw = type.substring(0, type.length() - 2);
+            element = raw;
+        } else if (ltIdx > 0 && type.endsWith(">")) {
+            raw = type.substring(0, ltIdx);
+            List<String> args = splitTypeArgs(type.substring(ltIdx + 1, type.length() - 1));
+            if (args.size() == 2) {
+                key = args.get(0);
+                value = args.get(1);
+            } else if (args.size() == 1) {
+                element = args.get(0);
+            }
+        }
+        this.rawType = raw;
+        this.keyType = key;
+        this.valueType = value;
+        this.elementType = element;
+        this.array = isArray;
+    }
+
+    /**
+     * Retrieves the parsed form of a type string.
+     *
+     * @param type the type string as found in metadata
+     * @return the shared parsed type or null if the type string is null
+     */
+    public static PropertyType of(String type) {
+        if (type == null) {
+            return null;
+        }
+        return cache.computeIfAbsent(type.trim(), PropertyType::new);
+    }
+
+    /**
+     * The full type string.
+     *
+     * @return the type string
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * The type without type arguments or array brackets.
+     *
+     * @return the raw type
+     */
+    public String getRawType() {
+        return rawType;
+    }
+
+    /**
+     * The type of keys of a map type.
+     *
+     * @return the key type or null if not a map
+     */
+    public String getKeyType() {
+        return keyType;
+    }
+
+    /**
+     * The type of values of a map type.
+     *
+     * @return the value type or null if not a map
+     */
+    public String getValueType() {
+        return valueType;
+    }
+
+    /**
+     * The type argument of a generic type with one argument or the component type of an array type.
+     *
+     * @return the element type or null if neither a generic type with one argument nor an array
+     */
+    public String getElementType() {
+        return elementType;
+    }
+
+    public boolean isArray() {
+        return array;
+    }
+
+    public boolean isMap() {
+        return keyType != null;
+    }
+
+    /**
+     * Tells if values of this type are comma separated lists of elements.
+     *
+     * @return true for arrays and for lists, sets and collections with a type argument
+     */
+    public boolean isCollection() {
+        return array || (elementType != null
+                && (rawType.endsWith("List") || rawType.endsWith("Set") || rawType.equals("java.util.Collection")));
+    }
+
+    public boolean isGeneric() {
+        return keyType != null || (elementType != null && !array);
+    }
+
+    /**
+     * Resolves the type, if not generic, to a class.
+     * <p>
+     * JDK types are resolved first, then the given class loader is used. The result of the last resolution is cached
+     * together with the class loader it was obtained from.
+     *
+     * @param cl the class loader of the project classpath
+     * @return the resolved class or null if generic or not resolvable
+     */
+    public Class<?> resolve(ClassLoader cl) {
+        if (isGeneric() || array) {
+            return null;
+        }
+        final Resolution last = resolution;
+        if (last.loader.get() == cl && cl != null) {
+            final Class<?> cached = last.clazz.get();
+            // resolve again if the class got collected
+            if (cached != null || !last.found) {
+                return cached;
+            }
+        }
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(type);
+        } catch (ClassNotFoundException ex) {
+            try {
+                clazz = ClassUtils.resolveClassName(type, cl);
+            } catch (IllegalArgumentException | LinkageError ex2) {
+                clazz = null;
+            }
+        }
+        resolution = new Resolution(cl, clazz);
+        return clazz;
+    }
+
+    // split type arguments at top level commas
+    private static List<String> splitTypeArgs(String args) {
+        List<String> ret = new ArrayList<>(2);
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < args.length(); i++) {
+            final char c = args.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                ret.add(args.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        ret.add(args.substring(start).trim());
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return type;
+    }
+
+    // class loader and class it resolved the type to, weakly referenced not to pin project class loaders
+    private static final class Resolution {
+
+        private final WeakReference<ClassLoader> loader;
+        private final WeakReference<Class<?>> clazz;
+        private final boolean found;
+
+        Resolution(ClassLoader loader, Class<?> clazz) {
+            this.loader = new WeakReference<>(loader);
+            this.clazz = new WeakReference<>(clazz);
+            this.found = clazz != null;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package com.github.alexfalappa.nbspringboot.projects.service.api;
 import java.util.List;
 import java.util.Set;
 
+import javax.swing.event.ChangeListener;
+
 import org.netbeans.api.java.classpath.ClassPath;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
@@ -33,6 +35,24 @@ public interface SpringBootService {
 
     void refresh();
 
+    /**
+     * Tells if configuration metadata has been loaded.
+     * <p>
+     * Metadata is loaded in background, until then property related queries return empty results.
+     *
+     * @return true if metadata is available
+     */
+    boolean isMetadataReady();
+
+    /**
+     * Registers a listener notified when new configuration metadata is published.
+     *
+     * @param listener the listener to add
+     */
+    void addChangeListener(ChangeListener listener);
+
+    void removeChangeListener(ChangeListener listener);
+
     ClassPath getManagedClassPath();
 
     Set<String> getPropertyNames();
@@ -41,10 +61,53 @@ public interface SpringBootService {
 
     Set<String> getMapPropertyNames();
 
+    /**
+     * Computes the length of the longest map property name prefixing a name denoting a map key.
+     * <p>
+     * For example {@code logging.level} prefixes {@code logging.level.org.springframework}. Relaxed names are supported.
+     *
+     * @param name the name as written in a configuration file
+     * @return the length of the map property prefix in the given name or 0 if no map property prefixes the name
+     */
+    int getMapPropertyPrefixLength(String name);
+
     ConfigurationMetadataProperty getPropertyMetadata(String propertyName);
 
+    /**
+     * Retrieves the compact metadata of a configuration property.
+     * <p>
+     * Cheaper than {@link #getPropertyMetadata(java.lang.String)} as no full metadata object is materialized.
+     *
+     * @param propertyName the property name
+     * @return the compact metadata or null if unknown
+     */
+    CompactPropertyMetadata getCompactPropertyMetadata(String propertyName);
+
     List<ConfigurationMetadataProperty> queryPropertyMetadata(String filter);
 
+    /**
+     * Retrieves the compact metadata of the configuration properties containing a filter.
+     * <p>
+     * Cheaper than {@link #queryPropertyMetadata(java.lang.String)} as no full metadata object is materialized and no
+     * description is loaded.
+     *
+     * @param filter the filter string, null or empty to retrieve all properties
+     * @return the matching properties in alphabetical order
+     */
+    List<CompactPropertyMetadata> queryCompactPropertyMetadata(String filter);
+
+    /**
+     * Retrieves the compact metadata of the configuration properties best matching a filter.
+     * <p>
+     * The filter is matched segment by segment against dot separated property names, e.g. {@code s.d.url} matches
+     * {@code spring.datasource.url}, and results are ordered by decreasing relevance.
+     *
+     * @param filter the filter string
+     * @param maxResults the maximum number of properties to retrieve
+     * @return the best matching properties, most relevant first
+     */
+    List<CompactPropertyMetadata> queryRankedCompactPropertyMetadata(String filter, int maxResults);
+
     HintProvider getHintProvider(String name);
 
     boolean hasPomDependency(String artifactId);
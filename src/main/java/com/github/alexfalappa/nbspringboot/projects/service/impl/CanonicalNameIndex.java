@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Immutable index of configuration properties keyed by canonical name.
+ * <p>
+ * The canonical form of a name is lower case without dashes and underscores, so that relaxed variants of a name (dashed,
+ * camel case, underscored, upper case) all map to the same key. Lookups of names written in the same form of the metadata
+ * are answered without any allocation, other forms cost a single canonicalization and hash probe.
+ * <p>
+ * Also resolves names using array notation ({@code name[index]}) and keys of map properties ({@code map.key} or
+ * {@code map[key]}), the latter through a {@link MapPropertyTrie} yielding the longest map property prefixing the name.
+ *
+ * @author Alessandro Falappa
+ */
+public final class CanonicalNameIndex {
+
+    private final Map<String, CompactPropertyMetadata> properties;
+    private final Map<String, CompactPropertyMetadata> byCanonical = new HashMap<>();
+    private final MapPropertyTrie mapTrie;
+
+    /**
+     * Builds the index.
+     * <p>
+     * The given properties map is referenced, not copied: it must not be modified afterwards.
+     *
+     * @param properties the configuration properties keyed by name
+     * @param mapPropertyNames names of the properties of map type
+     */
+    public CanonicalNameIndex(Map<String, CompactPropertyMetadata> properties, Set<String> mapPropertyNames) {
+        this.properties = properties;
+        for (Map.Entry<String, CompactPropertyMetadata> entry : properties.entrySet()) {
+            byCanonical.putIfAbsent(canonicalize(entry.getKey()), entry.getValue());
+        }
+        Map<String, CompactPropertyMetadata> mapProperties = new HashMap<>();
+        for (String mapName : mapPropertyNames) {
+            final CompactPropertyMetadata prop = properties.get(mapName);
+            if (prop != null) {
+                mapProperties.put(mapName, prop);
+            }
+        }
+        this.mapTrie = new MapPropertyTrie(mapProperties);
+    }
+
+    /**
+     * Converts a configuration property name to canonical form.
+     * <p>
+     * Converts to lower case and strips dashes and underscores.
+     *
+     * @param name the name to convert
+     * @return the canonical name
+     */
+    public static String canonicalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c != '-' && c != '_') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Looks up the metadata of a configuration property.
+     *
+     * @param name the property name as written in a configuration file
+     * @return the property metadata or null if unknown
+     */
+    public CompactPropertyMetadata lookup(String name) {
+        // names written exactly as in metadata are the most common case
+        CompactPropertyMetadata prop = properties.get(name);
+        if (prop != null) {
+            return prop;
+        }
+        prop = lookupCanonical(canonicalize(name));
+        // environment variable style names use underscores as separators
+        if (prop == null && name.indexOf('_') >= 0) {
+            prop = lookupCanonical(canonicalize(name.replace('_', '.')));
+        }
+        return prop;
+    }
+
+    /**
+     * Computes the length of the longest map property name prefixing a name denoting a map key.
+     *
+     * @param name the name as written in a configuration file
+     * @return the length of the map property prefix in the given name or 0 if none
+     */
+    public int mapPropertyPrefixLength(String name) {
+        return mapTrie.prefixLength(name);
+    }
+
+    private CompactPropertyMetadata lookupCanonical(String canonical) {
+        CompactPropertyMetadata prop = byCanonical.get(canonical);
+        if (prop != null) {
+            return prop;
+        }
+        // array notation: strip trailing '[index]'
+        final int idxOpen = arrayIndexStart(canonical);
+        if (idxOpen > 0) {
+            prop = byCanonical.get(canonical.substring(0, idxOpen));
+            if (prop != null) {
+                return prop;
+            }
+        }
+        // map notation: longest prefix ending at a segment boundary naming a map property
+        return mapTrie.longestPrefix(canonical);
+    }
+
+    // index of '[' if the name ends with '[digits]', -1 otherwise
+    private static int arrayIndexStart(String name) {
+        final int len = name.length();
+        if (len < 3 || name.charAt(len - 1) != ']') {
+            return -1;
+        }
+        int i = len - 2;
+        while (i > 0 && Character.isDigit(name.charAt(i))) {
+            i--;
+        }
+        return (i < len - 2 && name.charAt(i) == '[') ? i : -1;
+    }
+}
@@ -15,46 +15,35 @@
  */
 package com.github.alexfalappa.nbspringboot.projects.service.impl;
 
-import java.lang.reflect.Modifier;
-import java.util.Collections;
-import java.util.EnumSet;
 import java.util.Map;
-import java.util.Set;
-
-import javax.lang.model.element.ElementKind;
-import javax.lang.model.element.TypeElement;
 
 import org.netbeans.api.java.classpath.ClassPath;
-import org.netbeans.api.java.source.ClassIndex;
 import org.netbeans.api.java.source.ClasspathInfo;
-import org.netbeans.api.java.source.ElementHandle;
-import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.openide.filesystems.FileObject;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.JavaTypeCompletionItem;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintCollector;
 import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
 
 /**
  * Implementation of {@link HintProvider} for class references.
+ * <p>
+ * Candidate classes of each target type are cached in an {@link ImplementorsCache}, no class is loaded during completion.
  *
  * @author Alessandro Falappa
  */
 public class ClassReferenceHintProvider implements HintProvider {
 
-    private static final EnumSet<ClassIndex.SearchScope> SEARCH_SCOPE = EnumSet.allOf(ClassIndex.SearchScope.class);
-    private final Set<ClassIndex.SearchKind> searchKind = Collections.singleton(ClassIndex.SearchKind.IMPLEMENTORS);
-    private final ClassIndex classIndex;
-    private final ClassPath cpExec;
+    private final ImplementorsCache implementors;
 
     public ClassReferenceHintProvider(FileObject referenceFolder, ClassPath cpExec) {
-        this.classIndex = ClasspathInfo.create(referenceFolder).getClassIndex();
-        this.cpExec = cpExec;
+        this.implementors = new ImplementorsCache(ClasspathInfo.create(referenceFolder).getClassIndex(), cpExec);
     }
 
     @Override
     public void provide(Map<String, Object> params, ConfigurationMetadataProperty propMetadata, String filter, boolean isKey,
-            CompletionResultSet completionResultSet, int dotOffset, int caretOffset) {
+            HintCollector collector, int dotOffset, int caretOffset) {
         if (filter == null) {
             filter = "";
         }
@@ -66,35 +55,18 @@ public class ClassReferenceHintProvider implements HintProvider {
         if (params.containsKey("concrete")) {
             concrete = Boolean.valueOf(params.get("concrete").toString());
         }
-        // search of classes extending class baseType
-        ElementHandle<TypeElement> element = ElementHandle.createTypeElementHandle(ElementKind.CLASS, baseType);
-        Set<ElementHandle<TypeElement>> elements = classIndex.getElements(element, searchKind, SEARCH_SCOPE);
-        populate(elements, filter, concrete, completionResultSet, dotOffset, caretOffset);
-        // search of classes implementing interface baseType
-        element = ElementHandle.createTypeElementHandle(ElementKind.INTERFACE, baseType);
-        elements = classIndex.getElements(element, searchKind, SEARCH_SCOPE);
-        populate(elements, filter, concrete, completionResultSet, dotOffset, caretOffset);
-    }
-
-    private void populate(Set<ElementHandle<TypeElement>> elements, String filter, boolean concrete,
-            CompletionResultSet completionResultSet, int dotOffset, int caretOffset) throws IllegalStateException {
-        final ClassLoader classLoader = cpExec.getClassLoader(true);
+        // classes extending class baseType or implementing interface baseType
         String filterLowcase = filter.toLowerCase();
-        elements.forEach(handle -> {
-            final String binaryName = handle.getBinaryName();
-            if (binaryName.toLowerCase().contains(filterLowcase)) {
-                try {
-                    Class<?> loadedClass = classLoader.loadClass(binaryName);
-                    boolean isAbstract = Modifier.isAbstract(loadedClass.getModifiers());
-                    if (concrete ^ isAbstract) {
-                        completionResultSet.addItem(new JavaTypeCompletionItem(binaryName, handle.getKind(), dotOffset,
-                                caretOffset));
-                    }
-                } catch (ClassNotFoundException ex) {
-                    // ignore unloadable classes
-                }
+        for (ImplementorsCache.Candidate candidate : implementors.getImplementors(baseType)) {
+            if (collector.isCancelled()) {
+                return;
             }
-        });
+            final String binaryName = candidate.getBinaryName();
+            if (concrete ^ candidate.isAbstract() && binaryName.toLowerCase().contains(filterLowcase)) {
+                collector.addItem(new JavaTypeCompletionItem(binaryName, candidate.getKind(), dotOffset,
+                        caretOffset));
+            }
+        }
     }
 
 }
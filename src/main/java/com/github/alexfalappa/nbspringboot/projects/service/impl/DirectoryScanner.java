@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Bounded and cancellable scanner of file system directories, backed by a short-lived cache of directory listings.
+ * <p>
+ * Only entry names are read while listing a directory, no file attributes are fetched. Listings are capped at
+ * {@link #MAX_ENTRIES} names and kept for a few seconds, so that completion invoked again while typing in the same
+ * directory does not hit the file system. Listings interrupted by cancellation are not cached.
+ *
+ * @author Alessandro Falappa
+ */
+public final class DirectoryScanner {
+
+    /** Maximum number of matching names returned by a scan. */
+    public static final int MAX_RESULTS = 200;
+    /** Maximum number of names read from a directory. */
+    public static final int MAX_ENTRIES = 20_000;
+    private static final Logger logger = Logger.getLogger(DirectoryScanner.class.getName());
+    private static final long TTL_MILLIS = 5_000;
+    private static final int MAX_CACHED_DIRS = 16;
+    private static final Map<Path, Listing> cache = new LinkedHashMap<Path, Listing>(MAX_CACHED_DIRS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Listing> eldest) {
+            return size() > MAX_CACHED_DIRS;
+        }
+    };
+
+    // prevent instantiation
+    private DirectoryScanner() {
+    }
+
+    /**
+     * Retrieves the names of the entries of a directory containing a filter string, ignoring case.
+     *
+     * @param dir the directory
+     * @param filter the filter string, empty for all entries
+     * @param cancelled tells if the scan has to be abandoned
+     * @return the sorted matching names, at most {@link #MAX_RESULTS}, empty if cancelled or the directory cannot be read
+     */
+    public static List<String> scan(Path dir, String filter, BooleanSupplier cancelled) {
+        final Listing listing = listing(dir.toAbsolutePath(), cancelled);
+        if (listing == null) {
+            return new ArrayList<>();
+        }
+        final String filterLowcase = filter.toLowerCase();
+        List<String> ret = new ArrayList<>();
+        for (String name : listing.names) {
+            if (ret.size() >= MAX_RESULTS || cancelled.getAsBoolean()) {
+                break;
+            }
+            if (name.toLowerCase().contains(filterLowcase)) {
+                ret.add(name);
+            }
+        }
+        return ret;
+    }
+
+    private static Listing listing(Path dir, BooleanSupplier cancelled) {
+        final long now = System.currentTimeMillis();
+        synchronized (cache) {
+            final Listing cached = cache.get(dir);
+            if (cached != null && now - cached.timestamp < TTL_MILLIS) {
+                return cached;
+            }
+        }
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path p : stream) {
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+                if (names.size() >= MAX_ENTRIES) {
+                    logger.log(FINE, "Listing of {0} truncated at {1} entries", new Object[]{dir, MAX_ENTRIES});
+                    break;
+                }
+                names.add(p.getFileName().toString());
+            }
+        } catch (IOException ex) {
+            logger.log(FINE, "Cannot list directory " + dir, ex);
+            return null;
+        }
+        final String[] sorted = names.toArray(new String[names.size()]);
+        Arrays.sort(sorted, String.CASE_INSENSITIVE_ORDER);
+        final Listing ret = new Listing(sorted, System.currentTimeMillis());
+        logger.log(FINE, "Listed {0} entries of {1} in {2} msecs", new Object[]{sorted.length, dir, ret.timestamp - now});
+        synchronized (cache) {
+            cache.put(dir, ret);
+        }
+        return ret;
+    }
+
+    private static final class Listing {
+
+        private final String[] names;
+        private final long timestamp;
+
+        Listing(String[] names, long timestamp) {
+            this.names = names;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.netbeans.api.java.classpath.ClassPath;
+import org.openide.util.WeakListeners;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Per classpath cache of the constants of enum types.
+ * <p>
+ * Types are resolved through the classpath class loader only on the first request, types that are not enums or that cannot
+ * be loaded are remembered as negative entries. The cache is cleared when the classpath roots or entries change.
+ *
+ * @author Alessandro Falappa
+ */
+public final class EnumConstantsCache {
+
+    private static final Logger logger = Logger.getLogger(EnumConstantsCache.class.getName());
+    private static final Map<ClassPath, EnumConstantsCache> caches = new WeakHashMap<>();
+    private final WeakReference<ClassPath> cpRef;
+    private final Map<String, List<String>> constants = new ConcurrentHashMap<>();
+    private final PropertyChangeListener cpListener = this::classpathChanged;
+
+    private EnumConstantsCache(ClassPath cp) {
+        this.cpRef = new WeakReference<>(cp);
+        cp.addPropertyChangeListener(WeakListeners.propertyChange(cpListener, cp));
+    }
+
+    /**
+     * Retrieves the cache of the given classpath.
+     *
+     * @param cp the classpath
+     * @return the cache
+     */
+    public static EnumConstantsCache forClassPath(ClassPath cp) {
+        synchronized (caches) {
+            return caches.computeIfAbsent(cp, EnumConstantsCache::new);
+        }
+    }
+
+    /**
+     * Retrieves the names of the constants of an enum type, in lower case.
+     *
+     * @param typeName the fully qualified binary name of the type
+     * @return the constant names in declaration order, an empty list if the type is not an enum or is not on the classpath
+     */
+    public List<String> getConstants(String typeName) {
+        if (typeName == null || typeName.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return constants.computeIfAbsent(typeName, this::resolve);
+    }
+
+    private List<String> resolve(String typeName) {
+        // generic, array and primitive types are never enums
+        if (typeName.indexOf('<') >= 0 || typeName.indexOf('[') >= 0 || typeName.indexOf('.') < 0) {
+            return Collections.emptyList();
+        }
+        final ClassPath cp = cpRef.get();
+        if (cp == null) {
+            return Collections.emptyList();
+        }
+        try {
+            Object[] enumvals = cp.getClassLoader(true).loadClass(typeName).getEnumConstants();
+            if (enumvals != null) {
+                String[] names = new String[enumvals.length];
+                for (int i = 0; i < enumvals.length; i++) {
+                    names[i] = enumvals[i].toString().toLowerCase();
+                }
+                return Collections.unmodifiableList(Arrays.asList(names));
+            }
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // type not available in project classpath
+        }
+        return Collections.emptyList();
+    }
+
+    private void classpathChanged(PropertyChangeEvent evt) {
+        if (ClassPath.PROP_ROOTS.equals(evt.getPropertyName()) || ClassPath.PROP_ENTRIES.equals(evt.getPropertyName())) {
+            logger.log(FINE, "Classpath changed, clearing {0} cached enum types", constants.size());
+            constants.clear();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+/**
+ * Scores canonical configuration property names against a filter, segment by segment.
+ * <p>
+ * The filter is split at dots and each filter segment must match, in order, a distinct dot separated segment of the name:
+ * either exactly, as a prefix or as a substring. So {@code s.d.url} matches {@code spring.datasource.url} and plain
+ * substrings of a name still match. Exact and prefix matches, consecutive segments and shorter names score higher.
+ * <p>
+ * Scoring does not allocate: names are given together with the start offsets of their segments.
+ *
+ * @author Alessandro Falappa
+ */
+public final class FuzzyNameMatcher {
+
+    /** Score of names not matching the filter. */
+    public static final int NO_MATCH = Integer.MIN_VALUE;
+    private final String[] segments;
+
+    /**
+     * Prepares a matcher for the given filter.
+     *
+     * @param filter the filter string, converted to canonical form
+     */
+    public FuzzyNameMatcher(String filter) {
+        this.segments = CanonicalNameIndex.canonicalize(filter).split("\\.", -1);
+    }
+
+    /**
+     * The canonical filter segments.
+     *
+     * @return the segments, the last one may be empty if the filter ends with a dot
+     */
+    public String[] getSegments() {
+        return segments;
+    }
+
+    /**
+     * Scores a canonical name.
+     *
+     * @param canonName the canonical name
+     * @return the score or {@link #NO_MATCH}
+     */
+    public int score(String canonName) {
+        final int[] starts = segmentStarts(canonName);
+        return score(canonName, starts, 0, starts.length);
+    }
+
+    /**
+     * Scores a canonical name whose segment start offsets are stored in a shared array.
+     *
+     * @param canonName the canonical name
+     * @param segStarts the array holding segment start offsets
+     * @param from index in the array of the first segment of the name
+     * @param to index in the array past the last segment of the name
+     * @return the score or {@link #NO_MATCH}
+     */
+    public int score(String canonName, int[] segStarts, int from, int to) {
+        int score = 0;
+        int next = from;
+        int prevMatched = -1;
+        for (String fs : segments) {
+            int found = -1;
+            int kind = 0;
+            // earliest matching segment, keeps room for the following filter segments
+            for (int j = next; j < to && found < 0; j++) {
+                final int start = segStarts[j];
+                final int end = j + 1 < to ? segStarts[j + 1] - 1 : canonName.length();
+                kind = matchKind(canonName, start, end, fs);
+                if (kind > 0) {
+                    found = j;
+                }
+            }
+            if (found < 0) {
+                return NO_MATCH;
+            }
+            score += kind * 10 + fs.length();
+            if (prevMatched >= 0) {
+                // skipped segments between matches
+                score -= 4 * (found - prevMatched - 1);
+            } else {
+                // skipped leading segments
+                score -= 2 * (found - from);
+            }
+            prevMatched = found;
+            next = found + 1;
+        }
+        // unmatched trailing segments
+        return score - (to - next);
+    }
+
+    /**
+     * Computes the start offsets of the dot separated segments of a name.
+     *
+     * @param name the name
+     * @return the segment start offsets
+     */
+    public static int[] segmentStarts(String name) {
+        int count = 1;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) == '.') {
+                count++;
+            }
+        }
+        int[] starts = new int[count];
+        int seg = 1;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) == '.') {
+                starts[seg++] = i + 1;
+            }
+        }
+        return starts;
+    }
+
+    // 3 exact match, 2 prefix match, 1 substring match, 0 no match
+    private static int matchKind(String name, int start, int end, String fs) {
+        final int len = fs.length();
+        final int segLen = end - start;
+        if (len > segLen) {
+            return 0;
+        }
+        if (name.regionMatches(start, fs, 0, len)) {
+            return len == segLen ? 3 : 2;
+        }
+        for (int p = start + 1; p <= end - len; p++) {
+            if (name.regionMatches(p, fs, 0, len)) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+}
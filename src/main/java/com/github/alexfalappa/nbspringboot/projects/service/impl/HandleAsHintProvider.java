@@ -18,12 +18,12 @@ package com.github.alexfalappa.nbspringboot.projects.service.impl;
 import java.util.Map;
 
 import org.netbeans.api.java.classpath.ClassPath;
-import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.openide.filesystems.FileObject;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
 import com.github.alexfalappa.nbspringboot.Utils;
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.ValueCompletionItem;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintCollector;
 import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
 
 /**
@@ -43,7 +43,7 @@ public class HandleAsHintProvider implements HintProvider {
 
     @Override
     public void provide(Map<String, Object> params, ConfigurationMetadataProperty propMetadata, String filter, boolean isKey,
-            CompletionResultSet completionResultSet, int dotOffset, int caretOffset) {
+            HintCollector collector, int dotOffset, int caretOffset) {
         // target parameter is mandatory
         if (!params.containsKey("target")) {
             return;
@@ -56,31 +56,31 @@ public class HandleAsHintProvider implements HintProvider {
             case "java.util.List<org.springframework.core.io.Resource>":
             case "java.util.Set<org.springframework.core.io.Resource>":
             case "org.springframework.core.io.Resource":
-                Utils.completeSpringResource(resourcesFolder, filter, completionResultSet, dotOffset, caretOffset);
+                Utils.completeSpringResource(resourcesFolder, filter, collector, dotOffset, caretOffset);
                 break;
             case "java.util.List<java.nio.charset.Charset>":
             case "java.util.Set<java.nio.charset.Charset>":
             case "java.nio.charset.Charset":
                 Utils.completeCharset(filter, hint -> {
-                    completionResultSet.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
+                    collector.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
                 });
                 break;
             case "java.util.List<java.util.Locale>":
             case "java.util.Set<java.util.Locale>":
             case "java.util.Locale":
                 Utils.completeLocale(filter, hint -> {
-                    completionResultSet.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
+                    collector.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
                 });
                 break;
             case "org.springframework.util.MimeType":
                 Utils.completeMimetype(filter, hint -> {
-                    completionResultSet.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
+                    collector.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
                 });
                 break;
             default:
                 // try to interpret the targetType as an enum
                 Utils.completeEnum(cpExec, targetType, filter, hint -> {
-                    completionResultSet.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
+                    collector.addItem(new ValueCompletionItem(hint, dotOffset, caretOffset));
                 });
         }
     }
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.java.source.ClassIndex;
+import org.netbeans.api.java.source.ClassIndexListener;
+import org.netbeans.api.java.source.ElementHandle;
+import org.netbeans.api.java.source.RootsEvent;
+import org.netbeans.api.java.source.TypesEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.util.WeakListeners;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Cache of the classes extending or implementing a given type, as found in a {@link ClassIndex}.
+ * <p>
+ * Whether a candidate is abstract is read from the access flags in its class file, no class is ever loaded. Candidate
+ * lists are built on first request for a type and kept up to date on index changes: removed types are dropped from the
+ * cached lists while added or changed types (which may have new supertypes) and classpath changes invalidate the cache.
+ * Lists built while an index change happens are not cached, as they may miss the change.
+ *
+ * @author Alessandro Falappa
+ */
+public final class ImplementorsCache {
+
+    private static final Logger logger = Logger.getLogger(ImplementorsCache.class.getName());
+    private static final Set<ClassIndex.SearchKind> SEARCH_KIND = Collections.singleton(ClassIndex.SearchKind.IMPLEMENTORS);
+    private static final EnumSet<ClassIndex.SearchScope> SEARCH_SCOPE = EnumSet.allOf(ClassIndex.SearchScope.class);
+    private static final int ACC_ABSTRACT = 0x0400;
+    private final ClassIndex classIndex;
+    private final ClassPath cpExec;
+    private final Map<String, List<Candidate>> candidates = new ConcurrentHashMap<>();
+    // incremented before each change of the cached lists
+    private final AtomicInteger generation = new AtomicInteger();
+    private final PropertyChangeListener cpListener = this::classpathChanged;
+    private final ClassIndexListener indexListener = new IndexListener();
+
+    public ImplementorsCache(ClassIndex classIndex, ClassPath cpExec) {
+        this.classIndex = classIndex;
+        this.cpExec = cpExec;
+        cpExec.addPropertyChangeListener(WeakListeners.propertyChange(cpListener, cpExec));
+        classIndex.addClassIndexListener(WeakListeners.create(ClassIndexListener.class, indexListener, classIndex));
+    }
+
+    /**
+     * Retrieves the classes extending or implementing a type.
+     * <p>
+     * Candidates whose class file is not on the classpath (e.g. not compiled yet) are left out.
+     *
+     * @param baseType the fully qualified name of the class or interface
+     * @return the candidates, an empty list if none
+     */
+    public List<Candidate> getImplementors(String baseType) {
+        List<Candidate> ret = candidates.get(baseType);
+        if (ret == null) {
+            // built outside of the map to not block other types while reading class files
+            final int gen = generation.get();
+            ret = Collections.unmodifiableList(collect(baseType));
+            final List<Candidate> prev = candidates.putIfAbsent(baseType, ret);
+            if (prev != null) {
+                ret = prev;
+            } else if (generation.get() != gen) {
+                // the index changed while collecting, an invalidation after this check clears the map anyway
+                candidates.remove(baseType, ret);
+            }
+        }
+        return ret;
+    }
+
+    private List<Candidate> collect(String baseType) {
+        long mark = System.currentTimeMillis();
+        List<Candidate> ret = new ArrayList<>();
+        for (ElementKind kind : EnumSet.of(ElementKind.CLASS, ElementKind.INTERFACE)) {
+            ElementHandle<TypeElement> element = ElementHandle.createTypeElementHandle(kind, baseType);
+            for (ElementHandle<TypeElement> handle : classIndex.getElements(element, SEARCH_KIND, SEARCH_SCOPE)) {
+                final Candidate candidate = candidateOf(handle.getBinaryName(), handle.getKind());
+                if (candidate != null) {
+                    ret.add(candidate);
+                }
+            }
+        }
+        final long elapsed = System.currentTimeMillis() - mark;
+        logger.log(FINE, "Collected {0} implementors of {1} in {2} msecs", new Object[]{ret.size(), baseType, elapsed});
+        return ret;
+    }
+
+    // reads the access flags of the class file, null if not found or unreadable
+    private Candidate candidateOf(String binaryName, ElementKind kind) {
+        final FileObject classFile = cpExec.findResource(binaryName.replace('.', '/') + ".class");
+        if (classFile == null) {
+            return null;
+        }
+        try {
+            return new Candidate(binaryName, kind, (readAccessFlags(classFile) & ACC_ABSTRACT) != 0);
+        } catch (IOException ex) {
+            logger.log(FINE, "Cannot read class file of " + binaryName, ex);
+            return null;
+        }
+    }
+
+    // skips the constant pool of the class file to get to the access flags
+    private static int readAccessFlags(FileObject classFile) throws IOException {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(classFile.getInputStream()))) {
+            if (dis.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file: " + classFile.getPath());
+            }
+            // minor and major version
+            dis.skipBytes(4);
+            final int poolCount = dis.readUnsignedShort();
+            for (int i = 1; i < poolCount; i++) {
+                final int tag = dis.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        // utf8
+                        dis.skipBytes(dis.readUnsignedShort());
+                        break;
+                    case 5:
+                    case 6:
+                        // long and double take two entries
+                        dis.skipBytes(8);
+                        i++;
+                        break;
+                    case 7:
+                    case 8:
+                    case 16:
+                    case 19:
+                    case 20:
+                        dis.skipBytes(2);
+                        break;
+                    case 15:
+                        dis.skipBytes(3);
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 10:
+                    case 11:
+                    case 12:
+                    case 17:
+                    case 18:
+                        dis.skipBytes(4);
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag + " in " + classFile.getPath());
+                }
+            }
+            return dis.readUnsignedShort();
+        }
+    }
+
+    private void classpathChanged(PropertyChangeEvent evt) {
+        if (ClassPath.PROP_ROOTS.equals(evt.getPropertyName()) || ClassPath.PROP_ENTRIES.equals(evt.getPropertyName())) {
+            logger.log(FINE, "Classpath changed, clearing implementors of {0} types", candidates.size());
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        candidates.clear();
+    }
+
+    /**
+     * A class or interface extending or implementing a type.
+     */
+    public static final class Candidate {
+
+        private final String binaryName;
+        private final ElementKind kind;
+        private final boolean isAbstract;
+
+        Candidate(String binaryName, ElementKind kind, boolean isAbstract) {
+            this.binaryName = binaryName;
+            this.kind = kind;
+            this.isAbstract = isAbstract;
+        }
+
+        public String getBinaryName() {
+            return binaryName;
+        }
+
+        public ElementKind getKind() {
+            return kind;
+        }
+
+        /**
+         * Tells if the candidate is an abstract class or an interface.
+         *
+         * @return true if abstract
+         */
+        public boolean isAbstract() {
+            return isAbstract;
+        }
+    }
+
+    private class IndexListener implements ClassIndexListener {
+
+        @Override
+        public void typesAdded(TypesEvent event) {
+            // new types may extend any of the cached base types
+            invalidate();
+        }
+
+        @Override
+        public void typesRemoved(TypesEvent event) {
+            final Set<String> removed = binaryNames(event);
+            generation.incrementAndGet();
+            candidates.replaceAll((baseType, list) -> {
+                List<Candidate> kept = new ArrayList<>(list.size());
+                for (Candidate candidate : list) {
+                    if (!removed.contains(candidate.binaryName)) {
+                        kept.add(candidate);
+                    }
+                }
+                return Collections.unmodifiableList(kept);
+            });
+        }
+
+        @Override
+        public void typesChanged(TypesEvent event) {
+            // changed types may have changed supertypes or modifiers
+            invalidate();
+        }
+
+        @Override
+        public void rootsAdded(RootsEvent event) {
+            invalidate();
+        }
+
+        @Override
+        public void rootsRemoved(RootsEvent event) {
+            invalidate();
+        }
+
+        private Set<String> binaryNames(TypesEvent event) {
+            Set<String> ret = new HashSet<>();
+            for (ElementHandle<TypeElement> handle : event.getTypes()) {
+                ret.add(handle.getBinaryName());
+            }
+            return ret;
+        }
+    }
+}
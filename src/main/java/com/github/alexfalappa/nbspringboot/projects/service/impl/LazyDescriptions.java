@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Descriptions of the configuration properties of a jar file, loaded on demand.
+ * <p>
+ * Descriptions are the bulk of configuration metadata but are only needed by documentation. Each one is looked up in the
+ * description index of the persistent {@link MetadataCache} when asked for and is not retained. If the jar is not cached
+ * or its cache entry is stale the JSON metadata is unmarshalled again and cached.
+ * <p>
+ * Metadata is shared among the projects depending on jars with the same metadata content, descriptions are read from the
+ * first jar acquired under the store key whose content still matches it (see {@link SharedMetadataStore#sourcesOf}).
+ *
+ * @author Alessandro Falappa
+ */
+final class LazyDescriptions implements Function<String, String> {
+
+    private static final Logger logger = Logger.getLogger(LazyDescriptions.class.getName());
+    private final String storeKey;
+
+    /**
+     * Creates the descriptions of the metadata stored under a key of the {@link SharedMetadataStore}.
+     *
+     * @param storeKey the store key
+     */
+    LazyDescriptions(String storeKey) {
+        this.storeKey = storeKey;
+    }
+
+    @Override
+    public String apply(String id) {
+        for (FileObject jsonFo : SharedMetadataStore.sourcesOf(storeKey)) {
+            final FileObject archiveFo = FileUtil.getArchiveFile(jsonFo);
+            // the jar may have changed since it was acquired
+            if (archiveFo != null && storeKey.equals(SharedMetadataStore.keyOf(archiveFo, jsonFo))) {
+                return load(archiveFo, jsonFo, id);
+            }
+        }
+        logger.log(FINE, "No jar to read configuration metadata descriptions of {0} from", storeKey);
+        return null;
+    }
+
+    private String load(FileObject archiveFo, FileObject jsonFo, String id) {
+        final Optional<String> cached = MetadataCache.loadDescription(archiveFo, id);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        try {
+            logger.log(INFO, "Unmarshalling configuration metadata descriptions from {0}",
+                    FileUtil.getFileDisplayName(jsonFo));
+            final Map<String, ConfigurationMetadataProperty> props = MetadataJsonReader.read(jsonFo.getInputStream());
+            MetadataCache.store(archiveFo, storeKey, props);
+            final ConfigurationMetadataProperty prop = props.get(id);
+            return prop != null ? prop.getDescription() : null;
+        } catch (IOException ex) {
+            logger.log(WARNING, "Cannot read configuration metadata descriptions of " + FileUtil.getFileDisplayName(jsonFo),
+                    ex);
+            return null;
+        }
+    }
+}
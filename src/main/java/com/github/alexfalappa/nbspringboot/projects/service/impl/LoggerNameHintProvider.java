@@ -15,53 +15,45 @@
  */
 package com.github.alexfalappa.nbspringboot.projects.service.impl;
 
-import java.util.Collections;
-import java.util.EnumSet;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.lang.model.element.ElementKind;
-import javax.lang.model.element.TypeElement;
 
-import org.netbeans.api.java.source.ClassIndex;
 import org.netbeans.api.java.source.ClasspathInfo;
-import org.netbeans.api.java.source.ElementHandle;
-import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.openide.filesystems.FileObject;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
 import com.github.alexfalappa.nbspringboot.cfgprops.completion.items.JavaTypeCompletionItem;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintCollector;
 import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
 
 /**
  * Implementation of {@link HintProvider} for logger names.
+ * <p>
+ * Packages and types are taken from a {@link PackageTree} cached for the project classpath.
  *
  * @author Alessandro Falappa
  */
 public class LoggerNameHintProvider implements HintProvider {
 
-    private final static Pattern PATTERN_ANONCLASSES = Pattern.compile(".*\\$\\d+");
-    private final ClassIndex classIndex;
+    private final PackageTree packageTree;
 
     public LoggerNameHintProvider(FileObject resourcesFolder) {
-        this.classIndex = ClasspathInfo.create(resourcesFolder).getClassIndex();
+        this.packageTree = new PackageTree(ClasspathInfo.create(resourcesFolder).getClassIndex());
     }
 
     @Override
     public void provide(Map<String, Object> params, ConfigurationMetadataProperty propMetadata, String filter, boolean isKey,
-            CompletionResultSet completionResultSet, int dotOffset, int caretOffset) {
+            HintCollector collector, int dotOffset, int caretOffset) {
         if (filter == null) {
             return;
         }
         // fill in packages
-        Set<String> packageNames = classIndex.getPackageNames(filter, true, EnumSet.allOf(ClassIndex.SearchScope.class));
-        for (String name : packageNames) {
-            // skip default package (empty string)
-            if (!name.isEmpty()) {
-                completionResultSet.addItem(new JavaTypeCompletionItem(name, ElementKind.PACKAGE, dotOffset, caretOffset, isKey));
-            }
+        packageTree.visitPackages(filter, name -> {
+            collector.addItem(new JavaTypeCompletionItem(name, ElementKind.PACKAGE, dotOffset, caretOffset, isKey));
+        });
+        if (collector.isCancelled()) {
+            return;
         }
         // fill in types
         String packageFilter = "";
@@ -71,42 +63,10 @@ public class LoggerNameHintProvider implements HintProvider {
             packageFilter = filter.substring(0, lastDotIdx);
             typeFilter = filter.substring(lastDotIdx + 1);
         }
-        Set<ElementHandle<TypeElement>> types = classIndex.getDeclaredTypes(typeFilter,
-                ClassIndex.NameKind.CASE_INSENSITIVE_PREFIX, Collections.singleton(new SinglePackageScope(packageFilter)));
-        for (ElementHandle<TypeElement> type : types) {
-            final String binaryName = type.getBinaryName();
-            Matcher matcher = PATTERN_ANONCLASSES.matcher(binaryName);
-            if (!matcher.matches()) {
-                final String name = binaryName.substring(binaryName.lastIndexOf('.') + 1);
-                completionResultSet.addItem(new JavaTypeCompletionItem(name, type.getKind(),
-                        dotOffset + packageFilter.length() + 1, caretOffset, isKey));
-            }
-        }
+        final int typeOffset = dotOffset + packageFilter.length() + 1;
+        packageTree.visitTypes(packageFilter, typeFilter, (name, kind) -> {
+            collector.addItem(new JavaTypeCompletionItem(name, kind, typeOffset, caretOffset, isKey));
+        });
     }
 
-    // a scope for searching declared types in a specified package
-    private class SinglePackageScope implements ClassIndex.SearchScopeType {
-
-        private final Set<String> theSet;
-
-        public SinglePackageScope(String packagename) {
-            theSet = Collections.singleton(packagename);
-        }
-
-        @Override
-        public Set<? extends String> getPackages() {
-            return theSet;
-        }
-
-        @Override
-        public boolean isSources() {
-            return true;
-        }
-
-        @Override
-        public boolean isDependencies() {
-            return true;
-        }
-
-    }
 }
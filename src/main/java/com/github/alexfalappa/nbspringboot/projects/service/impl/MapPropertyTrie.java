@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Immutable prefix trie of the names of map configuration properties.
+ * <p>
+ * Names are stored in canonical form (see {@link CanonicalNameIndex#canonicalize(String)}) and looked up names are
+ * canonicalized while walking the trie, so the longest map property prefixing a name, e.g. {@code logging.level} in
+ * {@code logging.level.org.springframework}, is found in a single pass over the name without allocations.
+ *
+ * @author Alessandro Falappa
+ */
+public final class MapPropertyTrie {
+
+    private final Node root = new Node();
+
+    /**
+     * Builds the trie.
+     *
+     * @param mapProperties the map configuration properties keyed by name
+     */
+    public MapPropertyTrie(Map<String, CompactPropertyMetadata> mapProperties) {
+        for (Map.Entry<String, CompactPropertyMetadata> entry : mapProperties.entrySet()) {
+            final String canon = CanonicalNameIndex.canonicalize(entry.getKey());
+            Node node = root;
+            for (int i = 0; i < canon.length(); i++) {
+                node = node.childOrNew(canon.charAt(i));
+            }
+            if (node.prop == null) {
+                node.prop = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * Computes the length of the longest map property name prefixing the given name.
+     * <p>
+     * The prefix must be followed in the name by a dot or an opening bracket, i.e. the name must denote a key of the map.
+     *
+     * @param name the name, in any relaxed form
+     * @return the length of the prefix in the given name or 0 if no map property prefixes the name
+     */
+    public int prefixLength(String name) {
+        int best = 0;
+        Node node = root;
+        for (int i = 0; i < name.length() && node != null; i++) {
+            final char c = name.charAt(i);
+            if (c == '-' || c == '_') {
+                continue;
+            }
+            if ((c == '.' || c == '[') && node.prop != null) {
+                best = i;
+            }
+            node = node.child(Character.toLowerCase(c));
+        }
+        return best;
+    }
+
+    /**
+     * Retrieves the longest map property whose name prefixes the given name.
+     *
+     * @param name the name, in any relaxed form
+     * @return the map property or null if no map property prefixes the name
+     * @see #prefixLength(java.lang.String)
+     */
+    public CompactPropertyMetadata longestPrefix(String name) {
+        final int len = prefixLength(name);
+        if (len == 0) {
+            return null;
+        }
+        Node node = root;
+        for (int i = 0; i < len; i++) {
+            final char c = name.charAt(i);
+            if (c != '-' && c != '_') {
+                node = node.child(Character.toLowerCase(c));
+            }
+        }
+        return node.prop;
+    }
+
+    // trie node with children kept in arrays sorted by char
+    private static final class Node {
+
+        private static final char[] NO_CHARS = new char[0];
+        private static final Node[] NO_NODES = new Node[0];
+        private char[] chars = NO_CHARS;
+        private Node[] children = NO_NODES;
+        private CompactPropertyMetadata prop;
+
+        Node child(char c) {
+            final int idx = Arrays.binarySearch(chars, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        Node childOrNew(char c) {
+            int idx = Arrays.binarySearch(chars, c);
+            if (idx >= 0) {
+                return children[idx];
+            }
+            idx = -idx - 1;
+            final Node node = new Node();
+            char[] newChars = new char[chars.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, idx);
+            System.arraycopy(children, 0, newChildren, 0, idx);
+            newChars[idx] = c;
+            newChildren[idx] = node;
+            System.arraycopy(chars, idx, newChars, idx + 1, chars.length - idx);
+            System.arraycopy(children, idx, newChildren, idx + 1, children.length - idx);
+            chars = newChars;
+            children = newChildren;
+            return node;
+        }
+    }
+}
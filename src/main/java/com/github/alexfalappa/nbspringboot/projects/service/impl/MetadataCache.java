@@ -0,0 +1,502 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import org.openide.filesystems.FileObject;
+import org.openide.modules.Places;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+import org.springframework.boot.configurationmetadata.Hints;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.boot.configurationmetadata.ValueProvider;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+/**
+ * Persistent cache of the configuration metadata unmarshalled from jar files.
+ * <p>
+ * Each jar gets a binary file in the NetBeans cache directory. The file header records the jar path, size and last
+ * modification time: a cached entry is used only if all three still match the jar, otherwise it is discarded and the JSON
+ * metadata gets parsed again. The header also records the content hash of the JSON metadata, so that it is not computed
+ * again for unchanged jars.
+ * <p>
+ * Only configuration properties are stored, metadata groups and sources are not retained as the plugin only uses the
+ * properties.
+ * <p>
+ * Descriptions are stored in their own section after the properties, together with an index sorted by property id hash
+ * located by the last eight bytes of the file. A single description is looked up with a few seeks, without reading the
+ * properties.
+ *
+ * @author Alessandro Falappa
+ */
+public final class MetadataCache {
+
+    private static final Logger logger = Logger.getLogger(MetadataCache.class.getName());
+    private static final String CACHE_SUBDIR = "nbspringboot/cfgmetadata";
+    private static final int MAGIC = 0x4e425342;
+    private static final int FORMAT_VERSION = 3;
+    // size of a description index record: property id hash and description offset
+    private static final int INDEX_RECORD_SIZE = 8;
+    // tags of the values stored for default values, hint values and provider parameters
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_ARRAY = 6;
+
+    // prevent instantiation
+    private MetadataCache() {
+    }
+
+    /**
+     * Loads the cached configuration metadata of the given jar file.
+     * <p>
+     * Descriptions are not loaded, see {@link #loadDescription(FileObject, String)}.
+     *
+     * @param archiveFo the jar file object
+     * @return the cached configuration properties keyed by name or null if not cached or if the cached entry is stale
+     */
+    public static Map<String, ConfigurationMetadataProperty> load(FileObject archiveFo) {
+        final File cacheFile = cacheFileFor(archiveFo);
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            List<String> strings = new ArrayList<>();
+            if (readHeader(dis, strings, archiveFo) == null) {
+                return null;
+            }
+            final int count = dis.readInt();
+            Map<String, ConfigurationMetadataProperty> props = new LinkedHashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                final ConfigurationMetadataProperty prop = readProperty(dis, strings);
+                props.put(prop.getId(), prop);
+            }
+            logger.log(FINE, "Loaded {0} cached configuration properties for {1}", new Object[]{count, archiveFo.getPath()});
+            return props;
+        } catch (IOException | RuntimeException ex) {
+            logger.log(WARNING, "Discarding unreadable configuration metadata cache file " + cacheFile, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the cached description of a configuration property of the given jar file.
+     * <p>
+     * Only the file header and the description index are read.
+     *
+     * @param archiveFo the jar file object
+     * @param id the property id
+     * @return the description, empty if the property has none, or null if not cached or if the cached entry is stale
+     */
+    public static Optional<String> loadDescription(FileObject archiveFo, String id) {
+        final File cacheFile = cacheFileFor(archiveFo);
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(cacheFile, "r")) {
+            if (raf.readInt() != MAGIC || raf.readInt() != FORMAT_VERSION
+                    || readHeader(raf, new ArrayList<>(), archiveFo) == null) {
+                return null;
+            }
+            raf.seek(raf.length() - Long.BYTES);
+            final long indexPos = raf.readLong();
+            raf.seek(indexPos);
+            final int count = raf.readInt();
+            final long recordsPos = raf.getFilePointer();
+            // first record with the id hash, records with the same hash follow
+            final int hash = id.hashCode();
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                raf.seek(recordsPos + (long) mid * INDEX_RECORD_SIZE);
+                if (raf.readInt() < hash) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            for (int i = lo; i < count; i++) {
+                raf.seek(recordsPos + (long) i * INDEX_RECORD_SIZE);
+                if (raf.readInt() != hash) {
+                    break;
+                }
+                raf.seek(raf.readInt());
+                if (id.equals(readRawString(raf))) {
+                    return Optional.of(readRawString(raf));
+                }
+            }
+            return Optional.empty();
+        } catch (IOException | RuntimeException ex) {
+            logger.log(WARNING, "Discarding unreadable configuration metadata cache file " + cacheFile, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Loads the cached content hash of the metadata JSON file of the given jar file.
+     * <p>
+     * Only the file header is read.
+     *
+     * @param archiveFo the jar file object
+     * @return the content hash or null if not cached or if the cached entry is stale
+     */
+    public static String loadContentHash(FileObject archiveFo) {
+        final File cacheFile = cacheFileFor(archiveFo);
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath()),
+                1024))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            return readHeader(dis, new ArrayList<>(), archiveFo);
+        } catch (IOException | RuntimeException ex) {
+            logger.log(WARNING, "Discarding unreadable configuration metadata cache file " + cacheFile, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the configuration metadata of the given jar file in the cache.
+     * <p>
+     * The cache file is written to a temporary file then moved in place, concurrent readers never see a partial file
+     * where the file system supports atomic moves.
+     *
+     * @param archiveFo the jar file object
+     * @param contentHash the content hash of the metadata JSON file in the jar
+     * @param props the configuration properties unmarshalled from the jar
+     */
+    public static void store(FileObject archiveFo, String contentHash, Map<String, ConfigurationMetadataProperty> props) {
+        final File cacheFile = cacheFileFor(archiveFo);
+        if (cacheFile == null) {
+            return;
+        }
+        final Path target = cacheFile.toPath();
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(target.getParent(), cacheFile.getName(), ".tmp");
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                Map<String, Integer> strings = new HashMap<>();
+                dos.writeInt(MAGIC);
+                dos.writeInt(FORMAT_VERSION);
+                writeString(dos, strings, archiveFo.getPath());
+                dos.writeLong(archiveFo.getSize());
+                dos.writeLong(archiveFo.lastModified().getTime());
+                writeString(dos, strings, contentHash);
+                dos.writeInt(props.size());
+                for (ConfigurationMetadataProperty prop : props.values()) {
+                    writeProperty(dos, strings, prop);
+                }
+                writeDescriptions(dos, props);
+            }
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                // a partially replaced file fails to load and is discarded by readers
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+        } catch (IOException ex) {
+            logger.log(WARNING, "Cannot write configuration metadata cache file " + cacheFile, ex);
+        } finally {
+            // do not leave temporary files behind on failures
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ex) {
+                    logger.log(FINE, "Cannot delete temporary file " + tmp, ex);
+                }
+            }
+        }
+    }
+
+    // checks the recorded jar path, size and last modification time against the jar
+    // returns the recorded content hash if they match, null otherwise
+    private static String readHeader(DataInput in, List<String> strings, FileObject archiveFo) throws IOException {
+        if (!archiveFo.getPath().equals(readString(in, strings))
+                || in.readLong() != archiveFo.getSize()
+                || in.readLong() != archiveFo.lastModified().getTime()) {
+            return null;
+        }
+        return readString(in, strings);
+    }
+
+    // descriptions section: id and description of each described property, then the index sorted by id hash and the
+    // position of the index as the last eight bytes
+    private static void writeDescriptions(DataOutputStream dos, Map<String, ConfigurationMetadataProperty> props)
+            throws IOException {
+        long[] records = new long[props.size()];
+        int count = 0;
+        for (ConfigurationMetadataProperty prop : props.values()) {
+            if (prop.getDescription() != null) {
+                // hash in the high half and offset in the low half, sorting longs sorts records by hash
+                records[count++] = (long) prop.getId().hashCode() << 32 | dos.size();
+                writeRawString(dos, prop.getId());
+                writeRawString(dos, prop.getDescription());
+            }
+        }
+        Arrays.sort(records, 0, count);
+        final long indexPos = dos.size();
+        dos.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            dos.writeLong(records[i]);
+        }
+        dos.writeLong(indexPos);
+    }
+
+    // the cache file name is derived from the jar path, the header check discards hash collisions
+    private static File cacheFileFor(FileObject archiveFo) {
+        final File cacheDir = Places.getCacheSubdirectory(CACHE_SUBDIR);
+        if (cacheDir == null) {
+            return null;
+        }
+        final String path = archiveFo.getPath();
+        final String name = archiveFo.getName().replaceAll("[^\\w.-]", "_");
+        return new File(cacheDir, String.format("%s-%08x.bin", name, path.hashCode()));
+    }
+
+    private static void writeProperty(DataOutputStream dos, Map<String, Integer> strings, ConfigurationMetadataProperty prop)
+            throws IOException {
+        writeString(dos, strings, prop.getId());
+        writeString(dos, strings, prop.getName());
+        writeString(dos, strings, prop.getType());
+        writeValue(dos, strings, prop.getDefaultValue());
+        final Deprecation depr = prop.getDeprecation();
+        dos.writeBoolean(depr != null);
+        if (depr != null) {
+            writeString(dos, strings, depr.getLevel() != null ? depr.getLevel().name() : null);
+            writeString(dos, strings, depr.getReason());
+            writeString(dos, strings, depr.getShortReason());
+            writeString(dos, strings, depr.getReplacement());
+        }
+        final Hints hints = prop.getHints();
+        writeValueHints(dos, strings, hints.getKeyHints());
+        writeValueProviders(dos, strings, hints.getKeyProviders());
+        writeValueHints(dos, strings, hints.getValueHints());
+        writeValueProviders(dos, strings, hints.getValueProviders());
+    }
+
+    private static ConfigurationMetadataProperty readProperty(DataInputStream dis, List<String> strings) throws IOException {
+        ConfigurationMetadataProperty prop = new ConfigurationMetadataProperty();
+        prop.setId(readString(dis, strings));
+        prop.setName(readString(dis, strings));
+        prop.setType(readString(dis, strings));
+        prop.setDefaultValue(readValue(dis, strings));
+        if (dis.readBoolean()) {
+            Deprecation depr = new Deprecation();
+            final String level = readString(dis, strings);
+            if (level != null) {
+                depr.setLevel(Deprecation.Level.valueOf(level));
+            }
+            depr.setReason(readString(dis, strings));
+            depr.setShortReason(readString(dis, strings));
+            depr.setReplacement(readString(dis, strings));
+            prop.setDeprecation(depr);
+        }
+        final Hints hints = prop.getHints();
+        readValueHints(dis, strings, hints.getKeyHints());
+        readValueProviders(dis, strings, hints.getKeyProviders());
+        readValueHints(dis, strings, hints.getValueHints());
+        readValueProviders(dis, strings, hints.getValueProviders());
+        return prop;
+    }
+
+    private static void writeValueHints(DataOutputStream dos, Map<String, Integer> strings, List<ValueHint> hints)
+            throws IOException {
+        dos.writeInt(hints.size());
+        for (ValueHint hint : hints) {
+            writeValue(dos, strings, hint.getValue());
+            writeString(dos, strings, hint.getDescription());
+            writeString(dos, strings, hint.getShortDescription());
+        }
+    }
+
+    private static void readValueHints(DataInputStream dis, List<String> strings, List<ValueHint> hints) throws IOException {
+        final int count = dis.readInt();
+        for (int i = 0; i < count; i++) {
+            ValueHint hint = new ValueHint();
+            hint.setValue(readValue(dis, strings));
+            hint.setDescription(readString(dis, strings));
+            hint.setShortDescription(readString(dis, strings));
+            hints.add(hint);
+        }
+    }
+
+    private static void writeValueProviders(DataOutputStream dos, Map<String, Integer> strings, List<ValueProvider> providers)
+            throws IOException {
+        dos.writeInt(providers.size());
+        for (ValueProvider provider : providers) {
+            writeString(dos, strings, provider.getName());
+            final Map<String, Object> params = provider.getParameters();
+            dos.writeInt(params.size());
+            for (Map.Entry<String, Object> entry : params.entrySet()) {
+                writeString(dos, strings, entry.getKey());
+                writeValue(dos, strings, entry.getValue());
+            }
+        }
+    }
+
+    private static void readValueProviders(DataInputStream dis, List<String> strings, List<ValueProvider> providers)
+            throws IOException {
+        final int count = dis.readInt();
+        for (int i = 0; i < count; i++) {
+            ValueProvider provider = new ValueProvider();
+            provider.setName(readString(dis, strings));
+            final int paramCount = dis.readInt();
+            for (int j = 0; j < paramCount; j++) {
+                final String key = readString(dis, strings);
+                provider.getParameters().put(key, readValue(dis, strings));
+            }
+            providers.add(provider);
+        }
+    }
+
+    // values unmarshalled from JSON are strings, booleans, numbers or arrays of them, anything else is stored as a string
+    private static void writeValue(DataOutputStream dos, Map<String, Integer> strings, Object value) throws IOException {
+        if (value == null) {
+            dos.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            dos.writeByte(TAG_BOOLEAN);
+            dos.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            dos.writeByte(TAG_INTEGER);
+            dos.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            dos.writeByte(TAG_LONG);
+            dos.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            dos.writeByte(TAG_DOUBLE);
+            dos.writeDouble((Double) value);
+        } else if (value instanceof Object[]) {
+            final Object[] array = (Object[]) value;
+            dos.writeByte(TAG_ARRAY);
+            dos.writeInt(array.length);
+            for (Object item : array) {
+                writeValue(dos, strings, item);
+            }
+        } else {
+            dos.writeByte(TAG_STRING);
+            writeString(dos, strings, value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream dis, List<String> strings) throws IOException {
+        final byte tag = dis.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(dis, strings);
+            case TAG_BOOLEAN:
+                return dis.readBoolean();
+            case TAG_INTEGER:
+                return dis.readInt();
+            case TAG_LONG:
+                return dis.readLong();
+            case TAG_DOUBLE:
+                return dis.readDouble();
+            case TAG_ARRAY:
+                Object[] array = new Object[dis.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = readValue(dis, strings);
+                }
+                return array;
+            default:
+                throw new IOException(String.format("Unknown value tag %d", tag));
+        }
+    }
+
+    // strings are written once, further occurrences are written as the index of the first one
+    private static void writeString(DataOutputStream dos, Map<String, Integer> strings, String str) throws IOException {
+        if (str == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        final Integer idx = strings.get(str);
+        if (idx != null) {
+            dos.writeInt(idx);
+        } else {
+            final int newIdx = strings.size();
+            strings.put(str, newIdx);
+            dos.writeInt(newIdx);
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            dos.writeInt(bytes.length);
+            dos.write(bytes);
+        }
+    }
+
+    private static String readString(DataInput dis, List<String> strings) throws IOException {
+        final int idx = dis.readInt();
+        if (idx < 0) {
+            return null;
+        }
+        if (idx < strings.size()) {
+            return strings.get(idx);
+        }
+        if (idx != strings.size()) {
+            throw new IOException(String.format("Unexpected string index %d", idx));
+        }
+        byte[] bytes = new byte[dis.readInt()];
+        dis.readFully(bytes);
+        final String str = new String(bytes, StandardCharsets.UTF_8);
+        strings.add(str);
+        return str;
+    }
+
+    // strings read at random positions cannot refer to previous occurrences
+    private static void writeRawString(DataOutputStream dos, String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static String readRawString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+import org.springframework.boot.configurationmetadata.Hints;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.boot.configurationmetadata.ValueProvider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Streaming reader of {@code META-INF/spring-configuration-metadata.json} files.
+ * <p>
+ * Reads the JSON token by token with a Jackson {@link JsonParser} and builds the configuration properties directly,
+ * without materializing the whole document as the {@code ConfigurationMetadataRepositoryJsonBuilder} does. Produces the
+ * same properties as the builder: names relative to groups, short descriptions, deprecations and hints attached to their
+ * properties (including {@code .keys} and {@code .values} map hints).
+ * <p>
+ * Types, descriptions and other strings repeated across properties and jars are interned.
+ *
+ * @author Alessandro Falappa
+ */
+public final class MetadataJsonReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // prevent instantiation
+    private MetadataJsonReader() {
+    }
+
+    /**
+     * Reads the configuration properties from a metadata JSON stream.
+     * <p>
+     * The stream is closed when done.
+     *
+     * @param in the JSON stream
+     * @return the configuration properties keyed by name, in document order
+     * @throws IOException in case of read or syntax errors
+     */
+    public static Map<String, ConfigurationMetadataProperty> read(InputStream in) throws IOException {
+        Map<String, ConfigurationMetadataProperty> props = new LinkedHashMap<>();
+        Map<String, String> sourceTypes = new HashMap<>();
+        Map<String, List<String>> groupsByType = new HashMap<>();
+        List<RawHint> hints = new ArrayList<>();
+        try (JsonParser jp = JSON_FACTORY.createParser(in)) {
+            if (jp.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Configuration metadata is not a JSON object");
+            }
+            while (jp.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = jp.getCurrentName();
+                if (jp.nextToken() != JsonToken.START_ARRAY) {
+                    jp.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "groups":
+                        while (jp.nextToken() == JsonToken.START_OBJECT) {
+                            readGroup(jp, groupsByType);
+                        }
+                        break;
+                    case "properties":
+                        while (jp.nextToken() == JsonToken.START_OBJECT) {
+                            readProperty(jp, props, sourceTypes);
+                        }
+                        break;
+                    case "hints":
+                        while (jp.nextToken() == JsonToken.START_OBJECT) {
+                            hints.add(readHint(jp));
+                        }
+                        break;
+                    default:
+                        jp.skipChildren();
+                }
+            }
+        }
+        resolveNames(props, sourceTypes, groupsByType);
+        for (RawHint hint : hints) {
+            attachHint(props, hint);
+        }
+        return props;
+    }
+
+    private static void readGroup(JsonParser jp, Map<String, List<String>> groupsByType) throws IOException {
+        String name = null;
+        String type = null;
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = jp.getCurrentName();
+            jp.nextToken();
+            switch (field) {
+                case "name":
+                    name = jp.getValueAsString();
+                    break;
+                case "type":
+                    type = jp.getValueAsString();
+                    break;
+                default:
+                    jp.skipChildren();
+            }
+        }
+        if (name != null && type != null) {
+            groupsByType.computeIfAbsent(type, t -> new ArrayList<>()).add(name);
+        }
+    }
+
+    private static void readProperty(JsonParser jp, Map<String, ConfigurationMetadataProperty> props,
+            Map<String, String> sourceTypes) throws IOException {
+        ConfigurationMetadataProperty prop = new ConfigurationMetadataProperty();
+        String sourceType = null;
+        boolean deprecated = false;
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = jp.getCurrentName();
+            final JsonToken token = jp.nextToken();
+            switch (field) {
+                case "name":
+                    prop.setId(jp.getValueAsString());
+                    break;
+                case "type":
+                    prop.setType(intern(jp.getValueAsString()));
+                    break;
+                case "sourceType":
+                    sourceType = jp.getValueAsString();
+                    break;
+                case "description":
+                    final String description = intern(jp.getValueAsString());
+                    prop.setDescription(description);
+                    prop.setShortDescription(intern(CompactPropertyMetadata.shortDescription(description)));
+                    break;
+                case "defaultValue":
+                    prop.setDefaultValue(readValue(jp, token));
+                    break;
+                case "deprecated":
+                    deprecated = token == JsonToken.VALUE_TRUE;
+                    break;
+                case "deprecation":
+                    prop.setDeprecation(readDeprecation(jp, token));
+                    break;
+                default:
+                    jp.skipChildren();
+            }
+        }
+        if (prop.getId() == null) {
+            return;
+        }
+        prop.setName(prop.getId());
+        if (prop.getDeprecation() == null && deprecated) {
+            prop.setDeprecation(new Deprecation());
+        }
+        props.put(prop.getId(), prop);
+        if (sourceType != null) {
+            sourceTypes.put(prop.getId(), sourceType);
+        }
+    }
+
+    private static Deprecation readDeprecation(JsonParser jp, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            jp.skipChildren();
+            return null;
+        }
+        Deprecation depr = new Deprecation();
+        depr.setLevel(Deprecation.Level.WARNING);
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = jp.getCurrentName();
+            jp.nextToken();
+            switch (field) {
+                case "level":
+                    depr.setLevel(parseLevel(jp.getValueAsString()));
+                    break;
+                case "reason":
+                    final String reason = intern(jp.getValueAsString());
+                    depr.setReason(reason);
+                    depr.setShortReason(intern(CompactPropertyMetadata.shortDescription(reason)));
+                    break;
+                case "replacement":
+                    depr.setReplacement(jp.getValueAsString());
+                    break;
+                default:
+                    jp.skipChildren();
+            }
+        }
+        return depr;
+    }
+
+    private static Deprecation.Level parseLevel(String value) {
+        if (value != null) {
+            try {
+                return Deprecation.Level.valueOf(value.toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException ex) {
+                // fall back to default level
+            }
+        }
+        return Deprecation.Level.WARNING;
+    }
+
+    private static RawHint readHint(JsonParser jp) throws IOException {
+        RawHint hint = new RawHint();
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = jp.getCurrentName();
+            final JsonToken token = jp.nextToken();
+            if ("name".equals(field)) {
+                hint.name = jp.getValueAsString();
+            } else if ("values".equals(field) && token == JsonToken.START_ARRAY) {
+                while (jp.nextToken() == JsonToken.START_OBJECT) {
+                    hint.values.add(readValueHint(jp));
+                }
+            } else if ("providers".equals(field) && token == JsonToken.START_ARRAY) {
+                while (jp.nextToken() == JsonToken.START_OBJECT) {
+                    hint.providers.add(readValueProvider(jp));
+                }
+            } else {
+                jp.skipChildren();
+            }
+        }
+        return hint;
+    }
+
+    private static ValueHint readValueHint(JsonParser jp) throws IOException {
+        ValueHint valueHint = new ValueHint();
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = jp.getCurrentName();
+            final JsonToken token = jp.nextToken();
+            if ("value".equals(field)) {
+                valueHint.setValue(readValue(jp, token));
+            } else if ("description".equals(field)) {
+                final String description = intern(jp.getValueAsString());
+                valueHint.setDescription(description);
+                valueHint.setShortDescription(intern(CompactPropertyMetadata.shortDescription(description)));
+            } else {
+                jp.skipChildren();
+            }
+        }
+        return valueHint;
+    }
+
+    private static ValueProvider readValueProvider(JsonParser jp) throws IOException {
+        ValueProvider provider = new ValueProvider();
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = jp.getCurrentName();
+            final JsonToken token = jp.nextToken();
+            if ("name".equals(field)) {
+                provider.setName(intern(jp.getValueAsString()));
+            } else if ("parameters".equals(field) && token == JsonToken.START_OBJECT) {
+                while (jp.nextToken() == JsonToken.FIELD_NAME) {
+                    final String key = intern(jp.getCurrentName());
+                    provider.getParameters().put(key, readValue(jp, jp.nextToken()));
+                }
+            } else {
+                jp.skipChildren();
+            }
+        }
+        return provider;
+    }
+
+    // reads the value starting at the given token as the JSON builder does: strings, booleans, numbers or arrays of them
+    private static Object readValue(JsonParser jp, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return jp.getText();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NUMBER_INT:
+                switch (jp.getNumberType()) {
+                    case INT:
+                        return jp.getIntValue();
+                    case LONG:
+                        return jp.getLongValue();
+                    default:
+                        return jp.getDoubleValue();
+                }
+            case VALUE_NUMBER_FLOAT:
+                return jp.getDoubleValue();
+            case START_ARRAY:
+                List<Object> items = new ArrayList<>();
+                JsonToken itemToken;
+                while ((itemToken = jp.nextToken()) != JsonToken.END_ARRAY) {
+                    items.add(readValue(jp, itemToken));
+                }
+                return items.toArray();
+            case START_OBJECT:
+                jp.skipChildren();
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    // strip the group name from property names, the group being the longest one of the property source type
+    private static void resolveNames(Map<String, ConfigurationMetadataProperty> props, Map<String, String> sourceTypes,
+            Map<String, List<String>> groupsByType) {
+        for (Map.Entry<String, String> entry : sourceTypes.entrySet()) {
+            final List<String> groups = groupsByType.get(entry.getValue());
+            if (groups == null) {
+                continue;
+            }
+            final String id = entry.getKey();
+            String bestGroup = null;
+            for (String group : groups) {
+                if (id.startsWith(group) && (bestGroup == null || group.length() > bestGroup.length())) {
+                    bestGroup = group;
+                }
+            }
+            if (bestGroup != null && !bestGroup.isEmpty() && id.startsWith(bestGroup + '.')) {
+                props.get(id).setName(id.substring(bestGroup.length() + 1));
+            }
+        }
+    }
+
+    private static void attachHint(Map<String, ConfigurationMetadataProperty> props, RawHint hint) {
+        if (hint.name == null) {
+            return;
+        }
+        ConfigurationMetadataProperty prop = props.get(hint.name);
+        if (prop != null) {
+            addValueHints(prop.getHints(), hint);
+        } else if (hint.name.endsWith(".keys")) {
+            prop = props.get(hint.name.substring(0, hint.name.length() - 5));
+            if (prop != null) {
+                prop.getHints().getKeyHints().addAll(hint.values);
+                prop.getHints().getKeyProviders().addAll(hint.providers);
+            }
+        } else if (hint.name.endsWith(".values")) {
+            prop = props.get(hint.name.substring(0, hint.name.length() - 7));
+            if (prop != null) {
+                addValueHints(prop.getHints(), hint);
+            }
+        }
+    }
+
+    private static void addValueHints(Hints hints, RawHint hint) {
+        hints.getValueHints().addAll(hint.values);
+        hints.getValueProviders().addAll(hint.providers);
+    }
+
+    private static String intern(String str) {
+        return str != null ? str.intern() : null;
+    }
+
+    private static final class RawHint {
+
+        private String name;
+        private final List<ValueHint> values = new ArrayList<>();
+        private final List<ValueProvider> providers = new ArrayList<>();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Immutable view of the configuration metadata of a project and of the indexes built on it.
+ * <p>
+ * A new snapshot is built off to the side on each metadata change and then published as a whole, so that readers on any
+ * thread never lock nor see partially updated structures.
+ *
+ * @author Alessandro Falappa
+ */
+public final class MetadataSnapshot {
+
+    public static final MetadataSnapshot EMPTY = new MetadataSnapshot(Collections.emptyMap(), Collections.emptySet(),
+            Collections.emptySet());
+    private final Map<String, CompactPropertyMetadata> properties;
+    private final Set<String> mapPropertyNames;
+    private final Set<String> collectionPropertyNames;
+    private final PropertyNameIndex nameIndex;
+    private final CanonicalNameIndex canonicalIndex;
+
+    /**
+     * Builds a snapshot copying the given structures.
+     *
+     * @param properties configuration properties keyed by name
+     * @param mapPropertyNames names of properties of map type
+     * @param collectionPropertyNames names of properties of collection type
+     */
+    public MetadataSnapshot(Map<String, CompactPropertyMetadata> properties, Set<String> mapPropertyNames,
+            Set<String> collectionPropertyNames) {
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+        this.mapPropertyNames = Collections.unmodifiableSet(new HashSet<>(mapPropertyNames));
+        this.collectionPropertyNames = Collections.unmodifiableSet(new HashSet<>(collectionPropertyNames));
+        this.nameIndex = new PropertyNameIndex(this.properties);
+        this.canonicalIndex = new CanonicalNameIndex(this.properties, this.mapPropertyNames);
+    }
+
+    public Map<String, CompactPropertyMetadata> getProperties() {
+        return properties;
+    }
+
+    public Set<String> getMapPropertyNames() {
+        return mapPropertyNames;
+    }
+
+    public Set<String> getCollectionPropertyNames() {
+        return collectionPropertyNames;
+    }
+
+    public PropertyNameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    public CanonicalNameIndex getCanonicalIndex() {
+        return canonicalIndex;
+    }
+}
@@ -17,9 +17,9 @@ package com.github.alexfalappa.nbspringboot.projects.service.impl;
 
 import java.util.Map;
 
-import org.netbeans.spi.editor.completion.CompletionResultSet;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
 
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintCollector;
 import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
 
 /**
@@ -31,7 +31,7 @@ public class NoopHintProvider implements HintProvider {
 
     @Override
     public void provide(Map<String, Object> params, ConfigurationMetadataProperty propMetadata, String filter, boolean isKey,
-            CompletionResultSet completionResultSet, int dotOffset, int caretOffset) {
+            HintCollector collector, int dotOffset, int caretOffset) {
         // purposefully do nothing
     }
 
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+
+import org.netbeans.api.java.source.ClassIndex;
+import org.netbeans.api.java.source.ClassIndexListener;
+import org.netbeans.api.java.source.ElementHandle;
+import org.netbeans.api.java.source.RootsEvent;
+import org.netbeans.api.java.source.TypesEvent;
+import org.openide.util.WeakListeners;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Cached hierarchical tree of the packages and types found in a {@link ClassIndex}.
+ * <p>
+ * The package tree is built with a single class index query on first use, the types of a package are queried when the
+ * package is first visited. On index changes only the type lists of the affected packages are dropped, the whole tree is
+ * rebuilt when new packages or roots appear. Trees and type lists built while an index change happens are not kept.
+ *
+ * @author Alessandro Falappa
+ */
+public final class PackageTree {
+
+    private static final Logger logger = Logger.getLogger(PackageTree.class.getName());
+    private static final EnumSet<ClassIndex.SearchScope> SEARCH_SCOPE = EnumSet.allOf(ClassIndex.SearchScope.class);
+    private final ClassIndex classIndex;
+    private final ClassIndexListener indexListener = new IndexListener();
+    // incremented before dropping the tree or type lists
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile PackageNode root;
+
+    public PackageTree(ClassIndex classIndex) {
+        this.classIndex = classIndex;
+        classIndex.addClassIndexListener(WeakListeners.create(ClassIndexListener.class, indexListener, classIndex));
+    }
+
+    /**
+     * Visits the packages whose name starts with a prefix, stopping at the next package name component.
+     * <p>
+     * Same semantics of {@link ClassIndex#getPackageNames(java.lang.String, boolean, java.util.Set)} with direct only
+     * packages, e.g. {@code org.spr} yields {@code org.springframework} but not {@code org.springframework.boot}.
+     *
+     * @param prefix the package name prefix
+     * @param consumer receives the full package names
+     */
+    public void visitPackages(String prefix, Consumer<String> consumer) {
+        final int lastDotIdx = prefix.lastIndexOf('.');
+        final PackageNode parent = lastDotIdx < 0 ? tree() : find(prefix.substring(0, lastDotIdx));
+        if (parent == null) {
+            return;
+        }
+        final String segmentPrefix = prefix.substring(lastDotIdx + 1);
+        for (PackageNode child : parent.children.tailMap(segmentPrefix).values()) {
+            if (!child.segment.startsWith(segmentPrefix)) {
+                break;
+            }
+            consumer.accept(child.name);
+        }
+    }
+
+    /**
+     * Visits the types declared in a package whose simple name starts with a prefix, ignoring case.
+     * <p>
+     * Nested types are included with their binary simple name (e.g. {@code Outer$Inner}), anonymous classes are excluded.
+     *
+     * @param packageName the full package name, empty for the default package
+     * @param namePrefix the simple name prefix
+     * @param consumer receives simple names and element kinds
+     */
+    public void visitTypes(String packageName, String namePrefix, BiConsumer<String, ElementKind> consumer) {
+        final PackageNode node = packageName.isEmpty() ? tree() : find(packageName);
+        if (node == null) {
+            return;
+        }
+        final String prefixLowcase = namePrefix.toLowerCase();
+        for (TypeEntry type : types(node)) {
+            if (type.simpleName.toLowerCase().startsWith(prefixLowcase)) {
+                consumer.accept(type.simpleName, type.kind);
+            }
+        }
+    }
+
+    private PackageNode find(String packageName) {
+        PackageNode node = tree();
+        int start = 0;
+        while (node != null && start <= packageName.length()) {
+            int end = packageName.indexOf('.', start);
+            if (end < 0) {
+                end = packageName.length();
+            }
+            node = node.children.get(packageName.substring(start, end));
+            start = end + 1;
+        }
+        return node;
+    }
+
+    private PackageNode tree() {
+        PackageNode ret = root;
+        if (ret == null) {
+            final int gen = generation.get();
+            ret = build();
+            root = ret;
+            // the index changed while building, an invalidation after this check drops the tree anyway
+            if (generation.get() != gen) {
+                root = null;
+            }
+        }
+        return ret;
+    }
+
+    private PackageNode build() {
+        long mark = System.currentTimeMillis();
+        final PackageNode ret = new PackageNode("", "");
+        final Set<String> packageNames = classIndex.getPackageNames("", false, SEARCH_SCOPE);
+        for (String name : packageNames) {
+            if (name.isEmpty()) {
+                continue;
+            }
+            PackageNode node = ret;
+            int start = 0;
+            while (start <= name.length()) {
+                int end = name.indexOf('.', start);
+                if (end < 0) {
+                    end = name.length();
+                }
+                final String segment = name.substring(start, end);
+                final String fullName = name.substring(0, end);
+                node = node.children.computeIfAbsent(segment, seg -> new PackageNode(seg, fullName));
+                start = end + 1;
+            }
+        }
+        final long elapsed = System.currentTimeMillis() - mark;
+        logger.log(FINE, "Built tree of {0} packages in {1} msecs", new Object[]{packageNames.size(), elapsed});
+        return ret;
+    }
+
+    private List<TypeEntry> types(PackageNode node) {
+        List<TypeEntry> ret = node.types;
+        if (ret == null) {
+            final int gen = generation.get();
+            ret = new ArrayList<>();
+            Set<ElementHandle<TypeElement>> handles = classIndex.getDeclaredTypes("",
+                    ClassIndex.NameKind.CASE_INSENSITIVE_PREFIX, Collections.singleton(new SinglePackageScope(node.name)));
+            for (ElementHandle<TypeElement> handle : handles) {
+                final String binaryName = handle.getBinaryName();
+                final String simpleName = binaryName.substring(binaryName.lastIndexOf('.') + 1);
+                if (!isAnonymous(simpleName)) {
+                    ret.add(new TypeEntry(simpleName, handle.getKind()));
+                }
+            }
+            ret.sort((t1, t2) -> t1.simpleName.compareTo(t2.simpleName));
+            node.types = ret;
+            if (generation.get() != gen) {
+                node.types = null;
+            }
+        }
+        return ret;
+    }
+
+    // anonymous classes binary names end with '$' followed by digits
+    private static boolean isAnonymous(String simpleName) {
+        int i = simpleName.length() - 1;
+        while (i > 0 && Character.isDigit(simpleName.charAt(i))) {
+            i--;
+        }
+        return i < simpleName.length() - 1 && simpleName.charAt(i) == '$';
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        root = null;
+    }
+
+    // drop the types of the packages of the given types, the whole tree if a package is new
+    private void invalidate(TypesEvent event, boolean added) {
+        generation.incrementAndGet();
+        final PackageNode tree = root;
+        if (tree == null) {
+            return;
+        }
+        for (ElementHandle<TypeElement> handle : event.getTypes()) {
+            final String binaryName = handle.getBinaryName();
+            final int lastDotIdx = binaryName.lastIndexOf('.');
+            final PackageNode node = lastDotIdx < 0 ? tree : find(binaryName.substring(0, lastDotIdx));
+            if (node != null) {
+                node.types = null;
+            } else if (added) {
+                invalidateAll();
+                return;
+            }
+        }
+    }
+
+    private static final class PackageNode {
+
+        private final String segment;
+        private final String name;
+        // populated only while building the tree, read only afterwards
+        private final TreeMap<String, PackageNode> children = new TreeMap<>();
+        private volatile List<TypeEntry> types;
+
+        PackageNode(String segment, String name) {
+            this.segment = segment;
+            this.name = name;
+        }
+    }
+
+    private static final class TypeEntry {
+
+        private final String simpleName;
+        private final ElementKind kind;
+
+        TypeEntry(String simpleName, ElementKind kind) {
+            this.simpleName = simpleName;
+            this.kind = kind;
+        }
+    }
+
+    // a scope for searching declared types in a specified package
+    private static final class SinglePackageScope implements ClassIndex.SearchScopeType {
+
+        private final Set<String> theSet;
+
+        SinglePackageScope(String packagename) {
+            theSet = Collections.singleton(packagename);
+        }
+
+        @Override
+        public Set<? extends String> getPackages() {
+            return theSet;
+        }
+
+        @Override
+        public boolean isSources() {
+            return true;
+        }
+
+        @Override
+        public boolean isDependencies() {
+            return true;
+        }
+
+    }
+
+    private class IndexListener implements ClassIndexListener {
+
+        @Override
+        public void typesAdded(TypesEvent event) {
+            invalidate(event, true);
+        }
+
+        @Override
+        public void typesRemoved(TypesEvent event) {
+            invalidate(event, false);
+        }
+
+        @Override
+        public void typesChanged(TypesEvent event) {
+            invalidate(event, false);
+        }
+
+        @Override
+        public void rootsAdded(RootsEvent event) {
+            invalidateAll();
+        }
+
+        @Override
+        public void rootsRemoved(RootsEvent event) {
+            invalidateAll();
+        }
+    }
+}
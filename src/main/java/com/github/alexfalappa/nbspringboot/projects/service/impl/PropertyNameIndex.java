@@ -0,0 +1,339 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Immutable index of configuration property names supporting fast prefix and substring queries.
+ * <p>
+ * Names are indexed in canonical form (see {@link CanonicalNameIndex#canonicalize(String)}) so that queries are insensitive
+ * to case and to camel case or dashed notation. Canonical names are kept in a sorted array for prefix queries, substring queries are answered
+ * through posting lists of the trigrams occurring in names. Ranked fuzzy queries (see {@link FuzzyNameMatcher}) use the
+ * precomputed start offsets of the dot separated segments of each name.
+ * <p>
+ * Query results are lists backed by the index: metadata objects are looked up only when list elements are accessed.
+ *
+ * @author Alessandro Falappa
+ */
+public final class PropertyNameIndex {
+
+    private final String[] canonNames;
+    private final CompactPropertyMetadata[] props;
+    private final Map<Long, int[]> trigrams = new HashMap<>();
+    // segment start offsets of all names, those of name i are in [segOffsets[i], segOffsets[i + 1])
+    private int[] segStarts;
+    private int[] segOffsets;
+
+    /**
+     * Builds the index out of a map of configuration properties keyed by name.
+     *
+     * @param properties the configuration properties to index
+     */
+    public PropertyNameIndex(Map<String, CompactPropertyMetadata> properties) {
+        final int size = properties.size();
+        String[] unsortedCanon = new String[size];
+        CompactPropertyMetadata[] unsortedProps = new CompactPropertyMetadata[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (Map.Entry<String, CompactPropertyMetadata> entry : properties.entrySet()) {
+            unsortedCanon[i] = CanonicalNameIndex.canonicalize(entry.getKey());
+            unsortedProps[i] = entry.getValue();
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, Comparator.comparing(idx -> unsortedCanon[idx]));
+        canonNames = new String[size];
+        props = new CompactPropertyMetadata[size];
+        for (i = 0; i < size; i++) {
+            canonNames[i] = unsortedCanon[order[i]];
+            props[i] = unsortedProps[order[i]];
+        }
+        buildTrigrams();
+        buildSegments();
+    }
+
+    /**
+     * Number of indexed properties.
+     *
+     * @return the index size
+     */
+    public int size() {
+        return props.length;
+    }
+
+    /**
+     * Retrieves properties whose canonical name contains the canonical filter.
+     *
+     * @param filter the filter string, null or empty means all properties
+     * @return the matching properties sorted by canonical name
+     */
+    public List<CompactPropertyMetadata> query(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            return new IdList(null, props.length);
+        }
+        final String canonFilter = CanonicalNameIndex.canonicalize(filter);
+        if (canonFilter.length() < 3) {
+            return scan(canonFilter);
+        }
+        // candidates are ids in the shortest posting list among the filter trigrams
+        int[] candidates = null;
+        for (int i = 0; i + 3 <= canonFilter.length(); i++) {
+            final int[] posting = trigrams.get(trigram(canonFilter, i));
+            if (posting == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+        int[] ids = new int[candidates.length];
+        int count = 0;
+        for (int id : candidates) {
+            if (canonNames[id].contains(canonFilter)) {
+                ids[count++] = id;
+            }
+        }
+        return new IdList(ids, count);
+    }
+
+    /**
+     * Retrieves properties whose canonical name starts with the canonical prefix.
+     *
+     * @param prefix the prefix string, null or empty means all properties
+     * @return the matching properties sorted by canonical name
+     */
+    public List<CompactPropertyMetadata> queryPrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return new IdList(null, props.length);
+        }
+        final String canonPrefix = CanonicalNameIndex.canonicalize(prefix);
+        int from = Arrays.binarySearch(canonNames, canonPrefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < canonNames.length && canonNames[to].startsWith(canonPrefix)) {
+            to++;
+        }
+        return new RangeList(from, to);
+    }
+
+    /**
+     * Retrieves the properties best matching a filter with segment wise fuzzy matching.
+     * <p>
+     * Candidates are scored with a {@link FuzzyNameMatcher} and the best ones kept in a bounded heap, no object is
+     * allocated per candidate.
+     *
+     * @param filter the filter string, null or empty means the first properties in canonical name order
+     * @param max the maximum number of properties to retrieve
+     * @return the matching properties, best first
+     */
+    public List<CompactPropertyMetadata> queryRanked(String filter, int max) {
+        if (filter == null || filter.isEmpty()) {
+            return new IdList(null, Math.min(max, props.length));
+        }
+        final FuzzyNameMatcher matcher = new FuzzyNameMatcher(filter);
+        // each filter segment lies within a name, so do its trigrams
+        int[] candidates = null;
+        for (String fs : matcher.getSegments()) {
+            for (int i = 0; i + 3 <= fs.length(); i++) {
+                final int[] posting = trigrams.get(trigram(fs, i));
+                if (posting == null) {
+                    return Collections.emptyList();
+                }
+                if (candidates == null || posting.length < candidates.length) {
+                    candidates = posting;
+                }
+            }
+        }
+        // min heap of (score, id) packed in longs, the worst kept match at the root
+        long[] heap = new long[Math.max(max, 1)];
+        int size = 0;
+        final int count = candidates != null ? candidates.length : canonNames.length;
+        for (int i = 0; i < count; i++) {
+            final int id = candidates != null ? candidates[i] : i;
+            final int score = matcher.score(canonNames[id], segStarts, segOffsets[id], segOffsets[id + 1]);
+            if (score == FuzzyNameMatcher.NO_MATCH) {
+                continue;
+            }
+            // on equal scores lower ids, i.e. names first in canonical order, are better
+            final long key = ((long) score << 32) | (Integer.MAX_VALUE - id);
+            if (size < max) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (max > 0 && key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = Integer.MAX_VALUE - (int) heap[size - 1 - i];
+        }
+        return new IdList(ids, size);
+    }
+
+    private static void siftUp(long[] heap, int idx) {
+        final long key = heap[idx];
+        while (idx > 0) {
+            final int parent = (idx - 1) >>> 1;
+            if (heap[parent] <= key) {
+                break;
+            }
+            heap[idx] = heap[parent];
+            idx = parent;
+        }
+        heap[idx] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        final long key = heap[0];
+        int idx = 0;
+        int child;
+        while ((child = 2 * idx + 1) < size) {
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (key <= heap[child]) {
+                break;
+            }
+            heap[idx] = heap[child];
+            idx = child;
+        }
+        heap[idx] = key;
+    }
+
+    // linear scan for filters too short to have trigrams
+    private List<CompactPropertyMetadata> scan(String canonFilter) {
+        int[] ids = new int[canonNames.length];
+        int count = 0;
+        for (int id = 0; id < canonNames.length; id++) {
+            if (canonNames[id].contains(canonFilter)) {
+                ids[count++] = id;
+            }
+        }
+        return new IdList(ids, count);
+    }
+
+    private void buildTrigrams() {
+        Map<Long, int[]> growing = new HashMap<>();
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int id = 0; id < canonNames.length; id++) {
+            final String canon = canonNames[id];
+            for (int i = 0; i + 3 <= canon.length(); i++) {
+                final Long key = trigram(canon, i);
+                int[] posting = growing.get(key);
+                int count = counts.getOrDefault(key, 0);
+                if (posting == null) {
+                    posting = new int[4];
+                    growing.put(key, posting);
+                }
+                // ids are visited in ascending order, skip repeated trigrams in the same name
+                if (count > 0 && posting[count - 1] == id) {
+                    continue;
+                }
+                if (count == posting.length) {
+                    posting = Arrays.copyOf(posting, count * 2);
+                    growing.put(key, posting);
+                }
+                posting[count] = id;
+                counts.put(key, count + 1);
+            }
+        }
+        for (Map.Entry<Long, int[]> entry : growing.entrySet()) {
+            trigrams.put(entry.getKey(), Arrays.copyOf(entry.getValue(), counts.get(entry.getKey())));
+        }
+    }
+
+    private void buildSegments() {
+        segOffsets = new int[canonNames.length + 1];
+        int total = 0;
+        for (int id = 0; id < canonNames.length; id++) {
+            segOffsets[id] = total;
+            total += FuzzyNameMatcher.segmentStarts(canonNames[id]).length;
+        }
+        segOffsets[canonNames.length] = total;
+        segStarts = new int[total];
+        for (int id = 0; id < canonNames.length; id++) {
+            final int[] starts = FuzzyNameMatcher.segmentStarts(canonNames[id]);
+            System.arraycopy(starts, 0, segStarts, segOffsets[id], starts.length);
+        }
+    }
+
+    private static Long trigram(String str, int idx) {
+        return ((long) str.charAt(idx) << 32) | ((long) str.charAt(idx + 1) << 16) | str.charAt(idx + 2);
+    }
+
+    // list view over a set of property ids, a null id array means the identity mapping
+    private final class IdList extends AbstractList<CompactPropertyMetadata> {
+
+        private final int[] ids;
+        private final int size;
+
+        IdList(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        @Override
+        public CompactPropertyMetadata get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return props[ids != null ? ids[index] : index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // list view over a contiguous range of property ids
+    private final class RangeList extends AbstractList<CompactPropertyMetadata> {
+
+        private final int from;
+        private final int to;
+
+        RangeList(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public CompactPropertyMetadata get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return props[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+import static java.util.logging.Level.FINE;
+
+/**
+ * Module wide store of the configuration metadata of jar files, shared by the Spring Boot services of all open projects.
+ * <p>
+ * Entries are keyed by the content hash of the metadata JSON file in the jar so that projects depending on the same
+ * artifact, even from different local repositories, share a single copy of the metadata objects. Hashes are computed once
+ * per jar path, size and last modification time: they are remembered in memory and recorded in the {@link MetadataCache}.
+ * <p>
+ * Entries are reference counted: each project service acquires the jars on its classpath and releases them when they are
+ * removed from the classpath or when the project is closed. Unreferenced entries are kept through soft references and may
+ * be reclaimed by the garbage collector.
+ * <p>
+ * Each entry also remembers the metadata JSON files it was acquired for, descriptions loaded on demand are read from any
+ * of them still matching the key (see {@link #sourcesOf(String)}).
+ *
+ * @author Alessandro Falappa
+ */
+public final class SharedMetadataStore {
+
+    private static final Logger logger = Logger.getLogger(SharedMetadataStore.class.getName());
+    private static final Map<String, Entry> entries = new HashMap<>();
+    // content hashes of metadata JSON files keyed by jar path
+    private static final Map<String, ContentHash> hashes = new ConcurrentHashMap<>();
+
+    // prevent instantiation
+    private SharedMetadataStore() {
+    }
+
+    /**
+     * Computes the store key of the configuration metadata of a jar file.
+     * <p>
+     * The key is the content hash of the metadata JSON file. It is taken from memory or from the {@link MetadataCache} if
+     * the jar is unchanged, otherwise the JSON file is read and hashed. Falls back to a key made of the jar path, size and
+     * last modification time if the JSON file cannot be read.
+     *
+     * @param archiveFo the jar file
+     * @param jsonFo the metadata JSON file in the jar
+     * @return the store key
+     */
+    public static String keyOf(FileObject archiveFo, FileObject jsonFo) {
+        final String path = archiveFo.getPath();
+        final long size = archiveFo.getSize();
+        final long lastModified = archiveFo.lastModified().getTime();
+        final ContentHash known = hashes.get(path);
+        if (known != null && known.size == size && known.lastModified == lastModified) {
+            return known.hash;
+        }
+        String hash = MetadataCache.loadContentHash(archiveFo);
+        if (hash == null) {
+            try {
+                hash = contentHash(jsonFo);
+            } catch (IOException ex) {
+                logger.log(FINE, "Cannot hash configuration metadata of " + FileUtil.getFileDisplayName(jsonFo), ex);
+                return String.format("%s@%d:%d", path, size, lastModified);
+            }
+        }
+        hashes.put(path, new ContentHash(size, lastModified, hash));
+        return hash;
+    }
+
+    /**
+     * Acquires the configuration metadata stored under the given key, loading it on a miss.
+     * <p>
+     * Loading happens outside the store lock, if two threads load the same key concurrently the first stored result wins.
+     * A failed loading is not stored, the next acquisition of the key loads again.
+     *
+     * @param key the store key
+     * @param jsonFo the metadata JSON file in the jar of the caller
+     * @param loader loads the configuration properties on a miss, returns null on failure
+     * @return an unmodifiable map of configuration properties keyed by name or null if the loading failed, in which case
+     * nothing is acquired
+     */
+    public static Map<String, CompactPropertyMetadata> acquire(String key, FileObject jsonFo,
+            Supplier<Map<String, CompactPropertyMetadata>> loader) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                Map<String, CompactPropertyMetadata> props = entry.get();
+                if (props != null) {
+                    entry.retain(props, jsonFo);
+                    logger.log(FINE, "Shared configuration metadata {0} acquired, {1} references",
+                            new Object[]{key, entry.refCount});
+                    return props;
+                }
+            }
+        }
+        Map<String, CompactPropertyMetadata> loaded = loader.get();
+        if (loaded == null) {
+            return null;
+        }
+        loaded = Collections.unmodifiableMap(loaded);
+        synchronized (entries) {
+            purgeCleared();
+            Entry entry = entries.get(key);
+            Map<String, CompactPropertyMetadata> props = entry != null ? entry.get() : null;
+            if (props == null) {
+                entry = new Entry(loaded);
+                entries.put(key, entry);
+                props = loaded;
+            }
+            entry.retain(props, jsonFo);
+            return props;
+        }
+    }
+
+    /**
+     * Lists the metadata JSON files the configuration metadata stored under the given key was acquired for.
+     * <p>
+     * Files no longer valid are left out. The jars of the others may have changed since they were acquired.
+     *
+     * @param key the store key
+     * @return the metadata JSON files in order of first acquisition
+     */
+    public static List<FileObject> sourcesOf(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return Collections.emptyList();
+            }
+            entry.sources.removeIf(fo -> !fo.isValid());
+            return new ArrayList<>(entry.sources);
+        }
+    }
+
+    /**
+     * Releases a reference to the configuration metadata stored under the given key.
+     *
+     * @param key the store key
+     */
+    public static void release(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.refCount > 0) {
+                entry.refCount--;
+                if (entry.refCount == 0) {
+                    // keep it softly reachable for projects opened later
+                    entry.strong = null;
+                    logger.log(FINE, "Shared configuration metadata {0} no longer referenced", key);
+                }
+            }
+        }
+    }
+
+    private static String contentHash(FileObject jsonFo) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        try (InputStream is = jsonFo.getInputStream()) {
+            byte[] buf = new byte[8192];
+            int read;
+            while ((read = is.read(buf)) != -1) {
+                digest.update(buf, 0, read);
+            }
+        }
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    // remove unreferenced entries whose metadata has been garbage collected, must hold the entries lock
+    private static void purgeCleared() {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().get() == null) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final SoftReference<Map<String, CompactPropertyMetadata>> soft;
+        private Map<String, CompactPropertyMetadata> strong;
+        private int refCount;
+        private final Set<FileObject> sources = new LinkedHashSet<>();
+
+        Entry(Map<String, CompactPropertyMetadata> props) {
+            this.soft = new SoftReference<>(props);
+        }
+
+        Map<String, CompactPropertyMetadata> get() {
+            return strong != null ? strong : soft.get();
+        }
+
+        void retain(Map<String, CompactPropertyMetadata> props, FileObject source) {
+            strong = props;
+            refCount++;
+            sources.add(source);
+        }
+    }
+
+    private static final class ContentHash {
+
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+
+        ContentHash(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
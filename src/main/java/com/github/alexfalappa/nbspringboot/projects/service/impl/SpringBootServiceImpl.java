@@ -15,27 +15,38 @@
  */
 package com.github.alexfalappa.nbspringboot.projects.service.impl;
 
+import com.github.alexfalappa.nbspringboot.LatencyRecorder;
 import com.github.alexfalappa.nbspringboot.Utils;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
 import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
 import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
 import java.beans.PropertyChangeEvent;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.INFO;
 import static java.util.logging.Level.SEVERE;
 import static java.util.logging.Level.WARNING;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import static java.util.regex.Pattern.compile;
+import javax.swing.event.ChangeListener;
 import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.api.project.Project;
 import org.netbeans.modules.maven.NbMavenProjectImpl;
 import org.netbeans.modules.maven.api.NbMavenProject;
@@ -43,12 +54,10 @@ import org.netbeans.spi.project.ProjectServiceProvider;
 import org.openide.filesystems.FileLock;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
+import org.openide.util.ChangeSupport;
 import org.openide.util.Exceptions;
-import org.springframework.boot.bind.RelaxedNames;
+import org.openide.util.RequestProcessor;
 import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
-import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepository;
-import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
-import org.springframework.boot.configurationmetadata.SimpleConfigurationMetadataRepository;
 
 /**
  * Project wide {@link SpringBootService} implementation.
@@ -56,6 +65,15 @@ import org.springframework.boot.configurationmetadata.SimpleConfigurationMetadat
  * It scans the classpath for {@code META-INF/spring-configuration-metadata.json} files, then unmarshals the files into the
  * corresponding {@code ConfigurationMetadata} classes and maintains indexed structures extracted out of it.
  * <p>
+ * Updates are serialized and build a new {@link MetadataSnapshot} which is then published through a volatile reference:
+ * completion, highlighting and hint threads read it without locking.
+ * <p>
+ * Metadata is loaded in background with a cancellable progress indication, the first query or a pom change schedule the
+ * loading. Until metadata is ready queries answer with empty results, listeners are notified when a new snapshot is
+ * published.
+ * <p>
+ * Metadata of jar files is acquired from the {@link SharedMetadataStore} and shared with other open projects.
+ * <p>
  * Registered for maven projects with jar and war packaging.
  *
  * @author Alessandro Falappa
@@ -72,18 +90,37 @@ public class SpringBootServiceImpl implements SpringBootService {
 
     private static final Logger logger = Logger.getLogger(SpringBootServiceImpl.class.getName());
     private static final String METADATA_JSON = "META-INF/spring-configuration-metadata.json";
-    private static final Pattern PATTERN_ARRAY_NOTATION = compile("(.+)\\[\\d+\\]");
     private static final NoopHintProvider NOOP_HINT_PROVIDER = new NoopHintProvider();
-    private SimpleConfigurationMetadataRepository repo = new SimpleConfigurationMetadataRepository();
-    private final Map<String, ConfigurationMetadataRepository> reposInJars = new HashMap<>();
-    private NbMavenProjectImpl mvnPrj;
-    private String springBootVersion;
-    private ClassPath cpExec;
-    private Map<String, ConfigurationMetadataProperty> cachedProperties;
-    private final Map<String, Boolean> cachedDepsPresence = new HashMap<>();
+    private static final RequestProcessor RP = new RequestProcessor(SpringBootServiceImpl.class.getName(), 1);
+    private static final RequestProcessor UNMARSHAL_RP = new RequestProcessor(SpringBootServiceImpl.class.getName() + ".unmarshal",
+            Runtime.getRuntime().availableProcessors());
+    private static final LatencyRecorder METADATA_LATENCY = LatencyRecorder.get("metadata.getPropertyMetadata");
+    private static final LatencyRecorder COMPACT_METADATA_LATENCY = LatencyRecorder.get("metadata.getCompactPropertyMetadata");
+    // coalesces loading requests, a reschedule while running queues one more run
+    private final RequestProcessor.Task loadTask = RP.create(this::load);
+    private final AtomicBoolean loadRequested = new AtomicBoolean();
+    // bumped to abort a loading in progress as stale
+    private final AtomicInteger loadGeneration = new AtomicInteger();
+    private final ChangeSupport changeSupport = new ChangeSupport(this);
+    // set when the project is closed, cleared by the next query
+    private volatile boolean closed = false;
+    private volatile boolean ready = false;
+    // serializes updates, readers never lock
+    private final Object updateLock = new Object();
+    // state used to build the next snapshot, guarded by updateLock
+    private final Map<String, Map<String, CompactPropertyMetadata>> propsInRoots = new LinkedHashMap<>();
+    private final Map<String, String> storeKeys = new HashMap<>();
+    private final Map<String, String> propOwners = new HashMap<>();
+    private final Map<String, CompactPropertyMetadata> cachedProperties = new HashMap<>();
     private final Set<String> collectionProperties = new HashSet<>();
     private final Set<String> mapProperties = new HashSet<>();
-    private final Map<String, HintProvider> providerMap = new HashMap<>();
+    // state published to readers
+    private volatile MetadataSnapshot snapshot = MetadataSnapshot.EMPTY;
+    private volatile Map<String, HintProvider> providerMap = Collections.emptyMap();
+    private volatile String springBootVersion;
+    private volatile ClassPath cpExec;
+    private final Map<String, Boolean> cachedDepsPresence = new ConcurrentHashMap<>();
+    private NbMavenProjectImpl mvnPrj;
 
     public SpringBootServiceImpl(Project p) {
         final FileObject projectDirectory = p.getProjectDirectory();
@@ -119,23 +156,30 @@ public class SpringBootServiceImpl implements SpringBootService {
         // re-check maven project is a spring-boot project
         logger.fine("Checking maven project has a spring boot dependency");
         springBootVersion = Utils.getSpringBootVersion(mvnPrj).orElse(null);
-        // clear and exit if no spring boot dependency detected
-        if (springBootVersion == null) {
-            reposInJars.clear();
-            collectionProperties.clear();
-            mapProperties.clear();
-            // TODO delete nbactions.xml file from project dir ?
-            return;
-        }
         cachedDepsPresence.clear();
-        if (cpExec == null) {
-            init();
-        } else {
-            // build configuration metadata repository
-            updateConfigRepo();
-        }
+        // abort a loading in progress as it is stale, then schedule a new one
+        loadGeneration.incrementAndGet();
+        loadRequested.set(true);
+        loadTask.schedule(0);
         // adjust the nbactions.xml file depending on boot version
-        adjustNbActions();
+        if (springBootVersion != null) {
+            adjustNbActions();
+        }
+    }
+
+    @Override
+    public boolean isMetadataReady() {
+        return ready;
+    }
+
+    @Override
+    public void addChangeListener(ChangeListener listener) {
+        changeSupport.addChangeListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(ChangeListener listener) {
+        changeSupport.removeChangeListener(listener);
     }
 
     @Override
@@ -145,20 +189,22 @@ public class SpringBootServiceImpl implements SpringBootService {
 
     @Override
     public Set<String> getPropertyNames() {
-        if (cpExec == null) {
-            init();
-        }
-        return cachedProperties.keySet();
+        return currentSnapshot().getProperties().keySet();
     }
 
     @Override
     public Set<String> getCollectionPropertyNames() {
-        return collectionProperties;
+        return currentSnapshot().getCollectionPropertyNames();
     }
 
     @Override
     public Set<String> getMapPropertyNames() {
-        return mapProperties;
+        return currentSnapshot().getMapPropertyNames();
+    }
+
+    @Override
+    public int getMapPropertyPrefixLength(String name) {
+        return currentSnapshot().getCanonicalIndex().mapPropertyPrefixLength(name);
     }
 
     @Override
@@ -168,55 +214,55 @@ public class SpringBootServiceImpl implements SpringBootService {
 
     @Override
     public ConfigurationMetadataProperty getPropertyMetadata(String propertyName) {
-        if (cpExec == null) {
-            init();
-        }
-        if (cachedProperties != null) {
-            // generate and try relaxed variants
-            for (String relaxedName : new RelaxedNames(propertyName)) {
-                if (cachedProperties.containsKey(relaxedName)) {
-                    return cachedProperties.get(relaxedName);
-                } else {
-                    // try to interpret array notation (strip '[index]' from pName)
-                    Matcher mArrNot = PATTERN_ARRAY_NOTATION.matcher(relaxedName);
-                    if (mArrNot.matches()) {
-                        return cachedProperties.get(mArrNot.group(1));
-                    } else {
-                        // try to interpret map notation (see if pName starts with a set of known map props)
-                        for (String mapPropertyName : getMapPropertyNames()) {
-                            if (relaxedName.startsWith(mapPropertyName)) {
-                                return cachedProperties.get(mapPropertyName);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return null;
+        final long mark = System.nanoTime();
+        final CompactPropertyMetadata compact = currentSnapshot().getCanonicalIndex().lookup(propertyName);
+        final ConfigurationMetadataProperty ret = compact != null ? compact.toMetadataProperty() : null;
+        METADATA_LATENCY.recordSince(mark);
+        return ret;
+    }
+
+    @Override
+    public CompactPropertyMetadata getCompactPropertyMetadata(String propertyName) {
+        final long mark = System.nanoTime();
+        final CompactPropertyMetadata ret = currentSnapshot().getCanonicalIndex().lookup(propertyName);
+        COMPACT_METADATA_LATENCY.recordSince(mark);
+        return ret;
     }
 
     @Override
     public List<ConfigurationMetadataProperty> queryPropertyMetadata(String filter) {
-        if (cpExec == null) {
-            init();
-        }
-        List<ConfigurationMetadataProperty> ret = new LinkedList<>();
-        if (cachedProperties != null) {
-            for (String propName : getPropertyNames()) {
-                if (filter == null || propName.contains(filter)) {
-                    ret.add(cachedProperties.get(propName));
-                }
+        return materializing(currentSnapshot().getNameIndex().query(filter));
+    }
+
+    @Override
+    public List<CompactPropertyMetadata> queryCompactPropertyMetadata(String filter) {
+        return currentSnapshot().getNameIndex().query(filter);
+    }
+
+    @Override
+    public List<CompactPropertyMetadata> queryRankedCompactPropertyMetadata(String filter, int maxResults) {
+        return currentSnapshot().getNameIndex().queryRanked(filter, maxResults);
+    }
+
+    // list view materializing full metadata objects only when accessed
+    private static List<ConfigurationMetadataProperty> materializing(List<CompactPropertyMetadata> compacts) {
+        return new AbstractList<ConfigurationMetadataProperty>() {
+            @Override
+            public ConfigurationMetadataProperty get(int index) {
+                return compacts.get(index).toMetadataProperty();
             }
-        }
-        return ret;
+
+            @Override
+            public int size() {
+                return compacts.size();
+            }
+        };
     }
 
     @Override
     public boolean hasPomDependency(String artifactId) {
-        if (!cachedDepsPresence.containsKey(artifactId)) {
-            cachedDepsPresence.put(artifactId, Utils.dependencyArtifactIdContains(mvnPrj.getProjectWatcher(), artifactId));
-        }
-        return cachedDepsPresence.get(artifactId);
+        return cachedDepsPresence.computeIfAbsent(artifactId,
+                id -> Utils.dependencyArtifactIdContains(mvnPrj.getProjectWatcher(), id));
     }
 
     @Override
@@ -229,68 +275,335 @@ public class SpringBootServiceImpl implements SpringBootService {
         return isBoot2() ? "spring-boot.run" : "run";
     }
 
+    // snapshot for readers, schedules background loading on first access
+    private MetadataSnapshot currentSnapshot() {
+        if (!ready && springBootVersion != null && loadRequested.compareAndSet(false, true)) {
+            closed = false;
+            loadTask.schedule(0);
+        }
+        return snapshot;
+    }
+
+    // Load or update configuration metadata, runs in the request processor
+    private void load() {
+        final int generation = loadGeneration.get();
+        final AtomicBoolean userCanceled = new AtomicBoolean();
+        // canceled from the progress bar, by a refresh or by closing the project
+        final BooleanSupplier canceled = () -> userCanceled.get() || closed || generation != loadGeneration.get();
+        final String prjName = FileUtil.getFileDisplayName(mvnPrj.getProjectDirectory());
+        // progress is shown only if there are classpath roots to load
+        final Supplier<ProgressHandle> progress = () -> ProgressHandle.createHandle(
+                "Loading Spring Boot configuration metadata of " + prjName, () -> {
+                    userCanceled.set(true);
+                    return true;
+                });
+        boolean changed = false;
+        try {
+            synchronized (updateLock) {
+                if (closed) {
+                    return;
+                }
+                if (springBootVersion == null) {
+                    // clear everything if no spring boot dependency detected
+                    changed = !propsInRoots.isEmpty() || ready;
+                    clearMetadata();
+                    // TODO delete nbactions.xml file from project dir ?
+                } else {
+                    if (cpExec == null) {
+                        init();
+                    }
+                    if (cpExec != null) {
+                        changed = updateConfigRepo(progress, canceled);
+                        if (!canceled.getAsBoolean() && !ready) {
+                            ready = true;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+        } finally {
+            // let the next query schedule another loading if this one did not complete
+            if (!ready) {
+                loadRequested.set(false);
+            }
+        }
+        if (canceled.getAsBoolean()) {
+            logger.log(INFO, "Loading of Spring Boot configuration metadata of {0} canceled", prjName);
+        }
+        if (changed) {
+            changeSupport.fireChange();
+        }
+    }
+
+    /**
+     * Releases the configuration metadata when the project is closed.
+     * <p>
+     * Metadata is loaded again if queried afterwards.
+     */
+    void releaseMetadata() {
+        closed = true;
+        synchronized (updateLock) {
+            clearMetadata();
+            loadRequested.set(false);
+        }
+        changeSupport.fireChange();
+    }
+
+    // Release shared metadata and publish an empty snapshot, must hold updateLock
+    private void clearMetadata() {
+        storeKeys.values().forEach(SharedMetadataStore::release);
+        storeKeys.clear();
+        propsInRoots.clear();
+        propOwners.clear();
+        cachedProperties.clear();
+        collectionProperties.clear();
+        mapProperties.clear();
+        snapshot = MetadataSnapshot.EMPTY;
+        ready = false;
+    }
+
+    // Set up classpath and hint providers, must hold updateLock
     private void init() {
         // set up a reference to the execute classpath object
-        cpExec = Utils.execClasspathForProj(mvnPrj);
-        if (cpExec != null) {
+        final ClassPath cp = Utils.execClasspathForProj(mvnPrj);
+        if (cp != null) {
             // populate hint providers map
             FileObject resourcesFolder = Utils.resourcesFolderForProj(mvnPrj);
-            providerMap.put("logger-name", new LoggerNameHintProvider(resourcesFolder));
-            providerMap.put("class-reference", new ClassReferenceHintProvider(mvnPrj.getProjectDirectory(), cpExec));
-            providerMap.put("handle-as", new HandleAsHintProvider(resourcesFolder, cpExec));
-            // build configuration properties maps
-            updateConfigRepo();
+            Map<String, HintProvider> providers = new HashMap<>();
+            providers.put("logger-name", new LoggerNameHintProvider(resourcesFolder));
+            providers.put("class-reference", new ClassReferenceHintProvider(mvnPrj.getProjectDirectory(), cp));
+            providers.put("handle-as", new HandleAsHintProvider(resourcesFolder, cp));
+            providerMap = Collections.unmodifiableMap(providers);
+            cpExec = cp;
         }
     }
 
-    // Update internal configuration metadata repository
-    private void updateConfigRepo() {
+    // Update internal configuration metadata repository and publish a new snapshot, must hold updateLock.
+    // Returns true if a new snapshot was published, false if unchanged or canceled.
+    private boolean updateConfigRepo(Supplier<ProgressHandle> progress, BooleanSupplier loadCanceled) {
         logger.fine("Updating config metadata repo");
-        repo = new SimpleConfigurationMetadataRepository();
-        final List<FileObject> cfgMetaFiles = cpExec.findAllResources(METADATA_JSON);
-        for (FileObject fo : cfgMetaFiles) {
+        // collect metadata-bearing classpath roots in classpath order
+        Map<String, FileObject> newRoots = new LinkedHashMap<>();
+        for (FileObject fo : cpExec.findAllResources(METADATA_JSON)) {
+            newRoots.putIfAbsent(rootKey(fo), fo);
+        }
+        Set<String> removedRoots = new HashSet<>(propsInRoots.keySet());
+        removedRoots.removeAll(newRoots.keySet());
+        List<String> addedRoots = new ArrayList<>();
+        for (String root : newRoots.keySet()) {
+            if (!propsInRoots.containsKey(root)) {
+                addedRoots.add(root);
+            }
+        }
+        if (removedRoots.isEmpty() && addedRoots.isEmpty()) {
+            logger.fine("Configuration metadata classpath roots unchanged");
+            return false;
+        }
+        logger.log(FINE, "Configuration metadata roots: {0} added, {1} removed",
+                new Object[]{addedRoots.size(), removedRoots.size()});
+        // unmarshal added roots, the lengthy part, before touching any state so that it can be canceled
+        // roots are unmarshalled concurrently and collected in classpath order
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final BooleanSupplier canceled = () -> interrupted.get() || loadCanceled.getAsBoolean();
+        List<Future<RootMetadata>> futures = new ArrayList<>(addedRoots.size());
+        for (String root : addedRoots) {
+            final FileObject fo = newRoots.get(root);
+            futures.add(UNMARSHAL_RP.submit(() -> acquireRoot(fo, canceled)));
+        }
+        Map<String, Map<String, CompactPropertyMetadata>> addedProps = new HashMap<>();
+        Map<String, String> addedKeys = new HashMap<>();
+        if (!addedRoots.isEmpty()) {
+            final ProgressHandle handle = progress.get();
+            handle.start(addedRoots.size());
             try {
-                ConfigurationMetadataRepositoryJsonBuilder builder = ConfigurationMetadataRepositoryJsonBuilder.create();
-                ConfigurationMetadataRepository currRepo;
-                FileObject archiveFo = FileUtil.getArchiveFile(fo);
-                if (archiveFo != null) {
-                    // parse and cache configuration metadata from JSON file in jar
-                    String archivePath = archiveFo.getPath();
-                    if (!reposInJars.containsKey(archivePath)) {
-                        logger.log(INFO, "Unmarshalling configuration metadata from {0}", FileUtil.getFileDisplayName(fo));
-                        ConfigurationMetadataRepository jarRepo = builder.withJsonResource(fo.getInputStream()).build();
-                        reposInJars.put(archivePath, jarRepo);
+                for (int i = 0; i < addedRoots.size(); i++) {
+                    final String root = addedRoots.get(i);
+                    handle.progress(rootDisplayName(newRoots.get(root)), i);
+                    // roots failing to load are not recorded, the next update tries them again
+                    try {
+                        RootMetadata rm = collect(futures.get(i), interrupted);
+                        if (rm != null && rm.props != null) {
+                            addedProps.put(root, rm.props);
+                            if (rm.storeKey != null) {
+                                addedKeys.put(root, rm.storeKey);
+                            }
+                        }
+                    } catch (ExecutionException ex) {
+                        logger.log(WARNING, "Error unmarshalling configuration metadata of " + root, ex);
                     }
-                    currRepo = reposInJars.get(archivePath);
-                } else {
-                    // parse configuration metadata from standalone JSON file (usually produced by spring configuration processor)
-                    logger.log(INFO, "Unmarshalling configuration metadata from {0}", FileUtil.getFileDisplayName(fo));
-                    currRepo = builder.withJsonResource(fo.getInputStream()).build();
                 }
-                repo.include(currRepo);
-            } catch (Exception ex) {
-                Exceptions.printStackTrace(ex);
+            } finally {
+                handle.finish();
             }
         }
-        // update cached values
-        cachedProperties = repo.getAllProperties();
-        // extract collection/map properties names based on heuristics
-        for (Map.Entry<String, ConfigurationMetadataProperty> entry : cachedProperties.entrySet()) {
-            final String type = entry.getValue().getType();
-            if (type != null) {
-                final String key = entry.getKey();
-                if (type.startsWith("java.util.Map<")) {
-                    mapProperties.add(key);
+        if (interrupted.get()) {
+            logger.info("Loading of configuration metadata interrupted");
+            Thread.currentThread().interrupt();
+        }
+        if (canceled.getAsBoolean()) {
+            addedKeys.values().forEach(SharedMetadataStore::release);
+            return false;
+        }
+        // retract properties of removed roots, remembering names that may be provided by other roots
+        Set<String> orphans = new HashSet<>();
+        for (String root : removedRoots) {
+            final String storeKey = storeKeys.remove(root);
+            if (storeKey != null) {
+                SharedMetadataStore.release(storeKey);
+            }
+            for (String name : propsInRoots.remove(root).keySet()) {
+                if (root.equals(propOwners.get(name))) {
+                    retractProperty(name);
+                    orphans.add(name);
+                }
+            }
+        }
+        propsInRoots.putAll(addedProps);
+        storeKeys.putAll(addedKeys);
+        // keep roots in classpath order, first root defining a property wins as in a full rebuild
+        Map<String, Map<String, CompactPropertyMetadata>> reordered = new LinkedHashMap<>();
+        for (String root : newRoots.keySet()) {
+            if (propsInRoots.containsKey(root)) {
+                reordered.put(root, propsInRoots.get(root));
+            }
+        }
+        propsInRoots.clear();
+        propsInRoots.putAll(reordered);
+        // properties of added roots and retracted ones may change owner
+        Set<String> affected = new HashSet<>(orphans);
+        for (Map<String, CompactPropertyMetadata> props : addedProps.values()) {
+            affected.addAll(props.keySet());
+        }
+        // assert each of them from the first root defining it, all surviving roots considered
+        Set<String> resolved = new HashSet<>();
+        for (Map.Entry<String, Map<String, CompactPropertyMetadata>> entry : propsInRoots.entrySet()) {
+            if (resolved.size() == affected.size()) {
+                break;
+            }
+            for (Map.Entry<String, CompactPropertyMetadata> prop : entry.getValue().entrySet()) {
+                final String name = prop.getKey();
+                if (affected.contains(name) && resolved.add(name)) {
+                    assertProperty(name, prop.getValue(), entry.getKey());
                 }
-                if (type.startsWith("java.util.List<")
-                        || type.startsWith("java.util.Set<")
-                        || type.startsWith("java.util.Collection<")) {
-                    collectionProperties.add(key);
+            }
+        }
+        // build and publish the new snapshot
+        snapshot = new MetadataSnapshot(cachedProperties, mapProperties, collectionProperties);
+        return true;
+    }
+
+    // key of a classpath root: the archive path for jars, the path and timestamp for standalone JSON files
+    private String rootKey(FileObject fo) {
+        FileObject archiveFo = FileUtil.getArchiveFile(fo);
+        if (archiveFo != null) {
+            return archiveFo.getPath();
+        }
+        return fo.getPath() + '@' + fo.lastModified().getTime();
+    }
+
+    // wait for an unmarshalling task even if interrupted, so that what it acquired can be released
+    // an interruption stops the loading: pending tasks skip their root
+    private static RootMetadata collect(Future<RootMetadata> future, AtomicBoolean interrupted) throws ExecutionException {
+        while (true) {
+            try {
+                return future.get();
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+        }
+    }
+
+    // name of a classpath root shown in the progress bar: the archive name for jars, the file name otherwise
+    private String rootDisplayName(FileObject fo) {
+        FileObject archiveFo = FileUtil.getArchiveFile(fo);
+        return archiveFo != null ? archiveFo.getNameExt() : FileUtil.getFileDisplayName(fo);
+    }
+
+    // unmarshal a metadata file, jar metadata is shared with other projects
+    // returns null if the loading was canceled before or while acquiring, releasing what was acquired,
+    // or metadata with null properties if the loading failed
+    private RootMetadata acquireRoot(FileObject fo, BooleanSupplier canceled) {
+        if (canceled.getAsBoolean()) {
+            return null;
+        }
+        final FileObject archiveFo = FileUtil.getArchiveFile(fo);
+        if (archiveFo == null) {
+            return new RootMetadata(unmarshal(fo, null), null);
+        }
+        final String storeKey = SharedMetadataStore.keyOf(archiveFo, fo);
+        final Map<String, CompactPropertyMetadata> props = SharedMetadataStore.acquire(storeKey, fo,
+                () -> unmarshal(fo, storeKey));
+        if (props == null) {
+            return new RootMetadata(null, null);
+        }
+        if (canceled.getAsBoolean()) {
+            SharedMetadataStore.release(storeKey);
+            return null;
+        }
+        return new RootMetadata(props, storeKey);
+    }
+
+    // jar metadata is cached along with its store key, returns null on failure
+    private Map<String, CompactPropertyMetadata> unmarshal(FileObject fo, String storeKey) {
+        try {
+            Map<String, ConfigurationMetadataProperty> props;
+            // descriptions of jar metadata are loaded again when needed, standalone files may change meanwhile
+            LazyDescriptions descriptions = null;
+            FileObject archiveFo = FileUtil.getArchiveFile(fo);
+            if (archiveFo != null) {
+                descriptions = new LazyDescriptions(storeKey);
+                // try first the persistent cache, unmarshal and cache on miss
+                props = MetadataCache.load(archiveFo);
+                if (props == null) {
+                    logger.log(INFO, "Unmarshalling configuration metadata from {0}", FileUtil.getFileDisplayName(fo));
+                    props = MetadataJsonReader.read(fo.getInputStream());
+                    MetadataCache.store(archiveFo, storeKey, props);
                 }
+            } else {
+                // parse configuration metadata from standalone JSON file (usually produced by spring configuration processor)
+                logger.log(INFO, "Unmarshalling configuration metadata from {0}", FileUtil.getFileDisplayName(fo));
+                props = MetadataJsonReader.read(fo.getInputStream());
+            }
+            // keep the compact representation only
+            Map<String, CompactPropertyMetadata> compacts = new HashMap<>(props.size() * 4 / 3 + 1);
+            for (Map.Entry<String, ConfigurationMetadataProperty> entry : props.entrySet()) {
+                compacts.put(entry.getKey(), descriptions != null
+                        ? CompactPropertyMetadata.of(entry.getValue(), descriptions)
+                        : CompactPropertyMetadata.of(entry.getValue()));
+            }
+            return compacts;
+        } catch (Exception ex) {
+            Exceptions.printStackTrace(ex);
+        }
+        return null;
+    }
+
+    private void assertProperty(String name, CompactPropertyMetadata prop, String root) {
+        propOwners.put(name, root);
+        cachedProperties.put(name, prop);
+        // extract collection/map properties names based on heuristics
+        mapProperties.remove(name);
+        collectionProperties.remove(name);
+        final String type = prop.getType();
+        if (type != null) {
+            if (type.startsWith("java.util.Map<")) {
+                mapProperties.add(name);
+            }
+            if (type.startsWith("java.util.List<")
+                    || type.startsWith("java.util.Set<")
+                    || type.startsWith("java.util.Collection<")) {
+                collectionProperties.add(name);
             }
         }
     }
 
+    private void retractProperty(String name) {
+        propOwners.remove(name);
+        cachedProperties.remove(name);
+        mapProperties.remove(name);
+        collectionProperties.remove(name);
+    }
+
     // tell if the project currently uses Spring Boot 2.x
     private boolean isBoot2() {
         return springBootVersion != null && springBootVersion.startsWith("2");
@@ -345,4 +658,16 @@ public class SpringBootServiceImpl implements SpringBootService {
         }
     }
 
+    // metadata of a classpath root, null if it failed to load, and its key in the shared store, null for standalone JSON
+    // files
+    private static final class RootMetadata {
+
+        private final Map<String, CompactPropertyMetadata> props;
+        private final String storeKey;
+
+        RootMetadata(Map<String, CompactPropertyMetadata> props, String storeKey) {
+            this.props = props;
+            this.storeKey = storeKey;
+        }
+    }
 }
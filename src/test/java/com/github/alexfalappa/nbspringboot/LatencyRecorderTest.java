@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for LatencyRecorder.
+ *
+ * @author Alessandro Falappa
+ */
+public class LatencyRecorderTest {
+
+    // buckets are 12.5% wide above 16 microseconds
+    private static final double RELATIVE_ERROR = 0.125;
+
+    @Test
+    public void testLinearBuckets() {
+        System.out.println("testLinearBuckets");
+        for (int micros = 0; micros < 16; micros++) {
+            assertEquals(micros, LatencyRecorder.bucketOf(micros));
+            assertEquals(micros, LatencyRecorder.lowerBound(micros));
+        }
+    }
+
+    @Test
+    public void testLogLinearBuckets() {
+        System.out.println("testLogLinearBuckets");
+        assertEquals(16, LatencyRecorder.bucketOf(16));
+        assertEquals(16, LatencyRecorder.bucketOf(17));
+        assertEquals(17, LatencyRecorder.bucketOf(18));
+        assertEquals(23, LatencyRecorder.bucketOf(31));
+        assertEquals(24, LatencyRecorder.bucketOf(32));
+        assertEquals(63, LatencyRecorder.bucketOf(1000));
+        assertEquals(960, LatencyRecorder.lowerBound(63));
+        assertEquals(1024, LatencyRecorder.lowerBound(64));
+        // each bucket holds the values from its lower bound up to the next one, at most 12.5% apart
+        final int last = LatencyRecorder.bucketOf(Long.MAX_VALUE);
+        for (int bucket = 16; bucket < last; bucket++) {
+            final long lower = LatencyRecorder.lowerBound(bucket);
+            final long upper = LatencyRecorder.lowerBound(bucket + 1) - 1;
+            assertEquals(bucket, LatencyRecorder.bucketOf(lower));
+            assertEquals(bucket, LatencyRecorder.bucketOf(upper));
+            assertTrue(upper - lower + 1 <= lower * RELATIVE_ERROR);
+        }
+        // larger values end up in the last bucket
+        assertEquals(last, LatencyRecorder.bucketOf(LatencyRecorder.lowerBound(last)));
+        assertEquals(last, LatencyRecorder.bucketOf(LatencyRecorder.lowerBound(last) * 4));
+    }
+
+    @Test
+    public void testEmpty() {
+        System.out.println("testEmpty");
+        final LatencyRecorder.Stats stats = LatencyRecorder.get("test.empty").snapshot();
+        assertEquals("test.empty", stats.getName());
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMean());
+        assertEquals(0, stats.getP50());
+        assertEquals(0, stats.getP99());
+        assertEquals(0, stats.getMax());
+    }
+
+    @Test
+    public void testExactPercentiles() {
+        System.out.println("testExactPercentiles");
+        final LatencyRecorder rec = LatencyRecorder.get("test.exact");
+        // values below 16 microseconds have a bucket each
+        for (int i = 0; i < 100; i++) {
+            rec.record(i % 10);
+        }
+        rec.record(-5);
+        final LatencyRecorder.Stats stats = rec.snapshot();
+        assertEquals(101, stats.getCount());
+        assertEquals(4, stats.getMean());
+        assertEquals(4, stats.getP50());
+        assertEquals(9, stats.getP99());
+        assertEquals(9, stats.getMax());
+    }
+
+    @Test
+    public void testPercentiles() {
+        System.out.println("testPercentiles");
+        final LatencyRecorder rec = LatencyRecorder.get("test.percentiles");
+        for (int micros = 1; micros <= 1000; micros++) {
+            rec.record(micros);
+        }
+        final LatencyRecorder.Stats stats = rec.snapshot();
+        assertEquals(1000, stats.getCount());
+        assertEquals(500, stats.getMean());
+        assertEquals(1000, stats.getMax());
+        assertWithinError(500, stats.getP50());
+        assertWithinError(990, stats.getP99());
+        assertTrue(stats.getP99() <= stats.getMax());
+    }
+
+    @Test
+    public void testRandomPercentiles() {
+        System.out.println("testRandomPercentiles");
+        final LatencyRecorder rec = LatencyRecorder.get("test.random");
+        final Random rnd = new Random(42);
+        final long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            // log-uniform from 1 microsecond to about 16 seconds
+            values[i] = (long) Math.pow(2, rnd.nextDouble() * 24);
+            rec.record(values[i]);
+        }
+        Arrays.sort(values);
+        final LatencyRecorder.Stats stats = rec.snapshot();
+        assertEquals(values.length, stats.getCount());
+        assertEquals(values[values.length - 1], stats.getMax());
+        assertWithinError(values[values.length / 2 - 1], stats.getP50());
+        assertWithinError(values[values.length * 99 / 100 - 1], stats.getP99());
+    }
+
+    @Test
+    public void testResetAll() {
+        System.out.println("testResetAll");
+        final LatencyRecorder rec = LatencyRecorder.get("test.reset");
+        rec.record(100);
+        assertEquals(rec, LatencyRecorder.get("test.reset"));
+        assertTrue(LatencyRecorder.snapshotAll().stream().anyMatch(s -> s.getName().equals("test.reset")));
+        LatencyRecorder.resetAll();
+        final LatencyRecorder.Stats stats = rec.snapshot();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMax());
+    }
+
+    // percentiles are the upper bound of a bucket, never below the exact value and at most 12.5% above it
+    private static void assertWithinError(long exact, long estimate) {
+        assertTrue(String.format("%d below %d", estimate, exact), estimate >= exact);
+        assertTrue(String.format("%d too far above %d", estimate, exact), estimate <= exact * (1 + RELATIVE_ERROR));
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.highlighting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import javax.swing.event.ChangeListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultStyledDocument;
+import javax.swing.text.StyledDocument;
+
+import org.junit.Test;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.spi.editor.hints.ErrorDescription;
+import org.netbeans.spi.editor.hints.Severity;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.Deprecation;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.CfgPropsIncrementalParser;
+import com.github.alexfalappa.nbspringboot.cfgprops.parser.RecursiveDescentTextParser;
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+import com.github.alexfalappa.nbspringboot.projects.service.api.HintProvider;
+import com.github.alexfalappa.nbspringboot.projects.service.api.SpringBootService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for CfgPropsHighlightingTask: after each edit the errors published by checking only the changed pairs must
+ * be the same as those found checking the whole file from scratch.
+ *
+ * @author Alessandro Falappa
+ */
+public class IncrementalHighlightingTest {
+
+    private static final String[] SNIPPETS = {
+        "server.port=8080\n", "server.port=x\n", "debug=true\n", "debug=maybe\n", "old.name=a\n", "removed.name:b\n",
+        "unknown.key=z\n", "spring.application.name\n", "my.list=1,2,x\n", "debug=\\\n  true\n", "# comment\n", "\n",
+        "=\n", "a.b[=1\n", "server.port", "debug", "=", ":", "\\", "x", "1", " ", "\r\n", "\n"
+    };
+    private final StubService sbs = new StubService();
+    private final ClassLoader classLoader = getClass().getClassLoader();
+    private Random rnd;
+
+    @Test
+    public void testRandomEdits() throws BadLocationException {
+        System.out.println("testRandomEdits");
+        for (int seed = 0; seed < 40; seed++) {
+            rnd = new Random(seed);
+            editAndCompare(seed % 4 == 0 ? 200 : 20, 150, false);
+        }
+    }
+
+    @Test
+    public void testCanceledRuns() throws BadLocationException {
+        System.out.println("testCanceledRuns");
+        for (int seed = 0; seed < 40; seed++) {
+            rnd = new Random(seed);
+            editAndCompare(20, 150, true);
+        }
+    }
+
+    private void editAndCompare(int snippets, int steps, boolean cancel) throws BadLocationException {
+        final StyledDocument document = new DefaultStyledDocument();
+        for (int i = rnd.nextInt(snippets); i > 0; i--) {
+            document.insertString(document.getLength(), snippet(), null);
+        }
+        final CfgPropsIncrementalParser parser = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+        parser.parse(document.getText(0, document.getLength()));
+        final CfgPropsHighlightingTask task = new CfgPropsHighlightingTask();
+        final int checkersCount = task.getCheckers().size();
+        final Map<String, List<ErrorDescription>> published = new HashMap<>();
+        int enabledMask = (1 << checkersCount) - 1;
+        Severity severity = Severity.WARNING;
+        sbs.ready = true;
+        for (int step = 0; step < steps; step++) {
+            final String previous = document.getText(0, document.getLength());
+            for (int n = 1 + rnd.nextInt(rnd.nextInt(10) == 0 ? 4 : 1); n > 0; n--) {
+                edit(document);
+            }
+            // occasionally change the checkers configuration or the metadata availability
+            if (rnd.nextInt(40) == 0) {
+                enabledMask = rnd.nextInt(1 << checkersCount);
+            }
+            if (rnd.nextInt(40) == 0) {
+                severity = severity == Severity.WARNING ? Severity.ERROR : Severity.WARNING;
+            }
+            if (rnd.nextInt(60) == 0) {
+                sbs.ready = !sbs.ready;
+            }
+            final String text = document.getText(0, document.getLength());
+            parser.parse(text);
+            final HighlightingContext ctx = new HighlightingContext(document, parser.getCfgFile(), parser.getSyntaxErrors(),
+                    sbs, classLoader);
+            sbs.cancelTarget = cancel && rnd.nextInt(3) == 0 ? task : null;
+            sbs.canceled = false;
+            published.putAll(task.highlight(ctx, enabled(task, enabledMask, severity)));
+            sbs.cancelTarget = null;
+            if (sbs.canceled) {
+                // carry on from the canceled run now or after the next edit
+                if (rnd.nextBoolean()) {
+                    continue;
+                }
+                published.putAll(task.highlight(ctx, enabled(task, enabledMask, severity)));
+            }
+            assertSameAsFull(task, published, document, enabledMask, severity,
+                    String.format("Editing [%s] into [%s]", escape(previous), escape(text)));
+        }
+    }
+
+    private void assertSameAsFull(CfgPropsHighlightingTask task, Map<String, List<ErrorDescription>> published,
+            StyledDocument document, int enabledMask, Severity severity, String msg) throws BadLocationException {
+        final CfgPropsIncrementalParser full = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+        full.parseFully(document.getText(0, document.getLength()));
+        final CfgPropsHighlightingTask reference = new CfgPropsHighlightingTask();
+        final Map<String, List<ErrorDescription>> expected = reference.highlight(new HighlightingContext(document,
+                full.getCfgFile(), full.getSyntaxErrors(), sbs, classLoader), enabled(reference, enabledMask, severity));
+        for (Map.Entry<String, List<ErrorDescription>> entry : expected.entrySet()) {
+            assertEquals(msg + " in layer " + entry.getKey(), describe(entry.getValue()),
+                    describe(published.getOrDefault(entry.getKey(), Collections.emptyList())));
+        }
+        // errors are still anchored to their pairs
+        for (BaseChecker checker : task.getCheckers()) {
+            List<PairElement> drifted = new ArrayList<>();
+            checker.collectDrifted(drifted);
+            assertTrue(msg + " drifted in " + checker.getErrorLayerName(), drifted.isEmpty());
+        }
+    }
+
+    private void edit(StyledDocument document) throws BadLocationException {
+        final int len = document.getLength();
+        final int pos = rnd.nextInt(len + 1);
+        if (len > 0 && rnd.nextBoolean()) {
+            document.remove(pos, Math.min(len - pos, 1 + rnd.nextInt(rnd.nextInt(5) == 0 ? 20 : 3)));
+        } else {
+            document.insertString(pos, snippet(), null);
+        }
+    }
+
+    private String snippet() {
+        return SNIPPETS[rnd.nextInt(SNIPPETS.length)];
+    }
+
+    private static Map<BaseChecker, Severity> enabled(CfgPropsHighlightingTask task, int mask, Severity severity) {
+        Map<BaseChecker, Severity> ret = new LinkedHashMap<>();
+        final List<BaseChecker> checkers = task.getCheckers();
+        for (int i = 0; i < checkers.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                ret.put(checkers.get(i), severity);
+            }
+        }
+        return ret;
+    }
+
+    private static List<String> describe(List<ErrorDescription> errors) {
+        List<String> ret = new ArrayList<>();
+        for (ErrorDescription error : errors) {
+            ret.add(error.getSeverity() + " " + error.getDescription());
+        }
+        Collections.sort(ret);
+        return ret;
+    }
+
+    private static String escape(String text) {
+        return text.replace("\r", "\\r").replace("\n", "\\n");
+    }
+
+    private static CompactPropertyMetadata property(String id, String type, Deprecation deprecation) {
+        ConfigurationMetadataProperty prop = new ConfigurationMetadataProperty();
+        prop.setId(id);
+        prop.setName(id);
+        prop.setType(type);
+        prop.setDeprecation(deprecation);
+        return CompactPropertyMetadata.of(prop);
+    }
+
+    private static Deprecation deprecation(Deprecation.Level level, String replacement) {
+        Deprecation ret = new Deprecation();
+        ret.setLevel(level);
+        ret.setReplacement(replacement);
+        return ret;
+    }
+
+    // service with fixed metadata, canceling a highlighting task at random while metadata is looked up
+    private class StubService implements SpringBootService {
+
+        private final Map<String, CompactPropertyMetadata> metadata = new HashMap<>();
+        private boolean ready;
+        private CfgPropsHighlightingTask cancelTarget;
+        private boolean canceled;
+
+        StubService() {
+            metadata.put("server.port", property("server.port", "java.lang.Integer", null));
+            metadata.put("debug", property("debug", "java.lang.Boolean", null));
+            metadata.put("spring.application.name", property("spring.application.name", "java.lang.String", null));
+            metadata.put("my.list", property("my.list", "java.util.List<java.lang.Integer>", null));
+            metadata.put("old.name", property("old.name", null,
+                    deprecation(Deprecation.Level.WARNING, "spring.application.name")));
+            metadata.put("removed.name", property("removed.name", null, deprecation(Deprecation.Level.ERROR, null)));
+        }
+
+        @Override
+        public CompactPropertyMetadata getCompactPropertyMetadata(String propertyName) {
+            if (cancelTarget != null && rnd.nextInt(5) == 0) {
+                cancelTarget.cancel();
+                canceled = true;
+            }
+            return metadata.get(propertyName);
+        }
+
+        @Override
+        public boolean isMetadataReady() {
+            return ready;
+        }
+
+        @Override
+        public void refresh() {
+        }
+
+        @Override
+        public void addChangeListener(ChangeListener listener) {
+        }
+
+        @Override
+        public void removeChangeListener(ChangeListener listener) {
+        }
+
+        @Override
+        public ClassPath getManagedClassPath() {
+            return null;
+        }
+
+        @Override
+        public Set<String> getPropertyNames() {
+            return metadata.keySet();
+        }
+
+        @Override
+        public Set<String> getCollectionPropertyNames() {
+            return Collections.singleton("my.list");
+        }
+
+        @Override
+        public Set<String> getMapPropertyNames() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public int getMapPropertyPrefixLength(String name) {
+            return 0;
+        }
+
+        @Override
+        public ConfigurationMetadataProperty getPropertyMetadata(String propertyName) {
+            final CompactPropertyMetadata prop = getCompactPropertyMetadata(propertyName);
+            return prop != null ? prop.toMetadataProperty() : null;
+        }
+
+        @Override
+        public List<ConfigurationMetadataProperty> queryPropertyMetadata(String filter) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<CompactPropertyMetadata> queryCompactPropertyMetadata(String filter) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<CompactPropertyMetadata> queryRankedCompactPropertyMetadata(String filter, int maxResults) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public HintProvider getHintProvider(String name) {
+            return null;
+        }
+
+        @Override
+        public boolean hasPomDependency(String artifactId) {
+            return false;
+        }
+
+        @Override
+        public String getRestartEnvVarName() {
+            return null;
+        }
+
+        @Override
+        public String getPluginPropsPrefix() {
+            return "";
+        }
+    }
+}
@@ -58,6 +58,21 @@ public class CfgVsPropsTest extends TestBase {
         }
     }
 
+    @Test
+    public void testCompareRecursiveDescentProps() throws IOException, URISyntaxException {
+        System.out.println("\n--- compare recursive descent parsed props");
+        try (InputStream is = getClass().getResourceAsStream("/load.properties")) {
+            Properties loaded = new Properties();
+            loaded.load(is);
+            final CfgPropsIncrementalParser incrParser = new CfgPropsIncrementalParser(new RecursiveDescentTextParser());
+            incrParser.parse(readResource("/load.properties"));
+            final Properties parsed = incrParser.getParsedProps();
+            listPropsOrdered(parsed);
+            assertTrue("Failed parsing", incrParser.getSyntaxErrors().isEmpty());
+            assertEquals("Different loaded/parsed props", loaded, parsed);
+        }
+    }
+
     public void testWriteProps() throws IOException {
         System.out.println("\n--- write props");
         Properties p = new Properties();
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.cfgprops.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import com.github.alexfalappa.nbspringboot.cfgprops.ParserTests;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test suite for CfgPropsIncrementalParser: results after an edit must be the same as parsing the edited text from scratch.
+ *
+ * @author Alessandro Falappa
+ */
+@Category(ParserTests.class)
+@RunWith(Parameterized.class)
+public class IncrementalParserTest {
+
+    private static final String BASE = "# heading comment\n"
+            + "server.port=8080\n"
+            + "server.address = localhost\n"
+            + "spring.application.name:demo\n"
+            + "! bang comment\n"
+            + "logging.level.root=INFO\n"
+            + "logging.level.org.springframework=DEBUG\n"
+            + "spring.datasource.url=jdbc:h2:mem:test\n"
+            + "spring.datasource.username=sa\n"
+            + "spring.datasource.password=\n"
+            + "my.list[0]=first\n"
+            + "my.list[1]=second\n"
+            + "my.map.key1=value1\n"
+            + "my.map.key2=value2\n"
+            + "multi.line=one, \\\n"
+            + "    two, \\\n"
+            + "    three\n"
+            + "unicode.value=caf\\u00e9\n"
+            + "last.key=last value";
+    private final CfgPropsTextParser textParser;
+
+    public IncrementalParserTest(String name, CfgPropsTextParser textParser) {
+        this.textParser = textParser;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> parsers() {
+        return Arrays.asList(
+                new Object[]{"recursive descent", new RecursiveDescentTextParser()},
+                new Object[]{"parboiled", new ParboiledTextParser()});
+    }
+
+    @Test
+    public void testEditAtStart() {
+        assertIncremental(BASE, "new.key=new\n" + BASE);
+        assertIncremental(BASE, "x" + BASE);
+        assertIncremental(BASE, BASE.substring(BASE.indexOf('\n') + 1));
+        assertIncremental(BASE, BASE.replaceFirst("# heading", "heading"));
+        assertIncremental("server.port=8080\n" + BASE, BASE);
+    }
+
+    @Test
+    public void testEditAtEnd() {
+        assertIncremental(BASE, BASE + "\n");
+        assertIncremental(BASE, BASE + "\nappended=value");
+        assertIncremental(BASE, BASE + "s");
+        assertIncremental(BASE, BASE.substring(0, BASE.length() - 1));
+        assertIncremental(BASE, BASE.substring(0, BASE.lastIndexOf('\n')));
+        assertIncremental(BASE + "\n", BASE);
+    }
+
+    @Test
+    public void testCrlf() {
+        final String crlf = BASE.replace("\n", "\r\n");
+        assertIncremental(crlf, crlf.replace("server.port=8080", "server.port=9090"));
+        assertIncremental(crlf, crlf.replaceFirst("\r\n", "\r\nnew.key=new\r\n"));
+        assertIncremental(crlf, crlf.replaceFirst("\r\n", "\n"));
+        assertIncremental(crlf, crlf.replaceFirst("\r\n", "\r"));
+        assertIncremental(crlf, crlf.replaceFirst("\r\n", "\r\r\n"));
+        assertIncremental(crlf, crlf + "\r\n");
+        assertIncremental(crlf + "\r", crlf + "\r\n");
+        assertIncremental(crlf, crlf.replace("one, \\\r\n", "one, \r\n"));
+        assertIncremental(BASE, crlf);
+    }
+
+    @Test
+    public void testContinuation() {
+        assertIncremental(BASE, BASE.replace("server.port=8080\n", "server.port=8080\\\n"));
+        assertIncremental(BASE, BASE.replace("one, \\\n", "one, \n"));
+        assertIncremental(BASE, BASE.replace("two, \\\n", "two, \\\\\n"));
+        assertIncremental(BASE, BASE + "\\");
+        assertIncremental(BASE + "\\", BASE);
+        assertIncremental(BASE + "\\\n", BASE + "\n");
+        assertIncremental(BASE, BASE.replace("# heading comment\n", "# heading comment\\\n"));
+    }
+
+    @Test
+    public void testDuplicateKeys() {
+        assertIncremental(BASE, BASE + "\nserver.port=9090");
+        assertIncremental(BASE, "server.port=7070\n" + BASE);
+        assertIncremental(BASE + "\nserver.port=9090", BASE);
+        final String dup = BASE.replace("my.map.key2=value2", "server.port=9090");
+        assertIncremental(dup, dup.replace("server.port=8080\n", ""));
+        assertIncremental(dup, dup.replace("server.port=9090", "server.port=7070"));
+        assertIncremental(dup, dup.replace("server.port=9090", "server.porta=9090"));
+        assertIncremental(dup, dup.replace("server.port=8080", "server.\\u0070ort=8080"));
+    }
+
+    @Test
+    public void testSyntaxErrors() {
+        assumeSyntaxErrorsLineBound();
+        assertIncremental(BASE, BASE.replace("my.list[0]", "my.list[0"));
+        assertIncremental(BASE.replace("my.list[0]", "my.list[0"), BASE);
+        assertIncremental(BASE, BASE.replace("caf\\u00e9", "caf\\u00g9"));
+        assertIncremental(BASE, BASE + "\nbad key = value");
+        assertIncremental(BASE + "\nbad key = value", BASE + "\nbad key = valu");
+        assertIncremental(BASE + "\nbad key = value", BASE);
+        assertIncremental(BASE, "bad] key\n" + BASE);
+        assertIncremental(BASE + "\nopen.key[0", BASE + "\nopen.key[");
+        assertIncremental(BASE + "\nopen.key[0", BASE + "\nopen.key[0\n");
+        final String twoErrors = BASE.replace("server.port", "server port").replace("last.key", "last key");
+        assertIncremental(twoErrors, twoErrors.replace("server port", "server.port"));
+        assertIncremental(twoErrors, twoErrors.replace("last key", "last.key"));
+    }
+
+    @Test
+    public void testRandomEdits() {
+        assumeSyntaxErrorsLineBound();
+        final String alphabet = "ab.=: \\\n\r#[]u0";
+        final Random rnd = new Random(42);
+        final CfgPropsIncrementalParser incremental = new CfgPropsIncrementalParser(textParser);
+        String text = BASE;
+        incremental.parse(text);
+        for (int i = 0; i < 2000; i++) {
+            final int start = rnd.nextInt(text.length() + 1);
+            final int end = Math.min(text.length(), start + rnd.nextInt(3));
+            final StringBuilder insert = new StringBuilder();
+            for (int n = rnd.nextInt(3); n > 0; n--) {
+                insert.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+            }
+            final String edited = text.substring(0, start) + insert + text.substring(end);
+            incremental.parse(edited);
+            assertSameAsFull(incremental, edited, text);
+            text = edited;
+        }
+    }
+
+    // Parboiled error recovery is not guaranteed to stop at line ends, so reparsing a region can recover differently
+    private void assumeSyntaxErrorsLineBound() {
+        assumeTrue(textParser instanceof RecursiveDescentTextParser);
+    }
+
+    private void assertIncremental(String before, String after) {
+        final CfgPropsIncrementalParser incremental = new CfgPropsIncrementalParser(textParser);
+        incremental.parse(before);
+        incremental.parse(after);
+        assertSameAsFull(incremental, after, before);
+    }
+
+    private void assertSameAsFull(CfgPropsIncrementalParser incremental, String text, String previous) {
+        final CfgPropsIncrementalParser full = new CfgPropsIncrementalParser(textParser);
+        full.parseFully(text);
+        final String msg = String.format("Editing [%s] into [%s]", escape(previous), escape(text));
+        assertEquals(msg, describe(full.getCfgFile()), describe(incremental.getCfgFile()));
+        assertEquals(msg, describe(full.getSyntaxErrors()), describe(incremental.getSyntaxErrors()));
+        assertEquals(msg, full.getParsedProps(), incremental.getParsedProps());
+    }
+
+    private List<String> describe(CfgFile cfgFile) {
+        List<String> ret = new ArrayList<>();
+        for (PairElement pair : cfgFile.getElements()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(pair.getKey().getIdxStart()).append('-').append(pair.getKey().getIdxEnd())
+                    .append(" [").append(pair.getKey().getText()).append(']');
+            if (pair.getValue() != null) {
+                sb.append(' ').append(pair.getValue().getIdxStart()).append('-').append(pair.getValue().getIdxEnd())
+                        .append(" [").append(pair.getValue().getText()).append(']');
+            }
+            ret.add(sb.toString());
+        }
+        return ret;
+    }
+
+    private List<String> describe(List<CfgSyntaxError> errors) {
+        List<String> ret = new ArrayList<>();
+        for (CfgSyntaxError error : errors) {
+            ret.add(String.format("%d-%d %s", error.getIdxStart(), error.getIdxEnd(), error.getMessage()));
+        }
+        return ret;
+    }
+
+    private static String escape(String text) {
+        return text.replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
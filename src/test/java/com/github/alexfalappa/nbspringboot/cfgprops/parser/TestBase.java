@@ -5,6 +5,8 @@ import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.TreeSet;
 
@@ -19,7 +21,10 @@ import org.parboiled.support.ParseTreeUtils;
 import org.parboiled.support.ParsingResult;
 
 import com.github.alexfalappa.nbspringboot.cfgprops.ParserTests;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.CfgFile;
+import com.github.alexfalappa.nbspringboot.cfgprops.ast.PairElement;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -34,6 +39,7 @@ public class TestBase {
     final protected CfgPropsParboiled parser;
     final protected ReportingParseRunner reportingRunner;
     final protected TracingParseRunner tracingRunner;
+    final protected RecursiveDescentTextParser rdParser = new RecursiveDescentTextParser();
 
     TestBase() {
         parser = Parboiled.createParser(CfgPropsParboiled.class);
@@ -54,6 +60,7 @@ public class TestBase {
             result = tracingRunner.run(input);
         }
         assertFalse(result.matched);
+        assertSameAsRecursiveDescent(input, false);
     }
 
     protected void parseMatch(String input) {
@@ -73,6 +80,32 @@ public class TestBase {
         }
         assertTrue(result.matched);
         assertFalse(result.hasErrors());
+        assertSameAsRecursiveDescent(input, true);
+    }
+
+    // the hand-written parser must accept the same inputs giving the same pairs
+    private void assertSameAsRecursiveDescent(String input, boolean matched) {
+        List<CfgSyntaxError> errors = new ArrayList<>();
+        final CfgFile cfgFile = rdParser.parse(input, errors);
+        assertEquals("Recursive descent parser disagrees on syntax errors", matched, errors.isEmpty());
+        if (matched) {
+            assertEquals("Recursive descent parser gives different pairs", describe(parser.getCfgFile()), describe(cfgFile));
+        }
+    }
+
+    private List<String> describe(CfgFile cfgFile) {
+        List<String> ret = new ArrayList<>();
+        for (PairElement pair : cfgFile.getElements()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(pair.getKey().getIdxStart()).append('-').append(pair.getKey().getIdxEnd())
+                    .append(" [").append(pair.getKey().getText()).append(']');
+            if (pair.getValue() != null) {
+                sb.append(' ').append(pair.getValue().getIdxStart()).append('-').append(pair.getValue().getIdxEnd())
+                        .append(" [").append(pair.getValue().getText()).append(']');
+            }
+            ret.add(sb.toString());
+        }
+        return ret;
     }
 
     protected String readResource(String name) throws IOException, URISyntaxException {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test PropertyType class.
+ *
+ * @author Alessandro Falappa
+ */
+public class PropertyTypeTest {
+
+    @Test
+    public void testCollections() {
+        System.out.println("isCollection");
+        assertTrue(PropertyType.of("java.lang.String[]").isCollection());
+        assertTrue(PropertyType.of("java.util.List<java.lang.String>").isCollection());
+        assertTrue(PropertyType.of("java.util.Set<java.lang.Integer>").isCollection());
+        assertTrue(PropertyType.of("java.util.Collection<java.lang.Long>").isCollection());
+        assertTrue(PropertyType.of("java.util.SortedSet<java.lang.String>").isCollection());
+        assertTrue(PropertyType.of("java.util.List<java.util.Map<java.lang.String,java.lang.Integer>>").isCollection());
+    }
+
+    @Test
+    public void testNotCollections() {
+        System.out.println("isCollection on other types");
+        assertFalse(PropertyType.of("java.lang.String").isCollection());
+        assertFalse(PropertyType.of("java.lang.Class<?>").isCollection());
+        assertFalse(PropertyType.of("java.util.Optional<java.lang.String>").isCollection());
+        assertFalse(PropertyType.of("java.util.function.Supplier<java.lang.String>").isCollection());
+        assertFalse(PropertyType.of("java.lang.Class<? extends java.util.EventListener>").isCollection());
+        assertFalse(PropertyType.of("java.util.Map<java.lang.String,java.lang.String>").isCollection());
+        assertFalse(PropertyType.of("java.util.BitSet").isCollection());
+        assertFalse(PropertyType.of("java.util.List").isCollection());
+    }
+
+    @Test
+    public void testTypeArguments() {
+        System.out.println("type arguments");
+        PropertyType map = PropertyType.of("java.util.Map<java.lang.String,java.util.List<java.lang.Integer>>");
+        assertTrue(map.isMap());
+        assertTrue(map.isGeneric());
+        assertEquals("java.util.Map", map.getRawType());
+        assertEquals("java.lang.String", map.getKeyType());
+        assertEquals("java.util.List<java.lang.Integer>", map.getValueType());
+        assertNull(map.getElementType());
+        PropertyType array = PropertyType.of("java.lang.Integer[]");
+        assertTrue(array.isArray());
+        assertFalse(array.isGeneric());
+        assertEquals("java.lang.Integer", array.getElementType());
+        PropertyType optional = PropertyType.of("java.util.Optional<java.lang.String>");
+        assertEquals("java.util.Optional", optional.getRawType());
+        assertEquals("java.lang.String", optional.getElementType());
+        assertFalse(optional.isMap());
+    }
+
+    @Test
+    public void testShared() {
+        System.out.println("of");
+        assertSame(PropertyType.of("java.lang.String"), PropertyType.of(" java.lang.String "));
+        assertNull(PropertyType.of(null));
+    }
+}
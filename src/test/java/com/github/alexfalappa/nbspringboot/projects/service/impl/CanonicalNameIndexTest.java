@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.springframework.boot.bind.RelaxedNames;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+import static com.github.alexfalappa.nbspringboot.projects.service.impl.TestProperties.MAP_NAMES;
+import static com.github.alexfalappa.nbspringboot.projects.service.impl.TestProperties.NAMES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for CanonicalNameIndex: names resolved through relaxed names variants must resolve to the same properties.
+ *
+ * @author Alessandro Falappa
+ */
+public class CanonicalNameIndexTest {
+
+    private static final Pattern PATTERN_ARRAY_NOTATION = Pattern.compile("(.+)\\[\\d+\\]");
+    private final Map<String, CompactPropertyMetadata> properties = TestProperties.properties();
+    private final CanonicalNameIndex index = new CanonicalNameIndex(properties, MAP_NAMES);
+
+    @Test
+    public void testCanonicalize() {
+        System.out.println("testCanonicalize");
+        assertEquals("server.servlet.contextpath", CanonicalNameIndex.canonicalize("server.servlet.context-path"));
+        assertEquals("server.servlet.contextpath", CanonicalNameIndex.canonicalize("server.servlet.contextPath"));
+        assertEquals("server.servlet.contextpath", CanonicalNameIndex.canonicalize("Server.Servlet.CONTEXT_PATH"));
+        assertEquals("my.list[0]", CanonicalNameIndex.canonicalize("my.list[0]"));
+    }
+
+    @Test
+    public void testSameAsRelaxedNames() {
+        System.out.println("testSameAsRelaxedNames");
+        int resolved = 0;
+        for (String name : lookupNames()) {
+            final CompactPropertyMetadata expected = relaxedLookup(name);
+            if (expected != null) {
+                assertSame(name, expected, index.lookup(name));
+                resolved++;
+            }
+        }
+        // most variants resolved with relaxed names too
+        assertTrue(resolved > NAMES.size() * 3);
+    }
+
+    @Test
+    public void testRelaxedForms() {
+        System.out.println("testRelaxedForms");
+        final CompactPropertyMetadata contextPath = properties.get("server.servlet.context-path");
+        assertSame(contextPath, index.lookup("server.servlet.context-path"));
+        assertSame(contextPath, index.lookup("server.servlet.contextPath"));
+        assertSame(contextPath, index.lookup("server.servlet.context_path"));
+        assertSame(contextPath, index.lookup("server.servlet.contextpath"));
+        assertSame(contextPath, index.lookup("Server.Servlet.Context-Path"));
+        assertSame(contextPath, index.lookup("SERVER_SERVLET_CONTEXTPATH"));
+        assertSame(properties.get("server.port"), index.lookup("SERVER_PORT"));
+        assertSame(properties.get("spring.datasource.hikari.maximum-pool-size"),
+                index.lookup("spring.datasource.hikari.maximumPoolSize"));
+    }
+
+    @Test
+    public void testArrayNotation() {
+        System.out.println("testArrayNotation");
+        final CompactPropertyMetadata include = properties.get("spring.profiles.include");
+        assertSame(include, index.lookup("spring.profiles.include[0]"));
+        assertSame(include, index.lookup("spring.profiles.include[10]"));
+        assertSame(include, index.lookup("SPRING_PROFILES_INCLUDE[1]"));
+        assertSame(properties.get("spring.cache.cache-names"), index.lookup("spring.cache.cacheNames[2]"));
+        assertNull(index.lookup("spring.profiles.include[]"));
+        assertNull(index.lookup("spring.profiles.include[a]"));
+        assertNull(index.lookup("spring.profiles[0]"));
+    }
+
+    @Test
+    public void testMapNotation() {
+        System.out.println("testMapNotation");
+        final CompactPropertyMetadata level = properties.get("logging.level");
+        assertSame(level, index.lookup("logging.level.root"));
+        assertSame(level, index.lookup("logging.level.org.springframework.web"));
+        assertSame(level, index.lookup("logging.level[org.springframework]"));
+        assertSame(level, index.lookup("LOGGING_LEVEL_ROOT"));
+        assertSame(properties.get("spring.kafka.consumer.properties"),
+                index.lookup("spring.kafka.consumer.properties.max.poll.records"));
+        assertSame(properties.get("spring.kafka.properties"), index.lookup("spring.kafka.properties.max.poll.records"));
+        assertSame(properties.get("spring.datasource.hikari.data-source-properties"),
+                index.lookup("spring.datasource.hikari.dataSourceProperties.cachePrepStmts"));
+        assertEquals("logging.level".length(), index.mapPropertyPrefixLength("logging.level.root"));
+        assertEquals("spring.jpa.Properties".length(), index.mapPropertyPrefixLength("spring.jpa.Properties[hibernate]"));
+        assertEquals(0, index.mapPropertyPrefixLength("logging.level"));
+        assertEquals(0, index.mapPropertyPrefixLength("logging.levels.root"));
+    }
+
+    @Test
+    public void testUnknown() {
+        System.out.println("testUnknown");
+        assertNull(index.lookup(""));
+        assertNull(index.lookup("foo"));
+        assertNull(index.lookup("server"));
+        assertNull(index.lookup("server.portx"));
+        assertNull(index.lookup("spring.jpa"));
+        assertNull(index.lookup("logging.levels.root"));
+        assertNotNull(index.lookup("logging.level"));
+    }
+
+    // names as written in configuration files: relaxed forms of the known names, array indexes and map keys
+    private static List<String> lookupNames() {
+        List<String> ret = new ArrayList<>();
+        for (String name : NAMES) {
+            final String camel = camelCase(name);
+            ret.add(name);
+            ret.add(camel);
+            ret.add(name.replace('-', '_'));
+            ret.add(name.toUpperCase());
+            ret.add(name.toUpperCase().replace('.', '_').replace('-', '_'));
+            ret.add(name + "[0]");
+            ret.add(camel + "[12]");
+            if (MAP_NAMES.contains(name)) {
+                ret.add(name + ".key");
+                ret.add(name + ".some.key");
+                ret.add(camel + ".someKey");
+                ret.add(name + "[key]");
+            }
+        }
+        ret.add("foo.bar");
+        ret.add("server");
+        return ret;
+    }
+
+    private static String camelCase(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '-' && i + 1 < name.length()) {
+                sb.append(Character.toUpperCase(name.charAt(++i)));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // property lookup as done before the canonical name index
+    private CompactPropertyMetadata relaxedLookup(String propertyName) {
+        for (String relaxedName : new RelaxedNames(propertyName)) {
+            if (properties.containsKey(relaxedName)) {
+                return properties.get(relaxedName);
+            } else {
+                Matcher mArrNot = PATTERN_ARRAY_NOTATION.matcher(relaxedName);
+                if (mArrNot.matches()) {
+                    return properties.get(mArrNot.group(1));
+                } else {
+                    for (String mapPropertyName : MAP_NAMES) {
+                        if (relaxedName.startsWith(mapPropertyName)) {
+                            return properties.get(mapPropertyName);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
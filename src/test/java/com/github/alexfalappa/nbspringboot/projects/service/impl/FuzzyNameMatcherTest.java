@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+import static com.github.alexfalappa.nbspringboot.projects.service.impl.TestProperties.NAMES;
+import static com.github.alexfalappa.nbspringboot.projects.service.impl.TestProperties.ids;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for FuzzyNameMatcher and ranked queries of PropertyNameIndex.
+ *
+ * @author Alessandro Falappa
+ */
+public class FuzzyNameMatcherTest {
+
+    private final PropertyNameIndex index = new PropertyNameIndex(TestProperties.properties());
+
+    @Test
+    public void testSegmentStarts() {
+        System.out.println("testSegmentStarts");
+        assertArrayEquals(new int[]{0}, FuzzyNameMatcher.segmentStarts("debug"));
+        assertArrayEquals(new int[]{0, 7, 11}, FuzzyNameMatcher.segmentStarts("server.ssl.keystore"));
+        assertArrayEquals(new int[]{0, 7}, FuzzyNameMatcher.segmentStarts("server."));
+        assertArrayEquals(new String[]{"s", "d", "url"}, new FuzzyNameMatcher("S.D.URL").getSegments());
+        assertArrayEquals(new String[]{"server", ""}, new FuzzyNameMatcher("server.").getSegments());
+    }
+
+    @Test
+    public void testMatchKinds() {
+        System.out.println("testMatchKinds");
+        // exact segment beats prefix, prefix beats substring
+        final FuzzyNameMatcher matcher = new FuzzyNameMatcher("port");
+        final int exact = matcher.score("server.port");
+        final int prefix = matcher.score("server.ports");
+        final int substring = matcher.score("server.export");
+        assertTrue(exact > prefix);
+        assertTrue(prefix > substring);
+        assertEquals(FuzzyNameMatcher.NO_MATCH, matcher.score("server.address"));
+        // skipped leading, middle and trailing segments lower the score
+        final FuzzyNameMatcher urlMatcher = new FuzzyNameMatcher("s.url");
+        assertTrue(urlMatcher.score("spring.url") > urlMatcher.score("spring.datasource.url"));
+        assertTrue(urlMatcher.score("spring.url") > urlMatcher.score("spring.url.extra"));
+        assertTrue(urlMatcher.score("spring.url") > urlMatcher.score("my.spring.url"));
+        // filter segments must match in order
+        assertEquals(FuzzyNameMatcher.NO_MATCH, urlMatcher.score("url.spring"));
+        assertEquals(FuzzyNameMatcher.NO_MATCH, new FuzzyNameMatcher("server.server").score("server.port"));
+    }
+
+    @Test
+    public void testMatchesContaining() {
+        System.out.println("testMatchesContaining");
+        // names containing the filter, i.e. the results before ranking, are still matched
+        for (String filter : PropertyNameIndexTest.filters()) {
+            final FuzzyNameMatcher matcher = new FuzzyNameMatcher(filter);
+            final String canonFilter = CanonicalNameIndex.canonicalize(filter);
+            for (String name : NAMES) {
+                final String canon = CanonicalNameIndex.canonicalize(name);
+                if (canon.contains(canonFilter)) {
+                    assertNotEquals(filter + " -> " + name, FuzzyNameMatcher.NO_MATCH, matcher.score(canon));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRanking() {
+        System.out.println("testRanking");
+        assertEquals("spring.datasource.url", ids(index.queryRanked("s.d.url", 10)).get(0));
+        assertEquals("spring.datasource.url", ids(index.queryRanked("spring.source.url", 10)).get(0));
+        assertEquals(Arrays.asList("server.port", "management.server.port", "spring.redis.port"),
+                ids(index.queryRanked("port", 3)));
+        assertEquals(Arrays.asList("server.ssl.key-store", "server.ssl.key-store-password"),
+                ids(index.queryRanked("ssl.keyStore", 10)));
+        assertEquals("spring.jpa.show-sql", ids(index.queryRanked("jpa.sql", 10)).get(0));
+    }
+
+    @Test
+    public void testQueryRanked() {
+        System.out.println("testQueryRanked");
+        for (String filter : PropertyNameIndexTest.filters()) {
+            for (int max : new int[]{1, 5, NAMES.size()}) {
+                assertEquals(filter + " max " + max, rank(filter, max), ids(index.queryRanked(filter, max)));
+            }
+        }
+        for (String filter : Arrays.asList("s.d.url", "sp.da.", "server.", ".port", "jpa.sql", "x.y")) {
+            assertEquals(filter, rank(filter, NAMES.size()), ids(index.queryRanked(filter, NAMES.size())));
+        }
+        assertEquals(rank("", 5), ids(index.queryRanked(null, 5)));
+        assertEquals(rank("", 5), ids(index.queryRanked("", 5)));
+        assertTrue(index.queryRanked("port", 0).isEmpty());
+    }
+
+    // ids of matching names sorted by decreasing score then canonical name, limited in number
+    private static List<String> rank(String filter, int max) {
+        final FuzzyNameMatcher matcher = new FuzzyNameMatcher(filter);
+        List<String> ret = new ArrayList<>();
+        for (String name : NAMES) {
+            if (filter.isEmpty() || matcher.score(CanonicalNameIndex.canonicalize(name)) != FuzzyNameMatcher.NO_MATCH) {
+                ret.add(name);
+            }
+        }
+        ret.sort(Comparator.comparingInt((String name) -> filter.isEmpty() ? 0
+                : -matcher.score(CanonicalNameIndex.canonicalize(name)))
+                .thenComparing(CanonicalNameIndex::canonicalize));
+        return ret.subList(0, Math.min(max, ret.size()));
+    }
+}
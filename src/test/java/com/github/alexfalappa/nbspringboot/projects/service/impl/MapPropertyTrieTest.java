@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test suite for MapPropertyTrie: the longest map property prefix must be the same as found probing all name prefixes.
+ *
+ * @author Alessandro Falappa
+ */
+public class MapPropertyTrieTest {
+
+    private static final String MAP_TYPE = "java.util.Map<java.lang.String,java.lang.String>";
+    private final Map<String, CompactPropertyMetadata> maps = new LinkedHashMap<>();
+    private final MapPropertyTrie trie;
+
+    public MapPropertyTrieTest() {
+        for (String name : TestProperties.MAP_NAMES) {
+            maps.put(name, TestProperties.property(name, MAP_TYPE));
+        }
+        // nested maps and names sharing prefixes
+        for (String name : Arrays.asList("a.map", "a.map.nested", "a.map.nested.deep", "a.map-other", "a.b", "a.bc")) {
+            maps.put(name, TestProperties.property(name, MAP_TYPE));
+        }
+        trie = new MapPropertyTrie(maps);
+    }
+
+    @Test
+    public void testLongestPrefix() {
+        System.out.println("testLongestPrefix");
+        assertSame(maps.get("a.map"), trie.longestPrefix("a.map.key"));
+        assertSame(maps.get("a.map"), trie.longestPrefix("a.map[key]"));
+        assertSame(maps.get("a.map.nested"), trie.longestPrefix("a.map.nested.key"));
+        assertSame(maps.get("a.map.nested"), trie.longestPrefix("a.map.nested[key.with.dots]"));
+        assertSame(maps.get("a.map.nested.deep"), trie.longestPrefix("a.map.nested.deep.key"));
+        assertSame(maps.get("a.map"), trie.longestPrefix("a.map.nestedx.key"));
+        assertSame(maps.get("a.map-other"), trie.longestPrefix("a.mapOther.key"));
+        assertSame(maps.get("a.map-other"), trie.longestPrefix("A.MAP_OTHER.key"));
+        assertSame(maps.get("a.b"), trie.longestPrefix("a.b.c"));
+        assertSame(maps.get("a.bc"), trie.longestPrefix("a.bc.d"));
+        assertSame(maps.get("spring.kafka.consumer.properties"),
+                trie.longestPrefix("spring.kafka.consumer.properties.max.poll.records"));
+        assertSame(maps.get("logging.level"), trie.longestPrefix("logging.level.org.springframework"));
+        assertNull(trie.longestPrefix("a.map"));
+        assertNull(trie.longestPrefix("a.mapx.key"));
+        assertNull(trie.longestPrefix("a.ma.key"));
+        assertNull(trie.longestPrefix(""));
+        assertNull(new MapPropertyTrie(new HashMap<>()).longestPrefix("a.map.key"));
+    }
+
+    @Test
+    public void testPrefixLength() {
+        System.out.println("testPrefixLength");
+        assertEquals("a.map".length(), trie.prefixLength("a.map.key"));
+        assertEquals("a.map".length(), trie.prefixLength("a.map[0]"));
+        assertEquals("a.map.nested".length(), trie.prefixLength("a.map.nested.key"));
+        assertEquals("a.mapOther".length(), trie.prefixLength("a.mapOther.key"));
+        assertEquals("A.MAP_-OTHER".length(), trie.prefixLength("A.MAP_-OTHER.key"));
+        assertEquals(0, trie.prefixLength("a.map"));
+        assertEquals(0, trie.prefixLength("a.mapx.key"));
+    }
+
+    @Test
+    public void testSameAsProbingPrefixes() {
+        System.out.println("testSameAsProbingPrefixes");
+        for (String name : names()) {
+            assertEquals(name, probePrefixLength(name), trie.prefixLength(name));
+            assertSame(name, probe(name), trie.longestPrefix(name));
+        }
+    }
+
+    // map names in relaxed forms followed by keys, plus random names over the chars of short map names
+    private List<String> names() {
+        List<String> ret = new ArrayList<>();
+        for (String name : maps.keySet()) {
+            for (String form : Arrays.asList(name, name.toUpperCase(), name.replace('-', '_'), name.replace("-", ""))) {
+                ret.add(form);
+                ret.add(form + ".key");
+                ret.add(form + "[key]");
+                ret.add(form + ".nested.key");
+                ret.add(form + "x.key");
+            }
+        }
+        final String alphabet = "abmp.-_[";
+        final Random rnd = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder("a.");
+            for (int n = rnd.nextInt(12); n > 0; n--) {
+                sb.append(alphabet.charAt(rnd.nextInt(alphabet.length())));
+            }
+            ret.add(sb.toString());
+        }
+        return ret;
+    }
+
+    // length of the longest prefix ending before a dot or bracket whose canonical form is a map property
+    private int probePrefixLength(String name) {
+        Map<String, CompactPropertyMetadata> byCanonical = new HashMap<>();
+        for (Map.Entry<String, CompactPropertyMetadata> entry : maps.entrySet()) {
+            byCanonical.put(CanonicalNameIndex.canonicalize(entry.getKey()), entry.getValue());
+        }
+        for (int i = name.length() - 1; i > 0; i--) {
+            final char c = name.charAt(i);
+            if ((c == '.' || c == '[') && byCanonical.containsKey(CanonicalNameIndex.canonicalize(name.substring(0, i)))) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private CompactPropertyMetadata probe(String name) {
+        final int len = probePrefixLength(name);
+        if (len == 0) {
+            return null;
+        }
+        final String canonPrefix = CanonicalNameIndex.canonicalize(name.substring(0, len));
+        for (Map.Entry<String, CompactPropertyMetadata> entry : maps.entrySet()) {
+            if (CanonicalNameIndex.canonicalize(entry.getKey()).equals(canonPrefix)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataRepositoryJsonBuilder;
+import org.springframework.boot.configurationmetadata.Deprecation;
+import org.springframework.boot.configurationmetadata.Hints;
+import org.springframework.boot.configurationmetadata.ValueHint;
+import org.springframework.boot.configurationmetadata.ValueProvider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Test suite for MetadataJsonReader: properties read from the JSON stream must be the same as those built by the Spring
+ * Boot metadata repository builder.
+ *
+ * @author Alessandro Falappa
+ */
+public class MetadataJsonReaderTest {
+
+    private static final String RESOURCE = "/test-metadata.json";
+
+    @Test
+    public void testSameAsRepositoryBuilder() throws IOException {
+        System.out.println("testSameAsRepositoryBuilder");
+        Map<String, ConfigurationMetadataProperty> expected;
+        try (InputStream is = getClass().getResourceAsStream(RESOURCE)) {
+            expected = ConfigurationMetadataRepositoryJsonBuilder.create().withJsonResource(is).build().getAllProperties();
+        }
+        final Map<String, ConfigurationMetadataProperty> actual = read();
+        assertEquals(new TreeMap<>(expected).keySet(), new TreeMap<>(actual).keySet());
+        for (String id : expected.keySet()) {
+            assertEquals(id, describe(expected.get(id)), describe(actual.get(id)));
+        }
+    }
+
+    @Test
+    public void testNames() throws IOException {
+        System.out.println("testNames");
+        final Map<String, ConfigurationMetadataProperty> props = read();
+        assertEquals(15, props.size());
+        // document order
+        assertEquals("server.port", props.keySet().iterator().next());
+        // relative to the longest group of the source type
+        assertEquals("port", props.get("server.port").getName());
+        assertEquals("servlet.context-path", props.get("server.servlet.context-path").getName());
+        assertEquals("key-store", props.get("server.ssl.key-store").getName());
+        assertEquals("url", props.get("spring.datasource.url").getName());
+        assertEquals("level", props.get("logging.level").getName());
+        // no group of the source type or no source type
+        assertEquals("server.compression.min-response-size", props.get("server.compression.min-response-size").getName());
+        assertEquals("debug", props.get("debug").getName());
+        assertEquals("spring.application.name", props.get("spring.application.name").getName());
+    }
+
+    @Test
+    public void testDescriptionsAndDefaults() throws IOException {
+        System.out.println("testDescriptionsAndDefaults");
+        final Map<String, ConfigurationMetadataProperty> props = read();
+        final ConfigurationMetadataProperty contextPath = props.get("server.servlet.context-path");
+        assertEquals("java.lang.String", contextPath.getType());
+        assertEquals("Context path of the application.", contextPath.getShortDescription());
+        assertEquals("Load factor", props.get("server.load-factor").getShortDescription());
+        assertNull(props.get("spring.application.name").getDescription());
+        assertNull(props.get("spring.application.name").getShortDescription());
+        assertEquals(8080, props.get("server.port").getDefaultValue());
+        assertEquals(4294967296L, props.get("server.compression.min-response-size").getDefaultValue());
+        assertEquals(0.75, props.get("server.load-factor").getDefaultValue());
+        assertEquals(Boolean.TRUE, props.get("server.ssl.enabled").getDefaultValue());
+        assertEquals("embedded", props.get("spring.datasource.initialization-mode").getDefaultValue());
+        assertArrayEquals(new Object[]{"TLS_AES_128_GCM_SHA256", "TLS_AES_256_GCM_SHA384"},
+                (Object[]) props.get("server.ssl.ciphers").getDefaultValue());
+        assertNull(props.get("server.ssl.key-store").getDefaultValue());
+    }
+
+    @Test
+    public void testDeprecation() throws IOException {
+        System.out.println("testDeprecation");
+        final Map<String, ConfigurationMetadataProperty> props = read();
+        final Deprecation error = props.get("server.max-http-header-size").getDeprecation();
+        assertEquals(Deprecation.Level.ERROR, error.getLevel());
+        assertEquals("Replaced to support additional strategies.", error.getShortReason());
+        assertEquals("server.max-http-request-header-size", error.getReplacement());
+        final Deprecation warning = props.get("server.use-forward-headers").getDeprecation();
+        assertEquals(Deprecation.Level.WARNING, warning.getLevel());
+        assertNull(warning.getReason());
+        assertEquals("server.forward-headers-strategy", warning.getReplacement());
+        final Deprecation flag = props.get("server.connection-timeout").getDeprecation();
+        assertNotNull(flag);
+        assertEquals(Deprecation.Level.WARNING, flag.getLevel());
+        assertNull(props.get("server.port").getDeprecation());
+    }
+
+    @Test
+    public void testHints() throws IOException {
+        System.out.println("testHints");
+        final Map<String, ConfigurationMetadataProperty> props = read();
+        final Hints mode = props.get("spring.datasource.initialization-mode").getHints();
+        assertEquals(3, mode.getValueHints().size());
+        assertEquals("always", mode.getValueHints().get(0).getValue());
+        assertEquals("Only initialize an embedded datasource.", mode.getValueHints().get(1).getShortDescription());
+        assertNull(mode.getValueHints().get(2).getDescription());
+        final Hints level = props.get("logging.level").getHints();
+        assertEquals("root", level.getKeyHints().get(0).getValue());
+        assertEquals("logger-name", level.getKeyProviders().get(0).getName());
+        assertEquals(2, level.getValueHints().size());
+        assertEquals("any", level.getValueProviders().get(0).getName());
+        final ValueProvider classReference = props.get("spring.datasource.url").getHints().getValueProviders().get(0);
+        assertEquals("class-reference", classReference.getName());
+        assertEquals("java.sql.Driver", classReference.getParameters().get("target"));
+        assertEquals(Boolean.TRUE, classReference.getParameters().get("concrete"));
+        assertEquals(8443, props.get("server.port").getHints().getValueHints().get(1).getValue());
+        assertEquals(0, props.get("debug").getHints().getValueHints().size());
+    }
+
+    private Map<String, ConfigurationMetadataProperty> read() throws IOException {
+        return MetadataJsonReader.read(getClass().getResourceAsStream(RESOURCE));
+    }
+
+    private static String describe(ConfigurationMetadataProperty prop) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("id: ").append(prop.getId())
+                .append("\nname: ").append(prop.getName())
+                .append("\ntype: ").append(prop.getType())
+                .append("\ndescription: ").append(prop.getDescription())
+                .append("\nshort description: ").append(prop.getShortDescription())
+                .append("\ndefault: ").append(describeValue(prop.getDefaultValue()));
+        final Deprecation depr = prop.getDeprecation();
+        if (depr != null) {
+            sb.append("\ndeprecation: ").append(depr.getLevel())
+                    .append(", ").append(depr.getReason())
+                    .append(", ").append(depr.getShortReason())
+                    .append(", ").append(depr.getReplacement());
+        }
+        final Hints hints = prop.getHints();
+        sb.append("\nkey hints: ").append(describeHints(hints.getKeyHints()))
+                .append("\nkey providers: ").append(describeProviders(hints.getKeyProviders()))
+                .append("\nvalue hints: ").append(describeHints(hints.getValueHints()))
+                .append("\nvalue providers: ").append(describeProviders(hints.getValueProviders()));
+        return sb.toString();
+    }
+
+    private static String describeValue(Object value) {
+        if (value instanceof Object[]) {
+            return Arrays.deepToString((Object[]) value);
+        }
+        return value != null ? value.getClass().getSimpleName() + ' ' + value : "null";
+    }
+
+    private static List<String> describeHints(List<ValueHint> hints) {
+        List<String> ret = new ArrayList<>();
+        for (ValueHint hint : hints) {
+            ret.add(describeValue(hint.getValue()) + " - " + hint.getDescription() + " - " + hint.getShortDescription());
+        }
+        return ret;
+    }
+
+    private static List<String> describeProviders(List<ValueProvider> providers) {
+        List<String> ret = new ArrayList<>();
+        for (ValueProvider provider : providers) {
+            ret.add(provider.getName() + ' ' + new TreeMap<>(provider.getParameters()));
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static com.github.alexfalappa.nbspringboot.projects.service.impl.TestProperties.NAMES;
+import static com.github.alexfalappa.nbspringboot.projects.service.impl.TestProperties.ids;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for PropertyNameIndex: queries must give the same results as scanning all property names.
+ *
+ * @author Alessandro Falappa
+ */
+public class PropertyNameIndexTest {
+
+    private final PropertyNameIndex index = new PropertyNameIndex(TestProperties.properties());
+
+    @Test
+    public void testQueryAll() {
+        System.out.println("testQueryAll");
+        assertEquals(NAMES.size(), index.size());
+        assertEquals(scan(""), ids(index.query(null)));
+        assertEquals(scan(""), ids(index.query("")));
+        assertEquals(scan(""), ids(index.queryPrefix(null)));
+        assertEquals(scan(""), ids(index.queryPrefix("")));
+    }
+
+    @Test
+    public void testQuery() {
+        System.out.println("testQuery");
+        for (String filter : filters()) {
+            assertEquals(filter, scan(filter), ids(index.query(filter)));
+        }
+        assertTrue(index.query("nonexistent").isEmpty());
+        assertTrue(index.query("zq").isEmpty());
+    }
+
+    @Test
+    public void testQueryContainsOldResults() {
+        System.out.println("testQueryContainsOldResults");
+        // names containing the filter as typed were the results before indexing
+        for (String name : NAMES) {
+            for (int len = 1; len <= 6 && len <= name.length(); len++) {
+                for (int i = 0; i + len <= name.length(); i++) {
+                    final String filter = name.substring(i, i + len);
+                    final List<String> found = ids(index.query(filter));
+                    for (String other : NAMES) {
+                        if (other.contains(filter)) {
+                            assertTrue(filter + " -> " + other, found.contains(other));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQueryRelaxed() {
+        System.out.println("testQueryRelaxed");
+        final List<String> expected = Arrays.asList("server.servlet.context-path");
+        assertEquals(expected, ids(index.query("context-path")));
+        assertEquals(expected, ids(index.query("contextPath")));
+        assertEquals(expected, ids(index.query("context_path")));
+        assertEquals(expected, ids(index.query("CONTEXT_PATH")));
+        assertEquals(expected, ids(index.query("servlet.contextpath")));
+        assertEquals(Arrays.asList("server.ssl.key-store", "server.ssl.key-store-password"), ids(index.query("keyStore")));
+    }
+
+    @Test
+    public void testQueryPrefix() {
+        System.out.println("testQueryPrefix");
+        for (String name : NAMES) {
+            final String canon = CanonicalNameIndex.canonicalize(name);
+            for (int len = 1; len <= canon.length(); len++) {
+                final String prefix = canon.substring(0, len);
+                assertEquals(prefix, scanPrefix(prefix), ids(index.queryPrefix(prefix)));
+            }
+        }
+        assertEquals(scanPrefix("spring.jpa."), ids(index.queryPrefix("Spring.JPA.")));
+        assertEquals(Arrays.asList("server.ssl.key-store", "server.ssl.key-store-password"),
+                ids(index.queryPrefix("server.ssl.keyStore")));
+        assertTrue(index.queryPrefix("a").isEmpty());
+        assertTrue(index.queryPrefix("zzz").isEmpty());
+    }
+
+    // all substrings up to six chars of canonical names plus some in relaxed forms
+    static Set<String> filters() {
+        Set<String> ret = new TreeSet<>();
+        for (String name : NAMES) {
+            final String canon = CanonicalNameIndex.canonicalize(name);
+            for (int len = 1; len <= 6 && len <= canon.length(); len++) {
+                for (int i = 0; i + len <= canon.length(); i++) {
+                    ret.add(canon.substring(i, i + len));
+                }
+            }
+        }
+        ret.addAll(Arrays.asList("max-threads", "maxThreads", "MAX_THREADS", "Spring.Datasource", "pool-size",
+                "data-source", "hikari.", ".port", "host", "a-b", "-", "_", "."));
+        return ret;
+    }
+
+    // ids of names whose canonical form contains the canonical filter, in canonical order
+    private static List<String> scan(String filter) {
+        final String canonFilter = CanonicalNameIndex.canonicalize(filter);
+        Map<String, String> ret = new TreeMap<>();
+        for (String name : NAMES) {
+            final String canon = CanonicalNameIndex.canonicalize(name);
+            if (canon.contains(canonFilter)) {
+                ret.put(canon, name);
+            }
+        }
+        return new ArrayList<>(ret.values());
+    }
+
+    // ids of names whose canonical form starts with the canonical prefix, in canonical order
+    private static List<String> scanPrefix(String prefix) {
+        final String canonPrefix = CanonicalNameIndex.canonicalize(prefix);
+        Map<String, String> ret = new TreeMap<>();
+        for (String name : NAMES) {
+            final String canon = CanonicalNameIndex.canonicalize(name);
+            if (canon.startsWith(canonPrefix)) {
+                ret.put(canon, name);
+            }
+        }
+        return new ArrayList<>(ret.values());
+    }
+}
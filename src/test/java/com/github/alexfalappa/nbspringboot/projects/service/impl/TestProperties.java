@@ -0,0 +1,159 @@
+/*
+ * Copyright 2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.alexfalappa.nbspringboot.projects.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.configurationmetadata.ConfigurationMetadataProperty;
+
+import com.github.alexfalappa.nbspringboot.projects.service.api.CompactPropertyMetadata;
+
+/**
+ * Configuration properties shared by the metadata lookup tests.
+ * <p>
+ * Names are a sample of Spring Boot ones, mixing dashed names, map properties and nested map properties.
+ *
+ * @author Alessandro Falappa
+ */
+final class TestProperties {
+
+    static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+            "debug",
+            "trace",
+            "info.app.name",
+            "logging.file.name",
+            "logging.group",
+            "logging.level",
+            "logging.pattern.console",
+            "management.endpoint.health.show-details",
+            "management.endpoints.web.exposure.include",
+            "management.metrics.tags",
+            "management.server.port",
+            "server.address",
+            "server.port",
+            "server.servlet.context-path",
+            "server.ssl.key-store",
+            "server.ssl.key-store-password",
+            "server.tomcat.accesslog.enabled",
+            "server.tomcat.max-threads",
+            "spring.application.name",
+            "spring.cache.cache-names",
+            "spring.cache.type",
+            "spring.datasource.driver-class-name",
+            "spring.datasource.hikari.connection-timeout",
+            "spring.datasource.hikari.data-source-properties",
+            "spring.datasource.hikari.maximum-pool-size",
+            "spring.datasource.password",
+            "spring.datasource.url",
+            "spring.datasource.username",
+            "spring.devtools.restart.enabled",
+            "spring.flyway.locations",
+            "spring.h2.console.enabled",
+            "spring.jackson.date-format",
+            "spring.jackson.serialization",
+            "spring.jpa.hibernate.ddl-auto",
+            "spring.jpa.open-in-view",
+            "spring.jpa.properties",
+            "spring.jpa.show-sql",
+            "spring.kafka.bootstrap-servers",
+            "spring.kafka.consumer.group-id",
+            "spring.kafka.consumer.properties",
+            "spring.kafka.properties",
+            "spring.liquibase.change-log",
+            "spring.mail.host",
+            "spring.mail.properties",
+            "spring.main.banner-mode",
+            "spring.main.web-application-type",
+            "spring.mvc.view.prefix",
+            "spring.mvc.view.suffix",
+            "spring.profiles.active",
+            "spring.profiles.include",
+            "spring.rabbitmq.host",
+            "spring.rabbitmq.virtual-host",
+            "spring.redis.host",
+            "spring.redis.port",
+            "spring.redis.timeout",
+            "spring.security.user.name",
+            "spring.security.user.password",
+            "spring.security.user.roles",
+            "spring.servlet.multipart.max-file-size",
+            "spring.thymeleaf.cache",
+            "spring.thymeleaf.prefix",
+            "spring.webflux.base-path"));
+    static final Set<String> MAP_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "logging.group",
+            "logging.level",
+            "management.metrics.tags",
+            "spring.datasource.hikari.data-source-properties",
+            "spring.jackson.serialization",
+            "spring.jpa.properties",
+            "spring.kafka.consumer.properties",
+            "spring.kafka.properties",
+            "spring.mail.properties")));
+
+    private TestProperties() {
+    }
+
+    /**
+     * Builds the compact metadata of the sample properties keyed by name.
+     *
+     * @return a map in {@link #NAMES} order
+     */
+    static Map<String, CompactPropertyMetadata> properties() {
+        Map<String, CompactPropertyMetadata> ret = new LinkedHashMap<>();
+        for (String name : NAMES) {
+            ret.put(name, property(name, MAP_NAMES.contains(name) ? "java.util.Map<java.lang.String,java.lang.String>"
+                    : "java.lang.String"));
+        }
+        return ret;
+    }
+
+    /**
+     * Builds the compact metadata of a property.
+     *
+     * @param id the property id
+     * @param type the property data type
+     * @return the compact metadata
+     */
+    static CompactPropertyMetadata property(String id, String type) {
+        ConfigurationMetadataProperty prop = new ConfigurationMetadataProperty();
+        prop.setId(id);
+        prop.setName(id);
+        prop.setType(type);
+        return CompactPropertyMetadata.of(prop);
+    }
+
+    /**
+     * Extracts the ids of a list of properties.
+     *
+     * @param props the properties
+     * @return the ids in list order
+     */
+    static List<String> ids(List<CompactPropertyMetadata> props) {
+        List<String> ret = new ArrayList<>(props.size());
+        for (CompactPropertyMetadata prop : props) {
+            ret.add(prop.getId());
+        }
+        return ret;
+    }
+}